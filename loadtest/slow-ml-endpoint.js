@@ -0,0 +1,82 @@
+// Throughput under a slow Azure ML endpoint, platform threads vs virtual threads.
+//
+// Start the app with the loadtest profile (add ",virtual" on Java 21 for the virtual-thread run), then:
+//   k6 run -e BASE_URL=http://localhost:8080 -e EMAIL=admin@example.com -e PASSWORD=secret loadtest/slow-ml-endpoint.js
+//
+// The loadtest profile disables the prediction cache and raises the latency budget above the simulated
+// latency, and every batch gets a distinct ingredient name, so each creation waits on the simulator for its
+// prediction (concurrent ones may share one multi-row call). The dashboard reads run alongside it to show
+// whether cheap requests are starved while request threads wait on the upstream.
+
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const RATE = parseInt(__ENV.RATE || '300', 10);
+const DURATION = __ENV.DURATION || '2m';
+
+const createLatency = new Trend('batch_create_latency', true);
+const dashboardLatency = new Trend('dashboard_latency', true);
+
+export const options = {
+    scenarios: {
+        create_batches: {
+            executor: 'constant-arrival-rate',
+            exec: 'createBatch',
+            rate: RATE,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: RATE * 2,
+            maxVUs: RATE * 4,
+        },
+        read_dashboard: {
+            executor: 'constant-arrival-rate',
+            exec: 'readDashboard',
+            rate: 20,
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 20,
+            maxVUs: 100,
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        dashboard_latency: ['p(95)<500'],
+    },
+};
+
+const INGREDIENTS = ['Bayam', 'Wortel', 'Ayam', 'Telur', 'Tahu', 'Pisang'];
+const LOCATIONS = ['Kulkas A', 'Kulkas B', 'Freezer', 'Rak Kering'];
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(res, { 'logged in': (r) => r.status === 200 });
+    return { token: res.json('token') };
+}
+
+function headers(data) {
+    return { headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${data.token}` } };
+}
+
+export function createBatch(data) {
+    const body = {
+        // a distinct feature vector per request, so no prediction can be reused
+        ingredientName: `${INGREDIENTS[Math.floor(Math.random() * INGREDIENTS.length)]} ${__VU}-${__ITER}`,
+        weight: 1 + Math.round(Math.random() * 20),
+        unit: 'kg',
+        source: 'loadtest',
+        storageLocation: LOCATIONS[Math.floor(Math.random() * LOCATIONS.length)],
+    };
+    const res = http.post(`${BASE_URL}/api/batches`, JSON.stringify(body), headers(data));
+    createLatency.add(res.timings.duration);
+    check(res, { 'batch created': (r) => r.status === 200 });
+}
+
+export function readDashboard(data) {
+    const res = http.get(`${BASE_URL}/api/dashboard/summary`, headers(data));
+    dashboardLatency.add(res.timings.duration);
+    check(res, { 'dashboard ok': (r) => r.status === 200 });
+}
@@ -0,0 +1,165 @@
+package com.example.pantara.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named executors for {@code @Async} work, so IoT alerting, push delivery, notification persistence and email
+ * cannot starve each other. The {@code web-async} executor is registered as Boot's
+ * {@code applicationTaskExecutor}, which Spring MVC uses for {@code StreamingResponseBody} and other async
+ * request processing; without it MVC would start an unbounded new thread per streamed response.
+ *
+ * Each executor is configured under {@code async.executors.<name>}: {@code core-size}, {@code max-size},
+ * {@code queue-capacity}, {@code rejection-policy} (abort, caller-runs, discard or discard-oldest) and
+ * {@code virtual-threads}. In virtual-thread mode tasks run on a new virtual thread each, and {@code max-size}
+ * caps how many run at once; submitters block above that instead of queueing. That mode needs a Java 21 runtime.
+ * Every executor publishes {@code pantara.executor.active} and {@code pantara.executor.queued}, tagged with its
+ * name; thread-pool executors also publish {@code pantara.executor.rejected}.
+ */
+@Configuration
+public class AsyncExecutorsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncExecutorsConfig.class);
+
+    public static final String IOT_ALERT_EXECUTOR = "iotAlertExecutor";
+    public static final String PUSH_EXECUTOR = "pushExecutor";
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+    public static final String MAINTENANCE_EXECUTOR = "maintenanceExecutor";
+    public static final String WEB_ASYNC_EXECUTOR = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME;
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    public AsyncExecutorsConfig(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean(name = IOT_ALERT_EXECUTOR)
+    public AsyncTaskExecutor iotAlertExecutor() {
+        return build("iot-alert", 2, 4, 500, "caller-runs");
+    }
+
+    @Bean(name = PUSH_EXECUTOR)
+    public AsyncTaskExecutor pushExecutor() {
+        return build("push", 4, 4, 1000, "abort");
+    }
+
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public AsyncTaskExecutor notificationExecutor() {
+        return build("notification", 2, 4, 1000, "caller-runs");
+    }
+
+    @Bean(name = EMAIL_EXECUTOR)
+    public AsyncTaskExecutor emailExecutor() {
+        return build("email", 1, 2, 200, "caller-runs");
+    }
+
+    @Bean(name = MAINTENANCE_EXECUTOR)
+    public AsyncTaskExecutor maintenanceExecutor() {
+        return build("maintenance", 2, 2, 1000, "abort");
+    }
+
+    @Bean(name = WEB_ASYNC_EXECUTOR)
+    public AsyncTaskExecutor webAsyncExecutor() {
+        return build("web-async", 4, 16, 100, "abort");
+    }
+
+    private AsyncTaskExecutor build(String name, int defaultCoreSize, int defaultMaxSize,
+                                    int defaultQueueCapacity, String defaultRejectionPolicy) {
+        String prefix = "async.executors." + name + ".";
+        int coreSize = environment.getProperty(prefix + "core-size", Integer.class, defaultCoreSize);
+        int maxSize = Math.max(coreSize, environment.getProperty(prefix + "max-size", Integer.class, defaultMaxSize));
+        int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, defaultQueueCapacity);
+        String rejectionPolicy = environment.getProperty(prefix + "rejection-policy", defaultRejectionPolicy);
+        boolean virtualThreads = environment.getProperty(prefix + "virtual-threads", Boolean.class, false);
+
+        if (virtualThreads) {
+            log.info("Executor {} uses virtual threads with at most {} concurrent tasks", name, maxSize);
+            return virtualThreadExecutor(name, maxSize);
+        }
+
+        Counter rejected = Counter.builder("pantara.executor.rejected")
+                .tag("name", name)
+                .description("Tasks rejected because the executor was saturated")
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(name + "-");
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+
+        RejectedExecutionHandler policy = rejectionPolicy(rejectionPolicy);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, pool);
+        });
+
+        Gauge.builder("pantara.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("name", name)
+                .description("Tasks currently running")
+                .register(meterRegistry);
+        Gauge.builder("pantara.executor.queued", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .tag("name", name)
+                .description("Tasks waiting for a thread")
+                .register(meterRegistry);
+
+        log.info("Executor {}: core={}, max={}, queue={}, rejection={}",
+                name, coreSize, maxSize, queueCapacity, rejectionPolicy);
+        return executor;
+    }
+
+    private AsyncTaskExecutor virtualThreadExecutor(String name, int maxConcurrency) {
+        AtomicInteger active = new AtomicInteger();
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(name + "-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(maxConcurrency);
+        executor.setTaskDecorator(task -> () -> {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        });
+
+        Gauge.builder("pantara.executor.active", active, AtomicInteger::get)
+                .tag("name", name)
+                .description("Tasks currently running")
+                .register(meterRegistry);
+        Gauge.builder("pantara.executor.queued", () -> 0)
+                .tag("name", name)
+                .description("Tasks waiting for a thread")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    private static RejectedExecutionHandler rejectionPolicy(String policy) {
+        return switch (policy) {
+            case "caller-runs" -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case "discard" -> new ThreadPoolExecutor.DiscardPolicy();
+            case "discard-oldest" -> new ThreadPoolExecutor.DiscardOldestPolicy();
+            case "abort" -> new ThreadPoolExecutor.AbortPolicy();
+            default -> throw new IllegalArgumentException("Unknown rejection policy: " + policy);
+        };
+    }
+}
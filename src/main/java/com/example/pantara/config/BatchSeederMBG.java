@@ -2,13 +2,13 @@ package com.example.pantara.config;
 
 import com.example.pantara.entity.Batch;
 import com.example.pantara.repository.BatchRepository;
+import com.example.pantara.service.BatchCodeAllocator;
 import com.example.pantara.service.SpoilagePredictionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -23,13 +23,16 @@ import java.util.List;
 public class BatchSeederMBG implements CommandLineRunner {
     private final BatchRepository batchRepository;
     private final SpoilagePredictionService predictionService;
+    private final BatchCodeAllocator batchCodeAllocator;
     private final java.util.Random random = new java.util.Random();
 
     private static final Logger log = LoggerFactory.getLogger(BatchSeederMBG.class);
 
-    public BatchSeederMBG(BatchRepository batchRepository, SpoilagePredictionService predictionService) {
+    public BatchSeederMBG(BatchRepository batchRepository, SpoilagePredictionService predictionService,
+                          BatchCodeAllocator batchCodeAllocator) {
         this.batchRepository = batchRepository;
         this.predictionService = predictionService;
+        this.batchCodeAllocator = batchCodeAllocator;
 
         log.info("=== BatchSeederMBG CONSTRUCTOR CALLED ===");
         log.info("BatchRepository: {}", batchRepository != null ? "OK" : "NULL");
@@ -37,7 +40,6 @@ public class BatchSeederMBG implements CommandLineRunner {
     }
 
     @Override
-    @Transactional
     public void run(String... args) throws Exception {
         log.info("=== BatchSeederMBG RUN METHOD CALLED ===");
         log.info("Arguments received: {}", Arrays.toString(args));
@@ -82,6 +84,8 @@ public class BatchSeederMBG implements CommandLineRunner {
         // Bumbu dan bahan pokok - Untuk seasoning dan memasak
         batches.addAll(createBumbuBatches());
 
+        applyPredictions(batches);
+
         batchRepository.saveAll(batches);
         log.info("Successfully seeded {} batch items for MBG menu ingredients", batches.size());
     }
@@ -266,22 +270,29 @@ public class BatchSeederMBG implements CommandLineRunner {
         batch.setActive(true);
         batch.setEntryDate(Instant.now().minusSeconds(random.nextInt(259200)));
 
-        SpoilagePredictionService.PredictionResult prediction = predictionService.predictSpoilage(
-                ingredientName, storageLocation, batch.getEntryDate(), null);
+        return batch;
+    }
 
-        batch.setExpiryDate(prediction.getExpiryDate());
-        batch.setFreshnessStatus(prediction.getFreshnessStatus());
+    private void applyPredictions(List<Batch> batches) {
+        List<SpoilagePredictionService.PredictionInput> inputs = batches.stream()
+                .map(batch -> new SpoilagePredictionService.PredictionInput(
+                        batch.getIngredientName(), batch.getStorageLocation(), batch.getEntryDate(), null))
+                .toList();
 
-        return batch;
+        List<SpoilagePredictionService.PredictionResult> predictions = predictionService.predictSpoilage(inputs);
+        for (int i = 0; i < batches.size(); i++) {
+            batches.get(i).setExpiryDate(predictions.get(i).getExpiryDate());
+            batches.get(i).setFreshnessStatus(predictions.get(i).getFreshnessStatus());
+        }
     }
 
     private String generateBatchCode(String ingredientName, String storageLocation) {
         String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
         String locationCode = getLocationCode(storageLocation);
         String ingredientCode = ingredientName.substring(0, Math.min(3, ingredientName.length())).toUpperCase();
-        int randomSerial = 100 + random.nextInt(900);
+        String prefix = ingredientCode + "-" + today + "-" + locationCode + "-";
 
-        return ingredientCode + "-" + today + "-" + locationCode + "-" + "%03d".formatted(randomSerial);
+        return prefix + "%03d".formatted(batchCodeAllocator.nextSerial(prefix));
     }
 
     private String getLocationCode(String storageLocation) {
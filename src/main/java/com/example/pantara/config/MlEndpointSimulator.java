@@ -0,0 +1,90 @@
+package com.example.pantara.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Stand-in for the Azure ML scoring endpoint used by the {@code loadtest} profile.
+ *
+ * It answers every request with a fixed shelf life for each row in {@code input_data.data}, in the same
+ * shape as the real endpoint, after {@code loadtest.ml-simulator.latency-ms} plus up to
+ * {@code jitter-ms} of random delay. It listens on its own port with its own threads so that the simulated
+ * upstream never competes with the Tomcat threads being measured.
+ */
+@Component
+@Profile("loadtest")
+public class MlEndpointSimulator {
+
+    private static final Logger log = LoggerFactory.getLogger(MlEndpointSimulator.class);
+
+    private final int port;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double shelfLifeDays;
+    private final ObjectMapper objectMapper;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public MlEndpointSimulator(@Value("${loadtest.ml-simulator.port:18081}") int port,
+                               @Value("${loadtest.ml-simulator.latency-ms:800}") long latencyMs,
+                               @Value("${loadtest.ml-simulator.jitter-ms:200}") long jitterMs,
+                               @Value("${loadtest.ml-simulator.shelf-life-days:7}") double shelfLifeDays,
+                               ObjectMapper objectMapper) {
+        this.port = port;
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.shelfLifeDays = shelfLifeDays;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(executor);
+        server.createContext("/score", exchange -> {
+            try (exchange) {
+                int rows = objectMapper.readTree(exchange.getRequestBody()).path("input_data").path("data").size();
+                Thread.sleep(latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0));
+
+                byte[] body = Collections.nCopies(rows, String.valueOf(shelfLifeDays)).stream()
+                        .collect(Collectors.joining(",", "[", "]"))
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+        log.info("ML endpoint simulator listening on http://localhost:{}/score with {} ms (+{} ms jitter) latency",
+                port, latencyMs, jitterMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
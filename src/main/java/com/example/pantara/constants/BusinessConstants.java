@@ -77,8 +77,6 @@ public final class BusinessConstants {
     public static final class ScheduleIntervals {
         private ScheduleIntervals() {}
 
-        public static final int FRESHNESS_UPDATE_INTERVAL_MS = 7200000;
-
         public static final int BATCH_CLEANUP_INTERVAL_MS = 21600000;
 
         public static final String TOKEN_CLEANUP_CRON = "0 0 2 * * *";
@@ -95,6 +93,9 @@ public final class BusinessConstants {
 
         public static final int MAX_EXPORT_RECORDS = 10000;
         public static final int AUTOCOMPLETE_LIMIT = 10;
+
+        public static final int STREAM_FETCH_SIZE = 500;
+        public static final int STREAM_CLEAR_INTERVAL = 500;
     }
 
     public static final class ValidationConstraints {
@@ -130,5 +131,22 @@ public final class BusinessConstants {
         public static final double GOOD_ACCESSIBILITY_THRESHOLD = 60.0;
         public static final double FAIR_ACCESSIBILITY_THRESHOLD = 40.0;
     }
-}
 
+    public static final class SystemAccount {
+        private SystemAccount() {}
+
+        public static final String USERNAME = "pantara-system";
+        public static final String EMAIL = "system@pantara.local";
+        public static final String PROVIDER = "system";
+        public static final String PROVIDER_ID = "pantara-system";
+
+        /** Whether a user may not take this username because the system account uses it. */
+        public static boolean isReservedUsername(String username) {
+            return username != null && username.trim().equalsIgnoreCase(USERNAME);
+        }
+
+        public static boolean isReservedEmail(String email) {
+            return email != null && email.trim().equalsIgnoreCase(EMAIL);
+        }
+    }
+}
@@ -65,19 +65,33 @@ public final class IngredientConstants {
         public static final String PACK = "pack";
     }
 
-    public static final class IngredientPatterns {
-        private IngredientPatterns() {}
-
-        public static final String VEGETABLE_PATTERN =
-                ".*(bayam|kangkung|sawi|selada|tomat|timun|wortel|kentang|bawang|cabai|terong|kubis|buncis|jagung|pakis).*";
-
-        public static final String FRUIT_PATTERN =
-                ".*(pisang|apel|jeruk|mangga|pepaya|semangka|anggur|strawberry|melon|nanas|salak|rambutan).*";
-
-        public static final String PROTEIN_PATTERN =
-                ".*(ayam|daging|ikan|udang|telur|tahu|tempe|cumi|bebek).*";
-
-        public static final String STAPLES_PATTERN =
-                ".*(beras|tepung|gula|garam|minyak|roti|pasta|mie|ubi|santan|kecap).*";
+    public static final class IngredientKeywords {
+        private IngredientKeywords() {}
+
+        public static final String[] VEGETABLES = {
+                "bayam", "kangkung", "sawi", "selada", "tomat", "timun", "wortel", "kentang", "bawang",
+                "cabai", "terong", "kubis", "buncis", "jagung", "pakis"
+        };
+
+        public static final String[] FRUITS = {
+                "pisang", "apel", "jeruk", "mangga", "pepaya", "semangka", "anggur", "strawberry", "melon",
+                "nanas", "salak", "rambutan"
+        };
+
+        public static final String[] ANIMAL_PROTEIN = {
+                "ayam", "daging", "ikan", "udang", "telur", "cumi", "bebek"
+        };
+
+        public static final String[] PLANT_PROTEIN = {
+                "tahu", "tempe", "kacang"
+        };
+
+        public static final String[] CARBOHYDRATES = {
+                "beras", "tepung", "mie", "roti", "pasta", "ubi"
+        };
+
+        public static final String[] SEASONINGS = {
+                "gula", "garam", "minyak", "santan", "kecap", "merica", "kunyit", "jahe", "bumbu"
+        };
     }
 }
@@ -7,11 +7,14 @@ import com.example.pantara.dto.request.MenuUsageRequest;
 import com.example.pantara.dto.response.*;
 import com.example.pantara.security.services.UserPrincipal;
 import com.example.pantara.service.BatchService;
+import com.example.pantara.service.export.ExportService;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -20,9 +23,11 @@ import java.util.List;
 public class BatchController {
 
     private final BatchService batchService;
+    private final ExportService exportService;
 
-    public BatchController(BatchService batchService) {
+    public BatchController(BatchService batchService, ExportService exportService) {
         this.batchService = batchService;
+        this.exportService = exportService;
     }
 
     @PostMapping
@@ -37,6 +42,20 @@ public class BatchController {
         return ResponseEntity.ok(batches);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<BatchResponse>> getActiveBatchesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(batchService.getActiveBatchesPage(cursor, size));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamActiveBatches() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(batchService.streamActiveBatches());
+    }
+
     @GetMapping("/advanced-filter")
     public ResponseEntity<List<BatchResponse>> getBatchesWithAdvancedFilter(
             @RequestParam(required = false) String ingredientName,
@@ -94,11 +113,11 @@ public class BatchController {
     }
 
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportBatchData(
+    public ResponseEntity<StreamingResponseBody> exportBatchData(
             @RequestParam(defaultValue = "csv") String format,
             @RequestParam(required = false) String ingredientName,
             @RequestParam(required = false) String storageLocation) {
-        return batchService.exportBatchData(format, ingredientName, storageLocation);
+        return exportService.exportBatches(format, ingredientName, storageLocation);
     }
 
     @PostMapping("/use-for-menu")
@@ -1,7 +1,10 @@
 package com.example.pantara.controller;
 
+import com.example.pantara.dto.request.ProductionPlanRequest;
 import com.example.pantara.dto.response.*;
 import com.example.pantara.service.FifoService;
+import com.example.pantara.service.MenuAllocationEngine;
+import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,9 +16,11 @@ import java.util.List;
 public class FifoController {
 
     private final FifoService fifoService;
+    private final MenuAllocationEngine menuAllocationEngine;
 
-    public FifoController(FifoService fifoService) {
+    public FifoController(FifoService fifoService, MenuAllocationEngine menuAllocationEngine) {
         this.fifoService = fifoService;
+        this.menuAllocationEngine = menuAllocationEngine;
     }
 
     /**
@@ -28,6 +33,16 @@ public class FifoController {
         return ResponseEntity.ok(batches);
     }
 
+    /**
+     * Keyset-paginated variant of {@code /all-batches-by-priority}
+     */
+    @GetMapping("/all-batches-by-priority/page")
+    public ResponseEntity<CursorPage<FifoBatchResponse>> getAllBatchesByPriorityPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(fifoService.getAllBatchesByFifoPriorityPage(cursor, size));
+    }
+
     /**
      * 🆕 NEW: Get batches by priority with detailed priority information
      */
@@ -116,6 +131,15 @@ public class FifoController {
         return ResponseEntity.ok(recommendation);
     }
 
+    /**
+     * Plan production of several menus at once: demand is summed per ingredient and allocated FIFO
+     * over one inventory snapshot, so menus sharing an ingredient are never promised the same batch.
+     */
+    @PostMapping("/production-plan")
+    public ResponseEntity<ProductionPlanResponse> getProductionPlan(@Valid @RequestBody ProductionPlanRequest request) {
+        return ResponseEntity.ok(menuAllocationEngine.plan(request.getMenus()));
+    }
+
     /**
      * 3.3 - Get storage layout recommendation
      */
@@ -1,15 +1,29 @@
 package com.example.pantara.controller;
 
 import com.example.pantara.dto.request.IoTSensorDataRequest;
+import com.example.pantara.dto.response.CursorPage;
+import com.example.pantara.dto.response.IoTBulkIngestResponse;
+import com.example.pantara.dto.response.IoTHistoryResponse;
 import com.example.pantara.dto.response.MessageResponse;
 import com.example.pantara.entity.IoTSensorData;
+import com.example.pantara.exception.ServiceOverloadedException;
+import com.example.pantara.service.IoTBulkIngestionService;
+import com.example.pantara.service.IoTRollupService;
 import com.example.pantara.service.IoTService;
+import com.example.pantara.service.export.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,9 +35,18 @@ public class IoTController {
     private static final Logger log = LoggerFactory.getLogger(IoTController.class);
 
     private final IoTService iotService;
-
-    public IoTController(IoTService iotService) {
+    private final IoTBulkIngestionService bulkIngestionService;
+    private final IoTRollupService rollupService;
+    private final ExportService exportService;
+
+    public IoTController(IoTService iotService,
+                         IoTBulkIngestionService bulkIngestionService,
+                         IoTRollupService rollupService,
+                         ExportService exportService) {
         this.iotService = iotService;
+        this.bulkIngestionService = bulkIngestionService;
+        this.rollupService = rollupService;
+        this.exportService = exportService;
     }
 
     @PostMapping("/sensor-data")
@@ -32,16 +55,18 @@ public class IoTController {
             log.info("Received IoT sensor data from device: {} - Temp: {}°C, Humidity: {}%",
                     request.getDevice(), request.getTemperatureC(), request.getHumidityPct());
 
-            IoTSensorData savedData = iotService.processSensorData(request);
+            IoTSensorData queuedData = iotService.processSensorData(request);
 
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
             response.put("message", "Sensor data received successfully");
-            response.put("data_id", savedData.getId().toString());
-            response.put("received_at", savedData.getReceivedAt().toString());
+            response.put("data_id", queuedData.getId().toString());
+            response.put("received_at", queuedData.getReceivedAt().toString());
 
             return ResponseEntity.ok(response);
 
+        } catch (ServiceOverloadedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error processing IoT sensor data from device: {}", request.getDevice(), e);
 
@@ -53,6 +78,16 @@ public class IoTController {
         }
     }
 
+    @PostMapping(value = "/sensor-data/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IoTBulkIngestResponse> receiveBulkSensorData(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(bulkIngestionService.ingestJsonArray(request.getInputStream()));
+    }
+
+    @PostMapping(value = "/sensor-data/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<IoTBulkIngestResponse> receiveBulkSensorDataNdjson(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(bulkIngestionService.ingestNdjson(request.getInputStream()));
+    }
+
     @GetMapping("/devices")
     public ResponseEntity<List<String>> getAllDevices() {
         List<String> devices = iotService.getAllDeviceIds();
@@ -60,17 +95,57 @@ public class IoTController {
     }
 
     @GetMapping("/devices/{deviceId}/data")
-    public ResponseEntity<List<IoTSensorData>> getDeviceData(@PathVariable String deviceId) {
-        List<IoTSensorData> data = iotService.getDeviceData(deviceId);
-        return ResponseEntity.ok(data);
+    public ResponseEntity<IoTHistoryResponse> getDeviceData(
+            @PathVariable String deviceId,
+            @RequestParam(defaultValue = "500") int maxPoints) {
+        return ResponseEntity.ok(iotService.getDeviceData(deviceId, maxPoints));
+    }
+
+    @GetMapping("/devices/{deviceId}/data/page")
+    public ResponseEntity<CursorPage<IoTSensorData>> getDeviceDataPage(
+            @PathVariable String deviceId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(iotService.getDeviceDataPage(deviceId, cursor, size));
+    }
+
+    @GetMapping(value = "/devices/{deviceId}/data/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDeviceData(@PathVariable String deviceId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(iotService.streamDeviceData(deviceId));
     }
 
     @GetMapping("/devices/{deviceId}/recent")
-    public ResponseEntity<List<IoTSensorData>> getRecentDeviceData(
+    public ResponseEntity<IoTHistoryResponse> getRecentDeviceData(
+            @PathVariable String deviceId,
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "500") int maxPoints) {
+        return ResponseEntity.ok(iotService.getRecentDeviceData(deviceId, hours, maxPoints));
+    }
+
+    @GetMapping("/devices/{deviceId}/history")
+    public ResponseEntity<IoTHistoryResponse> getDeviceHistory(
             @PathVariable String deviceId,
-            @RequestParam(defaultValue = "24") int hours) {
-        List<IoTSensorData> data = iotService.getRecentDeviceData(deviceId, hours);
-        return ResponseEntity.ok(data);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "500") int maxPoints) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(24, ChronoUnit.HOURS);
+
+        return ResponseEntity.ok(rollupService.getHistory(deviceId, start, end, maxPoints));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTelemetry(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String deviceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(24, ChronoUnit.HOURS);
+
+        return exportService.exportTelemetry(format, deviceId, start, end);
     }
 
     @PostMapping("/test-notification")
@@ -85,7 +160,7 @@ public class IoTController {
                     iotService.sendTemperatureRiseAlert(deviceId, 25.0, 32.0, 7.0);
                     break;
                 case "device_offline":
-                    iotService.sendDeviceOfflineAlert(deviceId, java.time.Instant.now().minusSeconds(360));
+                    iotService.sendDeviceOfflineAlert(deviceId, Instant.now().minusSeconds(360));
                     break;
                 default:
                     return ResponseEntity.badRequest()
@@ -1,16 +1,20 @@
 package com.example.pantara.controller;
 
 import com.example.pantara.dto.request.UsageRecordRequest;
+import com.example.pantara.dto.response.CursorPage;
 import com.example.pantara.dto.response.MessageResponse;
 import com.example.pantara.dto.response.UsageHistoryResponse;
 import com.example.pantara.security.services.UserPrincipal;
 import com.example.pantara.service.UsageService;
+import com.example.pantara.service.export.ExportService;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -24,9 +28,11 @@ import static com.example.pantara.service.impl.AuthServiceImpl.log;
 public class UsageController {
 
     private final UsageService usageService;
+    private final ExportService exportService;
 
-    public UsageController(UsageService usageService) {
+    public UsageController(UsageService usageService, ExportService exportService) {
         this.usageService = usageService;
+        this.exportService = exportService;
     }
 
     @PostMapping("/record")
@@ -80,4 +86,42 @@ public class UsageController {
         List<UsageHistoryResponse> history = usageService.getUsageHistoryByDateRange(startInstant, endInstant);
         return ResponseEntity.ok(history);
     }
+
+    @GetMapping("/history/page")
+    public ResponseEntity<CursorPage<UsageHistoryResponse>> getUsageHistoryPage(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+
+        Instant startInstant = startDate.atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant endInstant = endDate.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+
+        return ResponseEntity.ok(usageService.getUsageHistoryPage(startInstant, endInstant, cursor, size));
+    }
+
+    @GetMapping(value = "/history/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsageHistory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        Instant startInstant = startDate.atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant endInstant = endDate.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(usageService.streamUsageHistory(startInstant, endInstant));
+    }
+
+    @GetMapping("/history/export")
+    public ResponseEntity<StreamingResponseBody> exportUsageHistory(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        Instant startInstant = startDate.atStartOfDay().toInstant(ZoneOffset.UTC);
+        Instant endInstant = endDate.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+
+        return exportService.exportUsageHistory(format, startInstant, endInstant);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.example.pantara.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductionPlanRequest {
+
+    @NotEmpty(message = "At least one menu is required")
+    @Size(max = 200, message = "A production plan can contain at most 200 menus")
+    @Valid
+    private List<MenuPortion> menus;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class MenuPortion {
+
+        @NotNull(message = "Menu ID is required")
+        private String menuId;
+
+        @NotNull(message = "Portion count is required")
+        @DecimalMin(value = "1", message = "Portion count must be at least 1")
+        private Integer portionCount;
+    }
+}
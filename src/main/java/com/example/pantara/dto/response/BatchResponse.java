@@ -25,6 +25,7 @@ public class BatchResponse {
     private String storageLocation;
     private Batch.FreshnessStatus freshnessStatus;
     private boolean active;
+    private boolean predictionPending;
     private String notes;
     private Instant createdAt;
     private Instant updatedAt;
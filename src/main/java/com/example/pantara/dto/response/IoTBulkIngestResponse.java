@@ -0,0 +1,35 @@
+package com.example.pantara.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class IoTBulkIngestResponse {
+    private int total;
+    private int accepted;
+    private int rejected;
+    private int retry;
+    private boolean truncated;
+    private String message;
+    private List<ItemResult> results = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private String status;
+        private String device;
+        private List<String> errors;
+
+        public ItemResult(int index, String status, String device, List<String> errors) {
+            this.index = index;
+            this.status = status;
+            this.device = device;
+            this.errors = errors;
+        }
+    }
+}
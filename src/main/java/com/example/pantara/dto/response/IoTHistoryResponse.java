@@ -0,0 +1,33 @@
+package com.example.pantara.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class IoTHistoryResponse {
+    private String deviceId;
+    private String bucketSize;
+    private Instant from;
+    private Instant to;
+    private List<Point> points;
+
+    @Data
+    @NoArgsConstructor
+    public static class Point {
+        private Instant bucketStart;
+        private long sampleCount;
+        private double temperatureMin;
+        private double temperatureAvg;
+        private double temperatureMax;
+        private double humidityMin;
+        private double humidityAvg;
+        private double humidityMax;
+        private double heatIndexMin;
+        private double heatIndexAvg;
+        private double heatIndexMax;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.pantara.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductionPlanResponse {
+    private boolean feasible;
+    private Instant inventorySnapshotAt;
+    private List<MenuPlan> menus;
+    private List<FifoPickingRecommendationResponse> ingredients;
+    private List<String> shortages;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class MenuPlan {
+        private String menuId;
+        private String menuName;
+        private int portionCount;
+        private boolean feasible;
+        private List<String> shortIngredients;
+    }
+}
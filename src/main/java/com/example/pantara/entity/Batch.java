@@ -6,7 +6,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -15,6 +17,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "batches")
+@DynamicUpdate
 @Data
 @Getter
 @Setter
@@ -62,6 +65,13 @@ public class Batch {
     @Column(name = "active", nullable = false)
     private boolean active = true;
 
+    /**
+     * Set while the expiry is still the rule-based fallback and an ML prediction is on its way.
+     */
+    @ColumnDefault("false")
+    @Column(name = "prediction_pending", nullable = false)
+    private boolean predictionPending;
+
     @Column(name = "notes", length = 500)
     private String notes;
 
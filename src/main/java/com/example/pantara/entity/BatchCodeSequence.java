@@ -0,0 +1,32 @@
+package com.example.pantara.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "batch_code_sequences")
+@Data
+@NoArgsConstructor
+public class BatchCodeSequence {
+
+    /** Batch code prefix the serials belong to: ingredient code, date and location code, e.g. "BAY-20250101-RFG-". */
+    @Id
+    @Column(name = "prefix", length = 50)
+    private String prefix;
+
+    /** First serial not yet reserved by any instance. */
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public BatchCodeSequence(String prefix, long nextValue) {
+        this.prefix = prefix;
+        this.nextValue = nextValue;
+        this.updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.pantara.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A push token registered by one of a user's devices. A token belongs to at most one user at a time;
+ * registering it again moves it to the registering user and refreshes {@code lastSeenAt}.
+ */
+@Entity
+@Table(name = "device_tokens",
+        uniqueConstraints = @UniqueConstraint(name = "uk_device_token", columnNames = "token"),
+        indexes = @Index(name = "idx_device_token_user", columnList = "user_id"))
+@Data
+@NoArgsConstructor
+public class DeviceToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "token", nullable = false, length = 512)
+    private String token;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "last_seen_at", nullable = false)
+    private Instant lastSeenAt;
+
+    public DeviceToken(UUID userId, String token, Instant now) {
+        this.userId = userId;
+        this.token = token;
+        this.createdAt = now;
+        this.lastSeenAt = now;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.pantara.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of the one-time build of rollups from raw readings stored before rollups were maintained.
+ * Raw readings received in [{@code rangeFrom}, {@code cutoff}) are folded in by the backfill; all other
+ * readings are folded in by the ingestion pipeline.
+ */
+@Entity
+@Table(name = "iot_rollup_backfill")
+@Data
+@NoArgsConstructor
+public class IoTRollupBackfill {
+
+    public static final String RAW_READINGS = "raw-readings";
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    @Column(name = "range_from", nullable = false)
+    private Instant rangeFrom;
+
+    @Column(name = "cutoff", nullable = false)
+    private Instant cutoff;
+
+    /** Position of the last reading folded in; the backfill resumes after it. */
+    @Column(name = "resume_received_at")
+    private Instant resumeReceivedAt;
+
+    @Column(name = "resume_id")
+    private UUID resumeId;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    /** Guards against two instances folding in the same page. */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public IoTRollupBackfill(String name, Instant rangeFrom, Instant cutoff) {
+        this.name = name;
+        this.rangeFrom = rangeFrom;
+        this.cutoff = cutoff;
+        if (!rangeFrom.isBefore(cutoff)) {
+            this.completedAt = cutoff;
+        }
+    }
+
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+
+    /**
+     * Whether the backfill has yet to fold in the reading with the given position. Readings are compared
+     * by {@code (receivedAt, id)}, the order in which the backfill pages through them.
+     */
+    public boolean isPending(Instant receivedAt, UUID id) {
+        if (isCompleted() || receivedAt.isBefore(rangeFrom) || !receivedAt.isBefore(cutoff)) {
+            return false;
+        }
+        if (resumeReceivedAt == null) {
+            return true;
+        }
+        int byTime = receivedAt.compareTo(resumeReceivedAt);
+        return byTime > 0 || (byTime == 0 && compareIds(id, resumeId) > 0);
+    }
+
+    /**
+     * Orders ids the way the database orders uuid columns, byte by byte; {@link UUID#compareTo} compares
+     * signed halves and disagrees whenever the top bit differs.
+     */
+    private static int compareIds(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
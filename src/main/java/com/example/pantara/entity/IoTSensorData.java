@@ -2,8 +2,6 @@ package com.example.pantara.entity;
 
 import jakarta.persistence.*;
 
-import org.hibernate.annotations.CreationTimestamp;
-
 import java.time.Instant;
 import java.util.UUID;
 
@@ -14,7 +12,11 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "iot_sensor_data")
+@Table(name = "iot_sensor_data",
+        indexes = {
+                @Index(name = "idx_iot_data_device_received", columnList = "device_id, received_at"),
+                @Index(name = "idx_iot_data_received", columnList = "received_at")
+        })
 @Data
 @Getter
 @Setter
@@ -22,8 +24,8 @@ import lombok.Setter;
 @NoArgsConstructor
 public class IoTSensorData {
 
+    /** Assigned when the reading is received, so it can be returned before the reading is written. */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID id;
 
     @Column(name = "device_id", nullable = false, length = 100)
@@ -41,7 +43,6 @@ public class IoTSensorData {
     @Column(name = "device_timestamp")
     private Long deviceTimestamp;
 
-    @CreationTimestamp
     @Column(name = "received_at", nullable = false)
     private Instant receivedAt;
 
@@ -0,0 +1,125 @@
+package com.example.pantara.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "iot_sensor_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_iot_rollup_bucket",
+                columnNames = {"device_id", "bucket_size", "bucket_start"}),
+        indexes = @Index(name = "idx_iot_rollup_lookup", columnList = "device_id, bucket_size, bucket_start"))
+@Data
+@NoArgsConstructor
+public class IoTSensorRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "device_id", nullable = false, length = 100)
+    private String deviceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "bucket_size", nullable = false, length = 20)
+    private BucketSize bucketSize;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "sample_count", nullable = false)
+    private long sampleCount;
+
+    @Column(name = "temperature_min", nullable = false)
+    private double temperatureMin;
+
+    @Column(name = "temperature_max", nullable = false)
+    private double temperatureMax;
+
+    @Column(name = "temperature_sum", nullable = false)
+    private double temperatureSum;
+
+    @Column(name = "humidity_min", nullable = false)
+    private double humidityMin;
+
+    @Column(name = "humidity_max", nullable = false)
+    private double humidityMax;
+
+    @Column(name = "humidity_sum", nullable = false)
+    private double humiditySum;
+
+    @Column(name = "heat_index_min", nullable = false)
+    private double heatIndexMin;
+
+    @Column(name = "heat_index_max", nullable = false)
+    private double heatIndexMax;
+
+    @Column(name = "heat_index_sum", nullable = false)
+    private double heatIndexSum;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public IoTSensorRollup(String deviceId, BucketSize bucketSize, Instant bucketStart) {
+        this.deviceId = deviceId;
+        this.bucketSize = bucketSize;
+        this.bucketStart = bucketStart;
+        this.temperatureMin = Double.POSITIVE_INFINITY;
+        this.temperatureMax = Double.NEGATIVE_INFINITY;
+        this.humidityMin = Double.POSITIVE_INFINITY;
+        this.humidityMax = Double.NEGATIVE_INFINITY;
+        this.heatIndexMin = Double.POSITIVE_INFINITY;
+        this.heatIndexMax = Double.NEGATIVE_INFINITY;
+    }
+
+    public void add(IoTSensorData reading) {
+        sampleCount++;
+        temperatureMin = Math.min(temperatureMin, reading.getTemperatureC());
+        temperatureMax = Math.max(temperatureMax, reading.getTemperatureC());
+        temperatureSum += reading.getTemperatureC();
+        humidityMin = Math.min(humidityMin, reading.getHumidityPct());
+        humidityMax = Math.max(humidityMax, reading.getHumidityPct());
+        humiditySum += reading.getHumidityPct();
+        heatIndexMin = Math.min(heatIndexMin, reading.getHeatIndexC());
+        heatIndexMax = Math.max(heatIndexMax, reading.getHeatIndexC());
+        heatIndexSum += reading.getHeatIndexC();
+    }
+
+    public void merge(IoTSensorRollup other) {
+        sampleCount += other.sampleCount;
+        temperatureMin = Math.min(temperatureMin, other.temperatureMin);
+        temperatureMax = Math.max(temperatureMax, other.temperatureMax);
+        temperatureSum += other.temperatureSum;
+        humidityMin = Math.min(humidityMin, other.humidityMin);
+        humidityMax = Math.max(humidityMax, other.humidityMax);
+        humiditySum += other.humiditySum;
+        heatIndexMin = Math.min(heatIndexMin, other.heatIndexMin);
+        heatIndexMax = Math.max(heatIndexMax, other.heatIndexMax);
+        heatIndexSum += other.heatIndexSum;
+    }
+
+    public enum BucketSize {
+        MINUTE_1(Duration.ofMinutes(1)),
+        MINUTE_15(Duration.ofMinutes(15)),
+        HOUR_1(Duration.ofHours(1));
+
+        private final Duration duration;
+
+        BucketSize(Duration duration) {
+            this.duration = duration;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        public Instant bucketStartOf(Instant instant) {
+            long size = duration.toMillis();
+            return Instant.ofEpochMilli(Math.floorDiv(instant.toEpochMilli(), size) * size);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.pantara.entity;
 
+import com.example.pantara.event.MenuEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,6 +14,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "menus")
+@EntityListeners(MenuEntityListener.class)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -1,5 +1,6 @@
 package com.example.pantara.entity;
 
+import com.example.pantara.event.MenuEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,6 +11,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "menu_ingredients")
+@EntityListeners(MenuEntityListener.class)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -0,0 +1,27 @@
+package com.example.pantara.event;
+
+import com.example.pantara.entity.Batch;
+
+import java.util.List;
+
+/**
+ * Published whenever one or more batches are created or modified.
+ * Listeners that keep in-memory views of the inventory consume it after the
+ * surrounding transaction commits, so they only ever observe committed state.
+ */
+public class BatchChangedEvent {
+
+    private final List<Batch> batches;
+
+    public BatchChangedEvent(List<Batch> batches) {
+        this.batches = List.copyOf(batches);
+    }
+
+    public static BatchChangedEvent of(Batch batch) {
+        return new BatchChangedEvent(List.of(batch));
+    }
+
+    public List<Batch> getBatches() {
+        return batches;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.pantara.event;
+
+/**
+ * Published whenever a menu or one of its ingredients is inserted, updated or deleted, so that
+ * in-memory views of the menu catalog can be refreshed once the surrounding transaction commits.
+ */
+public class MenuChangedEvent {
+}
@@ -0,0 +1,28 @@
+package com.example.pantara.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on menus and menu ingredients that turns every write into a {@link MenuChangedEvent},
+ * whichever code path made it.
+ */
+@Component
+public class MenuEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MenuEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onMenuWritten(Object entity) {
+        eventPublisher.publishEvent(new MenuChangedEvent());
+    }
+}
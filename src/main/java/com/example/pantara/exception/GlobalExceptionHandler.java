@@ -4,6 +4,7 @@ import com.example.pantara.dto.response.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -143,6 +144,28 @@ public class GlobalExceptionHandler {
                 .body(error);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloaded(
+            ServiceOverloadedException ex,
+            HttpServletRequest request) {
+
+        String traceId = generateTraceId();
+        logError(ex, traceId, "Service overloaded");
+
+        ErrorResponse error = createErrorResponse(
+                ex.getErrorCode(),
+                ex.getMessage(),
+                request,
+                traceId
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(error);
+    }
+
     // =================================================================
     // SPRING SECURITY EXCEPTIONS
     // =================================================================
@@ -0,0 +1,26 @@
+package com.example.pantara.exception;
+
+/**
+ * Exception thrown when a bounded internal buffer is full and the request should be retried later
+ */
+public class ServiceOverloadedException extends BusinessException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String resource, long retryAfterSeconds) {
+        super(
+                "SERVICE_OVERLOADED",
+                "%s is at capacity. Please retry after %d seconds".formatted(resource, retryAfterSeconds),
+                resource, retryAfterSeconds
+        );
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public static ServiceOverloadedException iotIngestionQueueFull(long retryAfterSeconds) {
+        return new ServiceOverloadedException("IoT ingestion queue", retryAfterSeconds);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.pantara.repository;
+
+import com.example.pantara.entity.BatchCodeSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface BatchCodeSequenceRepository extends JpaRepository<BatchCodeSequence, String> {
+
+    @Modifying
+    @Query("UPDATE BatchCodeSequence s SET s.nextValue = s.nextValue + :blockSize, s.updatedAt = :now " +
+            "WHERE s.prefix = :prefix")
+    int advance(@Param("prefix") String prefix, @Param("blockSize") long blockSize, @Param("now") Instant now);
+
+    @Query("SELECT s.nextValue FROM BatchCodeSequence s WHERE s.prefix = :prefix")
+    long findNextValue(@Param("prefix") String prefix);
+}
@@ -1,22 +1,36 @@
 package com.example.pantara.repository;
 
+import com.example.pantara.constants.BusinessConstants;
 import com.example.pantara.entity.Batch;
+import com.example.pantara.repository.projection.BatchAggregateRow;
+import com.example.pantara.repository.projection.BatchFreshnessRow;
+import com.example.pantara.repository.projection.FreshnessBreakdown;
+import com.example.pantara.repository.projection.IngredientBreakdown;
+import com.example.pantara.repository.projection.StatusBreakdown;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface BatchRepository extends JpaRepository<Batch, UUID> {
+public interface BatchRepository extends JpaRepository<Batch, UUID>, BatchRepositoryCustom {
 
     List<Batch> findByActiveTrue();
     List<Batch> findByActiveTrueOrderByEntryDateAsc();
+    List<Batch> findByActiveTrueAndPredictionPendingTrue();
     List<Batch> findByIngredientNameAndActiveTrueOrderByEntryDateAsc(String ingredientName);
+    List<Batch> findByIngredientNameInAndActiveTrueOrderByEntryDateAsc(Collection<String> ingredientNames);
     List<Batch> findByStorageLocationAndActiveTrue(String storageLocation);
     List<Batch> findByStorageLocationAndActiveTrueOrderByEntryDateAsc(String storageLocation);
     List<Batch> findByFreshnessStatusAndActiveTrue(Batch.FreshnessStatus status);
@@ -103,27 +117,64 @@ public interface BatchRepository extends JpaRepository<Batch, UUID> {
     @Query("SELECT COUNT(b) FROM Batch b WHERE b.active = true")
     long countActiveBatches();
 
-    @Query("SELECT SUM(b.weight) FROM Batch b WHERE b.active = true")
-    Double getTotalActiveWeight();
-
-    @Query("SELECT b.ingredientName, COUNT(b) as batchCount, SUM(b.weight) as totalWeight " +
+    @Query("SELECT b.ingredientName AS groupKey, COUNT(b) AS batchCount, " +
+            "COALESCE(SUM(b.weight), 0) AS totalWeight, " +
+            "SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.GREEN THEN 1 ELSE 0 END) AS greenBatches, " +
+            "SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.YELLOW THEN 1 ELSE 0 END) AS yellowBatches, " +
+            "SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.RED THEN 1 ELSE 0 END) AS redBatches, " +
+            "COALESCE(SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.GREEN THEN b.weight END), 0) AS greenWeight, " +
+            "COALESCE(SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.YELLOW THEN b.weight END), 0) AS yellowWeight, " +
+            "COALESCE(SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.RED THEN b.weight END), 0) AS redWeight, " +
+            "MIN(b.unit) AS unit, MIN(b.category) AS category " +
             "FROM Batch b WHERE b.active = true " +
-            "GROUP BY b.ingredientName ORDER BY totalWeight DESC")
-    List<Object[]> getIngredientSummary();
-
-    @Query("SELECT b.storageLocation, COUNT(b) as batchCount " +
+            "GROUP BY b.ingredientName " +
+            "ORDER BY totalWeight DESC")
+    List<IngredientBreakdown> getIngredientBreakdown();
+
+    @Query("SELECT b.storageLocation AS groupKey, COUNT(b) AS batchCount, " +
+            "COALESCE(SUM(b.weight), 0) AS totalWeight, " +
+            "SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.GREEN THEN 1 ELSE 0 END) AS greenBatches, " +
+            "SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.YELLOW THEN 1 ELSE 0 END) AS yellowBatches, " +
+            "SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.RED THEN 1 ELSE 0 END) AS redBatches, " +
+            "COALESCE(SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.GREEN THEN b.weight END), 0) AS greenWeight, " +
+            "COALESCE(SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.YELLOW THEN b.weight END), 0) AS yellowWeight, " +
+            "COALESCE(SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.RED THEN b.weight END), 0) AS redWeight " +
             "FROM Batch b WHERE b.active = true " +
-            "GROUP BY b.storageLocation")
-    List<Object[]> getStorageLocationSummary();
+            "GROUP BY b.storageLocation " +
+            "ORDER BY totalWeight DESC")
+    List<StatusBreakdown> getStorageLocationBreakdown();
+
+    @Query("SELECT b.category AS groupKey, COUNT(b) AS batchCount, " +
+            "COALESCE(SUM(b.weight), 0) AS totalWeight, " +
+            "SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.GREEN THEN 1 ELSE 0 END) AS greenBatches, " +
+            "SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.YELLOW THEN 1 ELSE 0 END) AS yellowBatches, " +
+            "SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.RED THEN 1 ELSE 0 END) AS redBatches, " +
+            "COALESCE(SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.GREEN THEN b.weight END), 0) AS greenWeight, " +
+            "COALESCE(SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.YELLOW THEN b.weight END), 0) AS yellowWeight, " +
+            "COALESCE(SUM(CASE WHEN b.freshnessStatus = com.example.pantara.entity.Batch.FreshnessStatus.RED THEN b.weight END), 0) AS redWeight " +
+            "FROM Batch b WHERE b.active = true AND b.category IS NOT NULL " +
+            "GROUP BY b.category " +
+            "ORDER BY totalWeight DESC")
+    List<StatusBreakdown> getCategoryBreakdown();
 
-    @Query("SELECT b.freshnessStatus, COUNT(b) as count " +
+    @Query("SELECT b.freshnessStatus AS status, COUNT(b) AS batchCount, COALESCE(SUM(b.weight), 0) AS totalWeight " +
             "FROM Batch b WHERE b.active = true " +
             "GROUP BY b.freshnessStatus")
-    List<Object[]> getFreshnessStatusSummary();
+    List<FreshnessBreakdown> getFreshnessBreakdown();
+
+    @Query("SELECT b.id AS id, b.ingredientName AS ingredientName, b.category AS category, " +
+            "b.storageLocation AS storageLocation, b.freshnessStatus AS freshnessStatus, b.weight AS weight " +
+            "FROM Batch b WHERE b.active = true")
+    List<BatchAggregateRow> findActiveAggregateRows();
 
-    @Query("SELECT MAX(CAST(SUBSTRING(b.batchCode, LENGTH(b.batchCode) - 2, 3) AS int)) " +
+    @Query("SELECT b.id AS id, b.entryDate AS entryDate, b.expiryDate AS expiryDate, b.freshnessStatus AS freshnessStatus " +
+            "FROM Batch b WHERE b.active = true AND b.expiryDate IS NOT NULL")
+    List<BatchFreshnessRow> findActiveFreshnessRows();
+
+    /** The serial is everything after the prefix, so serials past 999 are read in full. */
+    @Query("SELECT MAX(CAST(SUBSTRING(b.batchCode, LENGTH(:prefix) + 1) AS long)) " +
             "FROM Batch b WHERE b.batchCode LIKE :prefix%")
-    Integer getLastSerialNumber(@Param("prefix") String prefix);
+    Long getLastSerialNumber(@Param("prefix") String prefix);
 
     @Query("SELECT DISTINCT b.ingredientName FROM Batch b WHERE b.active = true ORDER BY b.ingredientName")
     List<String> findAllIngredientNames();
@@ -141,11 +192,6 @@ public interface BatchRepository extends JpaRepository<Batch, UUID> {
     List<Batch> findByCategoryAndActiveTrue(String category);
     List<Batch> findByCategoryAndActiveTrueOrderByEntryDateAsc(String category);
 
-    @Query("SELECT b.category, COUNT(b) as batchCount, SUM(b.weight) as totalWeight " +
-            "FROM Batch b WHERE b.active = true AND b.category IS NOT NULL " +
-            "GROUP BY b.category ORDER BY totalWeight DESC")
-    List<Object[]> getCategorySummary();
-
     @Query("SELECT b FROM Batch b WHERE b.active = true " +
             "AND (:ingredientName IS NULL OR LOWER(b.ingredientName) LIKE LOWER(CONCAT('%', :ingredientName, '%'))) " +
             "AND (:category IS NULL OR b.category = :category) " +
@@ -167,30 +213,28 @@ public interface BatchRepository extends JpaRepository<Batch, UUID> {
                                               @Param("freshnessStatus") Batch.FreshnessStatus freshnessStatus,
                                               @Param("sortBy") String sortBy);
 
-    @Query("SELECT b.ingredientName, COUNT(b) as batchCount, SUM(b.weight) as totalWeight, " +
-            "MIN(b.unit) as unit, MIN(b.category) as category " +
-            "FROM Batch b WHERE b.active = true " +
-            "GROUP BY b.ingredientName " +
-            "ORDER BY totalWeight DESC")
-    List<Object[]> getIngredientsSummary();
+    List<Batch> findByIngredientNameAndStorageLocationAndActiveTrueOrderByEntryDateAsc(
+            String ingredientName, String storageLocation);
 
-    @Query("SELECT b.freshnessStatus, COUNT(b) as count, COALESCE(SUM(CAST(b.weight AS double)), 0.0) as totalWeight " +
-            "FROM Batch b WHERE b.active = true " +
-            "GROUP BY b.freshnessStatus")
-    List<Object[]> getFreshnessStatusSummaryData();
+    @Query("SELECT b FROM Batch b WHERE b.active = true ORDER BY b.entryDate ASC, b.id ASC")
+    List<Batch> findActivePage(Pageable pageable);
 
-    @Query("SELECT b.storageLocation, COUNT(b) as batchCount, COALESCE(SUM(CAST(b.weight AS double)), 0.0) as totalWeight " +
-            "FROM Batch b WHERE b.active = true " +
-            "GROUP BY b.storageLocation " +
-            "ORDER BY totalWeight DESC")
-    List<Object[]> getStorageLocationSummaryData();
+    @Query("SELECT b FROM Batch b WHERE b.active = true " +
+            "AND (b.entryDate > :entryDate OR (b.entryDate = :entryDate AND b.id > :id)) " +
+            "ORDER BY b.entryDate ASC, b.id ASC")
+    List<Batch> findActivePageAfter(@Param("entryDate") Instant entryDate, @Param("id") UUID id, Pageable pageable);
 
-    @Query("SELECT b FROM Batch b WHERE b.active = true AND b.ingredientName = :ingredientName")
-    List<Batch> findBatchesByIngredientName(@Param("ingredientName") String ingredientName);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + BusinessConstants.PaginationDefaults.STREAM_FETCH_SIZE))
+    @Query("SELECT b FROM Batch b WHERE b.active = true ORDER BY b.entryDate ASC, b.id ASC")
+    Stream<Batch> streamActive();
 
-    @Query("SELECT b FROM Batch b WHERE b.active = true AND b.storageLocation = :storageLocation")
-    List<Batch> findBatchesByStorageLocationDetailed(@Param("storageLocation") String storageLocation);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + BusinessConstants.PaginationDefaults.STREAM_FETCH_SIZE))
+    @Query("SELECT b FROM Batch b WHERE b.active = true AND b.ingredientName = :ingredientName " +
+            "ORDER BY b.entryDate ASC, b.id ASC")
+    Stream<Batch> streamActiveByIngredientName(@Param("ingredientName") String ingredientName);
 
-    List<Batch> findByIngredientNameAndStorageLocationAndActiveTrueOrderByEntryDateAsc(
-            String ingredientName, String storageLocation);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + BusinessConstants.PaginationDefaults.STREAM_FETCH_SIZE))
+    @Query("SELECT b FROM Batch b WHERE b.active = true AND b.storageLocation = :storageLocation " +
+            "ORDER BY b.entryDate ASC, b.id ASC")
+    Stream<Batch> streamActiveByStorageLocation(@Param("storageLocation") String storageLocation);
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.example.pantara.repository;
+
+import com.example.pantara.entity.Batch;
+import com.example.pantara.entity.BatchUsageHistory;
+import com.example.pantara.repository.projection.ExpiredBatchRow;
+import com.example.pantara.repository.projection.StockAllocation;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface BatchRepositoryCustom {
+
+    /**
+     * Deactivates up to {@code limit} active RED batches that expired before {@code now} and writes one
+     * EXPIRED usage history row per deactivated batch, attributed to {@code userId}.
+     * Must run inside a transaction.
+     *
+     * @return the batches that were deactivated by this call
+     */
+    List<ExpiredBatchRow> deactivateExpiredChunk(Instant now, int limit, UUID userId);
+
+    /**
+     * Atomically takes {@code amount} from the batch if it is still active and holds at least that much,
+     * deactivating it when the weight reaches zero. The stock check and the decrement are one conditional
+     * UPDATE, so concurrent users can neither overdraw a batch nor overwrite each other's decrement.
+     * The given entity is refreshed from the database either way. Must run inside a transaction.
+     *
+     * @return whether the amount was taken
+     */
+    boolean decrementWeight(Batch batch, BigDecimal amount);
+
+    /**
+     * Takes every allocation's amount from its batch with one batched conditional UPDATE, deactivating
+     * batches that reach zero, then writes one usage history row per allocation with one batched INSERT.
+     * Must run inside a transaction.
+     *
+     * @return the batches that no longer held their allocated amount; when not empty, no history was
+     * written and the caller must roll back the transaction
+     */
+    List<UUID> applyAllocations(List<StockAllocation> allocations, UUID userId, BatchUsageHistory.UsageType usageType,
+                                String menuName, Integer portionCount, Instant now);
+
+    /**
+     * Reads the given batches again with one query, replacing the instances held by the persistence context,
+     * which still carry the values from before a JDBC update.
+     *
+     * @return the batches as they are now stored
+     */
+    List<Batch> reload(Collection<Batch> batches);
+}
@@ -0,0 +1,181 @@
+package com.example.pantara.repository;
+
+import com.example.pantara.entity.Batch;
+import com.example.pantara.entity.BatchUsageHistory;
+import com.example.pantara.repository.projection.ExpiredBatchRow;
+import com.example.pantara.repository.projection.StockAllocation;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based batch maintenance written against JDBC, so large cleanups neither load entities
+ * into the persistence context nor issue one statement round-trip per row. Stock decrements are
+ * conditional bulk updates through JPA, so they see pending entity changes and can refresh the entity.
+ */
+public class BatchRepositoryImpl implements BatchRepositoryCustom {
+
+    private static final String SELECT_EXPIRED =
+            "SELECT id, batch_code, weight FROM batches " +
+            "WHERE active = true AND freshness_status = ? AND expiry_date < ? " +
+            "ORDER BY expiry_date " +
+            "LIMIT ?";
+
+    private static final String DEACTIVATE =
+            "UPDATE batches SET active = false, updated_at = ? WHERE id = ? AND active = true";
+
+    private static final String INSERT_EXPIRED_USAGE =
+            "INSERT INTO batch_usage_history (id, batch_id, user_id, used_weight, usage_type, notes, usage_date, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String APPLY_ALLOCATION =
+            "UPDATE batches SET weight = weight - ?, " +
+            "active = CASE WHEN weight = ? THEN false ELSE active END, updated_at = ? " +
+            "WHERE id = ? AND active = true AND weight >= ?";
+
+    private static final String INSERT_USAGE =
+            "INSERT INTO batch_usage_history (id, batch_id, user_id, used_weight, usage_type, menu_name, portion_count, " +
+            "notes, usage_date, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DECREMENT_WEIGHT =
+            "UPDATE Batch b SET b.weight = b.weight - :amount, " +
+            "b.active = CASE WHEN b.weight = :amount THEN false ELSE b.active END, " +
+            "b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.active = true AND b.weight >= :amount";
+
+    private static final String SELECT_BY_IDS = "SELECT b FROM Batch b WHERE b.id IN :ids";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public BatchRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public boolean decrementWeight(Batch batch, BigDecimal amount) {
+        int updated = entityManager.createQuery(DECREMENT_WEIGHT)
+                .setParameter("amount", amount)
+                .setParameter("now", Instant.now())
+                .setParameter("id", batch.getId())
+                .executeUpdate();
+        entityManager.refresh(batch);
+        return updated > 0;
+    }
+
+    @Override
+    public List<ExpiredBatchRow> deactivateExpiredChunk(Instant now, int limit, UUID userId) {
+        Timestamp timestamp = Timestamp.from(now);
+
+        List<ExpiredBatchRow> candidates = jdbcTemplate.query(SELECT_EXPIRED,
+                (rs, rowNum) -> new ExpiredBatchRow(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("batch_code"),
+                        rs.getBigDecimal("weight")),
+                Batch.FreshnessStatus.RED.name(), timestamp, limit);
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        int[][] updateCounts = jdbcTemplate.batchUpdate(DEACTIVATE, candidates, candidates.size(),
+                (ps, row) -> {
+                    ps.setTimestamp(1, timestamp);
+                    ps.setObject(2, row.id());
+                });
+
+        // A concurrent writer may have deactivated a candidate in the meantime; only record what we changed
+        List<ExpiredBatchRow> deactivated = new ArrayList<>(candidates.size());
+        int[] counts = updateCounts[0];
+        for (int i = 0; i < candidates.size(); i++) {
+            if (counts[i] != 0) {
+                deactivated.add(candidates.get(i));
+            }
+        }
+
+        if (deactivated.isEmpty()) {
+            return deactivated;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_EXPIRED_USAGE, deactivated, deactivated.size(),
+                (ps, row) -> {
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setObject(2, row.id());
+                    ps.setObject(3, userId);
+                    ps.setBigDecimal(4, row.weight());
+                    ps.setString(5, BatchUsageHistory.UsageType.EXPIRED.name());
+                    ps.setString(6, "Expired batch " + row.batchCode() + " removed by scheduled cleanup");
+                    ps.setTimestamp(7, timestamp);
+                    ps.setTimestamp(8, timestamp);
+                });
+
+        return deactivated;
+    }
+
+    @Override
+    public List<UUID> applyAllocations(List<StockAllocation> allocations, UUID userId,
+                                       BatchUsageHistory.UsageType usageType, String menuName,
+                                       Integer portionCount, Instant now) {
+        if (allocations.isEmpty()) {
+            return List.of();
+        }
+        Timestamp timestamp = Timestamp.from(now);
+
+        int[][] updateCounts = jdbcTemplate.batchUpdate(APPLY_ALLOCATION, allocations, allocations.size(),
+                (ps, allocation) -> {
+                    ps.setBigDecimal(1, allocation.amount());
+                    ps.setBigDecimal(2, allocation.amount());
+                    ps.setTimestamp(3, timestamp);
+                    ps.setObject(4, allocation.batchId());
+                    ps.setBigDecimal(5, allocation.amount());
+                });
+
+        List<UUID> failed = new ArrayList<>();
+        int[] counts = updateCounts[0];
+        for (int i = 0; i < allocations.size(); i++) {
+            if (counts[i] == 0) {
+                failed.add(allocations.get(i).batchId());
+            }
+        }
+        if (!failed.isEmpty()) {
+            return failed;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_USAGE, allocations, allocations.size(),
+                (ps, allocation) -> {
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setObject(2, allocation.batchId());
+                    ps.setObject(3, userId);
+                    ps.setBigDecimal(4, allocation.amount());
+                    ps.setString(5, usageType.name());
+                    ps.setString(6, menuName);
+                    ps.setObject(7, portionCount);
+                    ps.setString(8, allocation.notes());
+                    ps.setTimestamp(9, timestamp);
+                    ps.setTimestamp(10, timestamp);
+                });
+        return failed;
+    }
+
+    @Override
+    public List<Batch> reload(Collection<Batch> batches) {
+        if (batches.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> ids = new ArrayList<>(batches.size());
+        for (Batch batch : batches) {
+            ids.add(batch.getId());
+            entityManager.detach(batch);
+        }
+        return entityManager.createQuery(SELECT_BY_IDS, Batch.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+}
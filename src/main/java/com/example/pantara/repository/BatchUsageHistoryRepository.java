@@ -1,14 +1,20 @@
 package com.example.pantara.repository;
 
+import com.example.pantara.constants.BusinessConstants;
 import com.example.pantara.entity.BatchUsageHistory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BatchUsageHistoryRepository extends JpaRepository<BatchUsageHistory, UUID> {
@@ -20,6 +26,30 @@ public interface BatchUsageHistoryRepository extends JpaRepository<BatchUsageHis
     @Query("SELECT buh FROM BatchUsageHistory buh WHERE buh.usageDate BETWEEN :startDate AND :endDate ORDER BY buh.usageDate DESC")
     List<BatchUsageHistory> findByUsageDateBetween(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
 
+    @Query("SELECT buh FROM BatchUsageHistory buh JOIN FETCH buh.batch JOIN FETCH buh.user " +
+            "WHERE buh.usageDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY buh.usageDate DESC, buh.id DESC")
+    List<BatchUsageHistory> findPageByUsageDateBetween(@Param("startDate") Instant startDate,
+                                                       @Param("endDate") Instant endDate,
+                                                       Pageable pageable);
+
+    @Query("SELECT buh FROM BatchUsageHistory buh JOIN FETCH buh.batch JOIN FETCH buh.user " +
+            "WHERE buh.usageDate BETWEEN :startDate AND :endDate " +
+            "AND (buh.usageDate < :usageDate OR (buh.usageDate = :usageDate AND buh.id < :id)) " +
+            "ORDER BY buh.usageDate DESC, buh.id DESC")
+    List<BatchUsageHistory> findPageByUsageDateBetweenBefore(@Param("startDate") Instant startDate,
+                                                             @Param("endDate") Instant endDate,
+                                                             @Param("usageDate") Instant usageDate,
+                                                             @Param("id") UUID id,
+                                                             Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + BusinessConstants.PaginationDefaults.STREAM_FETCH_SIZE))
+    @Query("SELECT buh FROM BatchUsageHistory buh JOIN FETCH buh.batch JOIN FETCH buh.user " +
+            "WHERE buh.usageDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY buh.usageDate DESC, buh.id DESC")
+    Stream<BatchUsageHistory> streamByUsageDateBetween(@Param("startDate") Instant startDate,
+                                                       @Param("endDate") Instant endDate);
+
     @Query("SELECT buh.batch.ingredientName, SUM(buh.usedWeight) as totalUsed " +
             "FROM BatchUsageHistory buh " +
             "WHERE buh.usageDate BETWEEN :startDate AND :endDate " +
@@ -0,0 +1,34 @@
+package com.example.pantara.repository;
+
+import com.example.pantara.entity.DeviceToken;
+import com.example.pantara.repository.projection.DeviceTokenRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DeviceTokenRepository extends JpaRepository<DeviceToken, UUID> {
+
+    Optional<DeviceToken> findByToken(String token);
+
+    @Query("SELECT d.userId AS userId, d.token AS token FROM DeviceToken d " +
+            "WHERE d.userId IN :userIds AND d.lastSeenAt >= :seenAfter")
+    List<DeviceTokenRow> findLiveTokens(@Param("userIds") Collection<UUID> userIds,
+                                        @Param("seenAfter") Instant seenAfter);
+
+    @Modifying
+    @Query("DELETE FROM DeviceToken d WHERE d.userId = :userId AND d.token = :token")
+    int deleteByUserIdAndToken(@Param("userId") UUID userId, @Param("token") String token);
+
+    @Modifying
+    @Query("DELETE FROM DeviceToken d WHERE d.lastSeenAt < :cutoff")
+    int deleteSeenBefore(@Param("cutoff") Instant cutoff);
+}
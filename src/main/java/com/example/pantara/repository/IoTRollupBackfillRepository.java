@@ -0,0 +1,27 @@
+package com.example.pantara.repository;
+
+import com.example.pantara.entity.IoTRollupBackfill;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IoTRollupBackfillRepository extends JpaRepository<IoTRollupBackfill, String> {
+
+    /**
+     * Reads the progress and holds a shared lock on it until commit, so no backfill page can be folded in
+     * on any instance until the caller's readings are visible.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT b FROM IoTRollupBackfill b WHERE b.name = :name")
+    Optional<IoTRollupBackfill> findForShare(@Param("name") String name);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM IoTRollupBackfill b WHERE b.name = :name")
+    Optional<IoTRollupBackfill> findForUpdate(@Param("name") String name);
+}
@@ -1,8 +1,14 @@
 package com.example.pantara.repository;
 
+import com.example.pantara.constants.BusinessConstants;
 import com.example.pantara.entity.IoTSensorData;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -10,19 +16,60 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface IoTSensorDataRepository extends JpaRepository<IoTSensorData, UUID> {
 
     Optional<IoTSensorData> findFirstByDeviceIdOrderByReceivedAtDesc(String deviceId);
 
-    List<IoTSensorData> findTop2ByDeviceIdOrderByReceivedAtDesc(String deviceId);
-
     @Query("SELECT DISTINCT i.deviceId FROM IoTSensorData i")
     List<String> findAllDistinctDeviceIds();
 
-    @Query("SELECT i FROM IoTSensorData i WHERE i.deviceId = :deviceId AND i.receivedAt >= :since ORDER BY i.receivedAt DESC")
-    List<IoTSensorData> findByDeviceIdAndReceivedAtAfter(@Param("deviceId") String deviceId, @Param("since") Instant since);
+    @Query("SELECT i FROM IoTSensorData i WHERE i.deviceId = :deviceId ORDER BY i.receivedAt DESC, i.id DESC")
+    List<IoTSensorData> findDevicePage(@Param("deviceId") String deviceId, Pageable pageable);
+
+    @Query("SELECT i FROM IoTSensorData i WHERE i.deviceId = :deviceId " +
+            "AND (i.receivedAt < :receivedAt OR (i.receivedAt = :receivedAt AND i.id < :id)) " +
+            "ORDER BY i.receivedAt DESC, i.id DESC")
+    List<IoTSensorData> findDevicePageBefore(@Param("deviceId") String deviceId,
+                                             @Param("receivedAt") Instant receivedAt,
+                                             @Param("id") UUID id,
+                                             Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + BusinessConstants.PaginationDefaults.STREAM_FETCH_SIZE))
+    @Query("SELECT i FROM IoTSensorData i WHERE i.deviceId = :deviceId ORDER BY i.receivedAt DESC, i.id DESC")
+    Stream<IoTSensorData> streamByDevice(@Param("deviceId") String deviceId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + BusinessConstants.PaginationDefaults.STREAM_FETCH_SIZE))
+    @Query("SELECT i FROM IoTSensorData i WHERE i.receivedAt >= :from AND i.receivedAt < :to " +
+            "ORDER BY i.receivedAt ASC, i.id ASC")
+    Stream<IoTSensorData> streamByReceivedAtBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + BusinessConstants.PaginationDefaults.STREAM_FETCH_SIZE))
+    @Query("SELECT i FROM IoTSensorData i WHERE i.deviceId = :deviceId " +
+            "AND i.receivedAt >= :from AND i.receivedAt < :to " +
+            "ORDER BY i.receivedAt ASC, i.id ASC")
+    Stream<IoTSensorData> streamByDeviceAndReceivedAtBetween(@Param("deviceId") String deviceId,
+                                                             @Param("from") Instant from,
+                                                             @Param("to") Instant to);
+
+    @Query("SELECT MIN(i.receivedAt) FROM IoTSensorData i")
+    Instant findEarliestReceivedAt();
+
+    @Query("SELECT i FROM IoTSensorData i WHERE i.receivedAt >= :from AND i.receivedAt < :to " +
+            "ORDER BY i.receivedAt ASC, i.id ASC")
+    List<IoTSensorData> findBackfillPage(@Param("from") Instant from, @Param("to") Instant to, Pageable pageable);
+
+    @Query("SELECT i FROM IoTSensorData i WHERE i.receivedAt < :to " +
+            "AND (i.receivedAt > :receivedAt OR (i.receivedAt = :receivedAt AND i.id > :id)) " +
+            "ORDER BY i.receivedAt ASC, i.id ASC")
+    List<IoTSensorData> findBackfillPageAfter(@Param("to") Instant to,
+                                              @Param("receivedAt") Instant receivedAt,
+                                              @Param("id") UUID id,
+                                              Pageable pageable);
 
-    List<IoTSensorData> findByDeviceIdOrderByReceivedAtDesc(String deviceId);
+    @Modifying
+    @Query("DELETE FROM IoTSensorData i WHERE i.receivedAt < :cutoff")
+    int deleteReceivedBefore(@Param("cutoff") Instant cutoff);
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.pantara.repository;
+
+import com.example.pantara.entity.IoTSensorRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface IoTSensorRollupRepository extends JpaRepository<IoTSensorRollup, UUID>, IoTSensorRollupRepositoryCustom {
+
+    @Query("SELECT r FROM IoTSensorRollup r WHERE r.deviceId = :deviceId AND r.bucketSize = :bucketSize " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart ASC")
+    List<IoTSensorRollup> findRange(@Param("deviceId") String deviceId,
+                                    @Param("bucketSize") IoTSensorRollup.BucketSize bucketSize,
+                                    @Param("from") Instant from,
+                                    @Param("to") Instant to);
+
+    @Query("SELECT MIN(r.bucketStart) FROM IoTSensorRollup r WHERE r.deviceId = :deviceId AND r.bucketSize = :bucketSize")
+    Instant findEarliestBucketStart(@Param("deviceId") String deviceId,
+                                    @Param("bucketSize") IoTSensorRollup.BucketSize bucketSize);
+
+    @Modifying
+    @Query("DELETE FROM IoTSensorRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Modifying
+    @Query("DELETE FROM IoTSensorRollup r WHERE r.bucketSize = :bucketSize AND r.bucketStart < :cutoff")
+    int deleteOlderThan(@Param("bucketSize") IoTSensorRollup.BucketSize bucketSize, @Param("cutoff") Instant cutoff);
+}
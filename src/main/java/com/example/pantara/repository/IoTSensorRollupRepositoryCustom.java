@@ -0,0 +1,16 @@
+package com.example.pantara.repository;
+
+import com.example.pantara.entity.IoTSensorRollup;
+
+import java.util.Collection;
+
+public interface IoTSensorRollupRepositoryCustom {
+
+    /**
+     * Adds each delta to its bucket with one batched {@code INSERT ... ON CONFLICT DO UPDATE}, creating the
+     * bucket if it does not exist yet. Counts and sums are added and minimums and maximums are combined in
+     * the database, so concurrent writers on any instance never lose each other's readings.
+     * Must run inside a transaction.
+     */
+    void upsert(Collection<IoTSensorRollup> deltas);
+}
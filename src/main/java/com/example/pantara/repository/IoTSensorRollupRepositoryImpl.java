@@ -0,0 +1,77 @@
+package com.example.pantara.repository;
+
+import com.example.pantara.entity.IoTSensorRollup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+public class IoTSensorRollupRepositoryImpl implements IoTSensorRollupRepositoryCustom {
+
+    private static final String UPSERT =
+            "INSERT INTO iot_sensor_rollups AS r (id, device_id, bucket_size, bucket_start, sample_count, " +
+            "temperature_min, temperature_max, temperature_sum, humidity_min, humidity_max, humidity_sum, " +
+            "heat_index_min, heat_index_max, heat_index_sum, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (device_id, bucket_size, bucket_start) DO UPDATE SET " +
+            "sample_count = r.sample_count + EXCLUDED.sample_count, " +
+            "temperature_min = LEAST(r.temperature_min, EXCLUDED.temperature_min), " +
+            "temperature_max = GREATEST(r.temperature_max, EXCLUDED.temperature_max), " +
+            "temperature_sum = r.temperature_sum + EXCLUDED.temperature_sum, " +
+            "humidity_min = LEAST(r.humidity_min, EXCLUDED.humidity_min), " +
+            "humidity_max = GREATEST(r.humidity_max, EXCLUDED.humidity_max), " +
+            "humidity_sum = r.humidity_sum + EXCLUDED.humidity_sum, " +
+            "heat_index_min = LEAST(r.heat_index_min, EXCLUDED.heat_index_min), " +
+            "heat_index_max = GREATEST(r.heat_index_max, EXCLUDED.heat_index_max), " +
+            "heat_index_sum = r.heat_index_sum + EXCLUDED.heat_index_sum, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    /** Writers lock buckets in the same order, so two flushes touching the same buckets cannot deadlock. */
+    private static final Comparator<IoTSensorRollup> LOCK_ORDER = Comparator
+            .comparing(IoTSensorRollup::getBucketSize)
+            .thenComparing(IoTSensorRollup::getDeviceId)
+            .thenComparing(IoTSensorRollup::getBucketStart);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IoTSensorRollupRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void upsert(Collection<IoTSensorRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<IoTSensorRollup> ordered = new ArrayList<>(deltas);
+        ordered.sort(LOCK_ORDER);
+        Timestamp now = Timestamp.from(Instant.now());
+
+        jdbcTemplate.batchUpdate(UPSERT, ordered, BATCH_SIZE,
+                (ps, delta) -> {
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setString(2, delta.getDeviceId());
+                    ps.setString(3, delta.getBucketSize().name());
+                    ps.setTimestamp(4, Timestamp.from(delta.getBucketStart()));
+                    ps.setLong(5, delta.getSampleCount());
+                    ps.setDouble(6, delta.getTemperatureMin());
+                    ps.setDouble(7, delta.getTemperatureMax());
+                    ps.setDouble(8, delta.getTemperatureSum());
+                    ps.setDouble(9, delta.getHumidityMin());
+                    ps.setDouble(10, delta.getHumidityMax());
+                    ps.setDouble(11, delta.getHumiditySum());
+                    ps.setDouble(12, delta.getHeatIndexMin());
+                    ps.setDouble(13, delta.getHeatIndexMax());
+                    ps.setDouble(14, delta.getHeatIndexSum());
+                    ps.setTimestamp(15, now);
+                });
+    }
+}
@@ -3,21 +3,19 @@ package com.example.pantara.repository;
 import com.example.pantara.entity.Menu;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface MenuRepository extends JpaRepository<Menu, UUID> {
 
-    List<Menu> findByActiveTrueOrderByNameAsc();
+    @Query("SELECT DISTINCT m FROM Menu m LEFT JOIN FETCH m.ingredients")
+    List<Menu> findAllWithIngredients();
 
-    List<Menu> findByCategoryAndActiveTrueOrderByNameAsc(String category);
-
-    @Query("SELECT DISTINCT m.category FROM Menu m WHERE m.active = true ORDER BY m.category")
-    List<String> findAllActiveCategories();
-
-    @Query("SELECT m FROM Menu m JOIN m.ingredients mi WHERE mi.ingredientName = :ingredientName AND m.active = true")
-    List<Menu> findMenusByIngredient(String ingredientName);
-}
\ No newline at end of file
+    @Query("SELECT DISTINCT m FROM Menu m LEFT JOIN FETCH m.ingredients WHERE m.id IN :ids")
+    List<Menu> findAllWithIngredientsByIdIn(@Param("ids") Collection<UUID> ids);
+}
@@ -15,7 +15,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+public interface NotificationRepository extends JpaRepository<Notification, UUID>, NotificationRepositoryCustom {
 
     List<Notification> findByUserAndReadFalseOrderByCreatedAtDesc(User user);
     Page<Notification> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
@@ -0,0 +1,18 @@
+package com.example.pantara.repository;
+
+import com.example.pantara.entity.Notification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface NotificationRepositoryCustom {
+
+    /**
+     * Writes one copy of {@code template} per recipient using JDBC batches of {@code batchSize} rows.
+     * The template's user and id are ignored. Must run inside a transaction.
+     *
+     * @return the id of the notification written for each recipient, keyed by user id
+     */
+    Map<UUID, UUID> insertForRecipients(Notification template, List<UUID> userIds, int batchSize);
+}
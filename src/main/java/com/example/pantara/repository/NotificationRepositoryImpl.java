@@ -0,0 +1,52 @@
+package com.example.pantara.repository;
+
+import com.example.pantara.entity.Notification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+public class NotificationRepositoryImpl implements NotificationRepositoryCustom {
+
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notifications (id, user_id, title, message, type, priority, is_read, " +
+            "reference_id, reference_type, sent_via_firebase, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, false, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<UUID, UUID> insertForRecipients(Notification template, List<UUID> userIds, int batchSize) {
+        Map<UUID, UUID> notificationIds = new LinkedHashMap<>(userIds.size() * 2);
+        if (userIds.isEmpty()) {
+            return notificationIds;
+        }
+
+        for (UUID userId : userIds) {
+            notificationIds.put(userId, UUID.randomUUID());
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, notificationIds.entrySet(), batchSize,
+                (ps, entry) -> {
+                    ps.setObject(1, entry.getValue());
+                    ps.setObject(2, entry.getKey());
+                    ps.setString(3, template.getTitle());
+                    ps.setString(4, template.getMessage());
+                    ps.setString(5, template.getType().name());
+                    ps.setString(6, template.getPriority().name());
+                    ps.setString(7, template.getReferenceId());
+                    ps.setString(8, template.getReferenceType());
+                    ps.setBoolean(9, template.isSentViaFirebase());
+                    ps.setTimestamp(10, now);
+                    ps.setTimestamp(11, now);
+                });
+
+        return notificationIds;
+    }
+}
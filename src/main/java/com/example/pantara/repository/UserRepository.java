@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -19,6 +20,9 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Boolean existsByEmail(String email);
     Boolean existsByUsername(String username);
 
+    @Query("SELECT u.id FROM User u WHERE u.provider <> :excludedProvider")
+    List<UUID> findAllIdsExcludingProvider(@Param("excludedProvider") String excludedProvider);
+
     @Modifying
     @Query("UPDATE User u SET u.tokenValidAfter = :timestamp WHERE u.id = :userId")
     void invalidateTokensAfter(@Param("userId") UUID userId, @Param("timestamp") Instant timestamp);
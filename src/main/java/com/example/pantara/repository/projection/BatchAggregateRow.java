@@ -0,0 +1,24 @@
+package com.example.pantara.repository.projection;
+
+import com.example.pantara.entity.Batch;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The columns of an active batch that contribute to inventory aggregates.
+ */
+public interface BatchAggregateRow {
+
+    UUID getId();
+
+    String getIngredientName();
+
+    Batch.Category getCategory();
+
+    String getStorageLocation();
+
+    Batch.FreshnessStatus getFreshnessStatus();
+
+    BigDecimal getWeight();
+}
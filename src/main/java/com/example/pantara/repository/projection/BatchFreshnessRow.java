@@ -0,0 +1,20 @@
+package com.example.pantara.repository.projection;
+
+import com.example.pantara.entity.Batch;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The columns of an active batch needed to work out its next freshness transition.
+ */
+public interface BatchFreshnessRow {
+
+    UUID getId();
+
+    Instant getEntryDate();
+
+    Instant getExpiryDate();
+
+    Batch.FreshnessStatus getFreshnessStatus();
+}
@@ -0,0 +1,10 @@
+package com.example.pantara.repository.projection;
+
+import java.util.UUID;
+
+public interface DeviceTokenRow {
+
+    UUID getUserId();
+
+    String getToken();
+}
@@ -0,0 +1,10 @@
+package com.example.pantara.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A batch deactivated by the expired-batch cleanup, with the weight recorded as EXPIRED usage.
+ */
+public record ExpiredBatchRow(UUID id, String batchCode, BigDecimal weight) {
+}
@@ -0,0 +1,14 @@
+package com.example.pantara.repository.projection;
+
+import com.example.pantara.entity.Batch;
+
+import java.math.BigDecimal;
+
+public interface FreshnessBreakdown {
+
+    Batch.FreshnessStatus getStatus();
+
+    long getBatchCount();
+
+    BigDecimal getTotalWeight();
+}
@@ -0,0 +1,13 @@
+package com.example.pantara.repository.projection;
+
+import com.example.pantara.entity.Batch;
+
+/**
+ * {@link StatusBreakdown} per ingredient, with the unit and category recorded on its batches.
+ */
+public interface IngredientBreakdown extends StatusBreakdown {
+
+    String getUnit();
+
+    Batch.Category getCategory();
+}
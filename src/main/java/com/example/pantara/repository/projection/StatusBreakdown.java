@@ -0,0 +1,27 @@
+package com.example.pantara.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Batch count and weight of one group of active batches, split by freshness status.
+ */
+public interface StatusBreakdown {
+
+    String getGroupKey();
+
+    long getBatchCount();
+
+    BigDecimal getTotalWeight();
+
+    long getGreenBatches();
+
+    long getYellowBatches();
+
+    long getRedBatches();
+
+    BigDecimal getGreenWeight();
+
+    BigDecimal getYellowWeight();
+
+    BigDecimal getRedWeight();
+}
@@ -0,0 +1,10 @@
+package com.example.pantara.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * An amount to take from one batch, with the note recorded on the matching usage history row.
+ */
+public record StockAllocation(UUID batchId, BigDecimal amount, String notes) {
+}
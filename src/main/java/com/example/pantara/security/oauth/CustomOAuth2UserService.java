@@ -1,5 +1,6 @@
 package com.example.pantara.security.oauth;
 
+import com.example.pantara.constants.BusinessConstants;
 import com.example.pantara.entity.User;
 import com.example.pantara.repository.UserRepository;
 import com.example.pantara.security.services.UserPrincipal;
@@ -58,7 +59,8 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
         String username = baseUsername;
         int counter = 1;
 
-        while (userRepository.existsByUsername(username)) {
+        while (userRepository.existsByUsername(username)
+                || BusinessConstants.SystemAccount.isReservedUsername(username)) {
             username = baseUsername + counter;
             counter++;
         }
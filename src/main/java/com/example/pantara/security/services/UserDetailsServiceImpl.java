@@ -3,23 +3,36 @@ package com.example.pantara.security.services;
 import com.example.pantara.entity.User;
 import com.example.pantara.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    /** Accounts allowed to read the actuator endpoints other than health. */
+    @Value("${security.admin-emails:}")
+    Set<String> adminEmails = Collections.emptySet();
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + email));
 
+        if (adminEmails.contains(user.getEmail())) {
+            return UserPrincipal.create(user, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        }
         return UserPrincipal.create(user);
     }
 }
\ No newline at end of file
@@ -34,13 +34,17 @@ public class UserPrincipal implements UserDetails {
     }
 
     public static UserPrincipal create(User user) {
+        return create(user, Collections.emptyList());
+    }
+
+    public static UserPrincipal create(User user, Collection<? extends GrantedAuthority> authorities) {
         return new UserPrincipal(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
                 user.isEnabled(),
-                Collections.emptyList()
+                authorities
         );
     }
 
@@ -0,0 +1,128 @@
+package com.example.pantara.service;
+
+import com.example.pantara.entity.BatchCodeSequence;
+import com.example.pantara.repository.BatchCodeSequenceRepository;
+import com.example.pantara.repository.BatchRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out batch code serials per prefix (ingredient code, date and location code).
+ *
+ * Serials are reserved from the {@code batch_code_sequences} table in blocks of
+ * {@code batch.code.block-size} with one atomic UPDATE, then handed out from an in-memory counter, so only
+ * one create in a block touches the database. Blocks never overlap, across threads or instances, so codes
+ * are unique; serials left in a block when the application stops are simply skipped. The first block of a
+ * prefix starts after the highest serial already used by existing batch codes.
+ *
+ * A refill runs in its own transaction, so callers should not hold a transaction of their own: otherwise the
+ * refilling thread needs a second connection, and threads queued behind it each pin one, which a burst of
+ * creates can turn into pool exhaustion.
+ */
+@Service
+public class BatchCodeAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchCodeAllocator.class);
+
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    private final BatchCodeSequenceRepository sequenceRepository;
+    private final BatchRepository batchRepository;
+    private final TransactionTemplate reserveTransaction;
+    private final long blockSize;
+
+    /** Prefixes embed the date, so sequences idle for a day are no longer needed in memory. */
+    private final Cache<String, Sequence> sequences = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofDays(1))
+            .build();
+
+    public BatchCodeAllocator(BatchCodeSequenceRepository sequenceRepository,
+                              BatchRepository batchRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${batch.code.block-size:50}") long blockSize) {
+        this.sequenceRepository = sequenceRepository;
+        this.batchRepository = batchRepository;
+        this.reserveTransaction = new TransactionTemplate(transactionManager);
+        this.reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public long nextSerial(String prefix) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            log.warn("Batch code serial for {} requested inside a transaction; block refills will need a second connection", prefix);
+        }
+        Sequence sequence = sequences.get(prefix, key -> new Sequence());
+
+        Block block = sequence.block;
+        long serial = block.next.getAndIncrement();
+        if (serial < block.limit) {
+            return serial;
+        }
+
+        sequence.refillLock.lock();
+        try {
+            while (true) {
+                block = sequence.block;
+                serial = block.next.getAndIncrement();
+                if (serial < block.limit) {
+                    return serial;
+                }
+                long start = reserve(prefix);
+                sequence.block = new Block(start, start + blockSize);
+            }
+        } finally {
+            sequence.refillLock.unlock();
+        }
+    }
+
+    /**
+     * Reserves the next block for the prefix in its own transaction and returns its first serial.
+     */
+    private long reserve(String prefix) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Long start = reserveTransaction.execute(status -> {
+                    if (sequenceRepository.advance(prefix, blockSize, Instant.now()) > 0) {
+                        return sequenceRepository.findNextValue(prefix) - blockSize;
+                    }
+                    Long lastSerial = batchRepository.getLastSerialNumber(prefix);
+                    long first = (lastSerial != null ? lastSerial : 0) + 1;
+                    sequenceRepository.saveAndFlush(new BatchCodeSequence(prefix, first + blockSize));
+                    return first;
+                });
+                log.debug("Reserved serials {}..{} for {}", start, start + blockSize - 1, prefix);
+                return start;
+            } catch (DataIntegrityViolationException e) {
+                // another instance created the sequence row first; the next attempt advances it instead
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static final class Sequence {
+        private final ReentrantLock refillLock = new ReentrantLock();
+        private volatile Block block = new Block(0, 0);
+    }
+
+    private record Block(AtomicLong next, long limit) {
+        private Block(long start, long limit) {
+            this(new AtomicLong(start), limit);
+        }
+    }
+}
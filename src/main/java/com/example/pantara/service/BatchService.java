@@ -8,23 +8,28 @@ import com.example.pantara.dto.request.ManualUsageRequest;
 import com.example.pantara.dto.request.MenuUsageRequest;
 import com.example.pantara.dto.response.*;
 import com.example.pantara.entity.*;
+import com.example.pantara.event.BatchChangedEvent;
 import com.example.pantara.exception.ResourceNotFoundException;
 import com.example.pantara.repository.*;
+import com.example.pantara.repository.projection.FreshnessBreakdown;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,7 +45,15 @@ public class BatchService {
     private final NotificationService notificationService;
     private final FifoService fifoService;
     private final UserLookupService userLookupService;
-
+    private final ApplicationEventPublisher eventPublisher;
+    private final StreamingQueryService streamingQueryService;
+    private final InventoryAggregationService inventoryAggregationService;
+    private final FreshnessUpdateService freshnessUpdateService;
+    private final IngredientClassifier ingredientClassifier;
+    private final BatchCodeAllocator batchCodeAllocator;
+    private final MenuAllocationEngine menuAllocationEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean asyncPrediction;
 
     public BatchService(BatchRepository batchRepository,
                         MenuRepository menuRepository,
@@ -48,7 +61,16 @@ public class BatchService {
                         UserRepository userRepository,
                         SpoilagePredictionService predictionService,
                         NotificationService notificationService,
-                        FifoService fifoService, UserLookupService userLookupService) {
+                        FifoService fifoService, UserLookupService userLookupService,
+                        ApplicationEventPublisher eventPublisher,
+                        StreamingQueryService streamingQueryService,
+                        InventoryAggregationService inventoryAggregationService,
+                        FreshnessUpdateService freshnessUpdateService,
+                        IngredientClassifier ingredientClassifier,
+                        BatchCodeAllocator batchCodeAllocator,
+                        MenuAllocationEngine menuAllocationEngine,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${batch.prediction.async:false}") boolean asyncPrediction) {
         this.batchRepository = batchRepository;
         this.menuRepository = menuRepository;
         this.usageHistoryRepository = usageHistoryRepository;
@@ -57,65 +79,49 @@ public class BatchService {
         this.notificationService = notificationService;
         this.fifoService = fifoService;
         this.userLookupService = userLookupService;
+        this.eventPublisher = eventPublisher;
+        this.streamingQueryService = streamingQueryService;
+        this.inventoryAggregationService = inventoryAggregationService;
+        this.freshnessUpdateService = freshnessUpdateService;
+        this.ingredientClassifier = ingredientClassifier;
+        this.batchCodeAllocator = batchCodeAllocator;
+        this.menuAllocationEngine = menuAllocationEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.asyncPrediction = asyncPrediction;
     }
 
     public List<IngredientSummaryResponse> getAllIngredientsSummary() {
         log.info("Getting ingredients summary with accumulated quantities");
 
-        List<Object[]> ingredientData = batchRepository.getIngredientsSummary();
-
-        return ingredientData.stream()
-                .map(data -> {
-                    String ingredientName = (String) data[0];
-                    Long totalBatches = (Long) data[1];
-                    BigDecimal totalWeight = (BigDecimal) data[2];
-                    String unit = (String) data[3];
-                    String category = (String) data[4];
-
-                    List<Batch> batches = batchRepository.findBatchesByIngredientName(ingredientName);
-
-                    long greenBatches = batches.stream()
-                            .mapToLong(b -> b.getFreshnessStatus() == Batch.FreshnessStatus.GREEN ? 1 : 0)
-                            .sum();
-
-                    long yellowBatches = batches.stream()
-                            .mapToLong(b -> b.getFreshnessStatus() == Batch.FreshnessStatus.YELLOW ? 1 : 0)
-                            .sum();
-
-                    long redBatches = batches.stream()
-                            .mapToLong(b -> b.getFreshnessStatus() == Batch.FreshnessStatus.RED ? 1 : 0)
-                            .sum();
-
-                    return new IngredientSummaryResponse(
-                            ingredientName, totalBatches, totalWeight, unit, category,
-                            greenBatches, yellowBatches, redBatches
-                    );
-                })
+        return inventoryAggregationService.byIngredient().stream()
+                .map(row -> new IngredientSummaryResponse(
+                        row.getGroupKey(), row.getBatchCount(), row.getTotalWeight(),
+                        row.getUnit(), row.getCategory() != null ? row.getCategory().name() : null,
+                        row.getGreenBatches(), row.getYellowBatches(), row.getRedBatches()
+                ))
                 .collect(Collectors.toList());
     }
 
     public List<FreshnessStatusSummaryResponse> getFreshnessStatusSummary() {
         log.info("Getting freshness status summary");
 
-        List<Object[]> freshnessData = batchRepository.getFreshnessStatusSummaryData();
-        long totalBatches = batchRepository.countActiveBatches();
+        List<FreshnessBreakdown> freshnessData = inventoryAggregationService.byFreshnessStatus();
+        long totalBatches = freshnessData.stream().mapToLong(FreshnessBreakdown::getBatchCount).sum();
 
         return freshnessData.stream()
-                .map(data -> {
-                    String status = data[0].toString();
-                    Long count = (Long) data[1];
-                    Double weight = (Double) data[2];
-                    double percentage = totalBatches > 0 ? (double) count / totalBatches * 100 : 0;
-
-                    String statusName = switch (status) {
-                        case "GREEN" -> "Aman";
-                        case "YELLOW" -> "Waspada";
-                        case "RED" -> "Krisis";
-                        default -> status;
+                .map(row -> {
+                    String status = row.getStatus().name();
+                    double percentage = totalBatches > 0 ? (double) row.getBatchCount() / totalBatches * 100 : 0;
+
+                    String statusName = switch (row.getStatus()) {
+                        case GREEN -> "Aman";
+                        case YELLOW -> "Waspada";
+                        case RED -> "Krisis";
                     };
 
                     return new FreshnessStatusSummaryResponse(
-                            status, statusName, count, weight, Math.round(percentage * 100.0) / 100.0);
+                            status, statusName, row.getBatchCount(), row.getTotalWeight().doubleValue(),
+                            Math.round(percentage * 100.0) / 100.0);
                 })
                 .collect(Collectors.toList());
     }
@@ -123,33 +129,11 @@ public class BatchService {
     public List<StorageLocationSummaryResponse> getStorageLocationSummary() {
         log.info("Getting storage location summary");
 
-        List<Object[]> locationData = batchRepository.getStorageLocationSummaryData();
-
-        return locationData.stream()
-                .map(data -> {
-                    String storageLocation = (String) data[0];
-                    Long batchCount = (Long) data[1];
-                    Double totalWeight = (Double) data[2];
-
-                    List<Batch> batches = batchRepository.findBatchesByStorageLocationDetailed(storageLocation);
-
-                    long greenBatches = batches.stream()
-                            .mapToLong(b -> b.getFreshnessStatus() == Batch.FreshnessStatus.GREEN ? 1 : 0)
-                            .sum();
-
-                    long yellowBatches = batches.stream()
-                            .mapToLong(b -> b.getFreshnessStatus() == Batch.FreshnessStatus.YELLOW ? 1 : 0)
-                            .sum();
-
-                    long redBatches = batches.stream()
-                            .mapToLong(b -> b.getFreshnessStatus() == Batch.FreshnessStatus.RED ? 1 : 0)
-                            .sum();
-
-                    return new StorageLocationSummaryResponse(
-                            storageLocation, batchCount, totalWeight,
-                            greenBatches, yellowBatches, redBatches
-                    );
-                })
+        return inventoryAggregationService.byStorageLocation().stream()
+                .map(row -> new StorageLocationSummaryResponse(
+                        row.getGroupKey(), row.getBatchCount(), row.getTotalWeight().doubleValue(),
+                        row.getGreenBatches(), row.getYellowBatches(), row.getRedBatches()
+                ))
                 .collect(Collectors.toList());
     }
 
@@ -181,16 +165,23 @@ public class BatchService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional
+    /**
+     * Reserves the batch code before the transaction starts, so refilling a serial block never needs a
+     * second connection while this request already holds one.
+     */
     public BatchResponse createBatch(BatchCreateRequest request) {
         log.info("Creating new batch for ingredient: {}", request.getIngredientName());
 
         String batchCode = generateBatchCode(request.getIngredientName(), request.getStorageLocation());
 
+        return transactionTemplate.execute(status -> saveNewBatch(batchCode, request));
+    }
+
+    private BatchResponse saveNewBatch(String batchCode, BatchCreateRequest request) {
         Batch batch = new Batch();
         batch.setBatchCode(batchCode);
         batch.setIngredientName(request.getIngredientName());
-        batch.setCategory(Batch.Category.valueOf(determineCategoryIfEmpty(request.getCategory(), request.getIngredientName()).toUpperCase()));
+        batch.setCategory(determineCategoryIfEmpty(request.getCategory(), request.getIngredientName()));
         batch.setWeight(request.getWeight());
         batch.setUnit(request.getUnit());
         batch.setSource(request.getSource());
@@ -198,17 +189,32 @@ public class BatchService {
         batch.setNotes(request.getNotes());
         batch.setActive(true);
 
-        SpoilagePredictionService.PredictionResult prediction = predictionService.predictSpoilage(
-                request.getIngredientName(),
-                request.getStorageLocation(),
-                Instant.now(),
-                null
-        );
+        Instant entryDate = Instant.now();
+        SpoilagePredictionService.PredictionResult prediction;
+        CompletableFuture<SpoilagePredictionService.PredictionResult> pendingPrediction;
+        if (asyncPrediction) {
+            prediction = predictionService.getFallbackPrediction(request.getIngredientName(), request.getStorageLocation(), entryDate);
+            pendingPrediction = predictionService.predictSpoilageAsync(
+                    request.getIngredientName(), request.getStorageLocation(), entryDate, null);
+        } else {
+            prediction = predictionService.predictSpoilage(
+                    request.getIngredientName(),
+                    request.getStorageLocation(),
+                    entryDate,
+                    null
+            );
+            pendingPrediction = prediction.getPendingPrediction();
+        }
 
         batch.setExpiryDate(prediction.getExpiryDate());
         batch.setFreshnessStatus(prediction.getFreshnessStatus());
+        batch.setPredictionPending(pendingPrediction != null);
 
         batch = batchRepository.save(batch);
+        eventPublisher.publishEvent(BatchChangedEvent.of(batch));
+        if (pendingPrediction != null) {
+            freshnessUpdateService.refreshWhenPredicted(batch.getId(), pendingPrediction);
+        }
 
         notificationService.sendBatchCreatedNotification(batch);
 
@@ -237,93 +243,6 @@ public class BatchService {
         return batchRepository.findIngredientNamesForAutocomplete(query.trim());
     }
 
-    public ResponseEntity<byte[]> exportBatchData(String format, String ingredientName, String storageLocation) {
-        log.info("Exporting batch data in format: {}", format);
-
-        List<Batch> batches;
-        if (ingredientName != null && !ingredientName.isEmpty()) {
-            batches = batchRepository.findByIngredientNameAndActiveTrueOrderByEntryDateAsc(ingredientName);
-        } else if (storageLocation != null && !storageLocation.isEmpty()) {
-            batches = batchRepository.findByStorageLocationAndActiveTrueOrderByEntryDateAsc(storageLocation);
-        } else {
-            batches = batchRepository.findByActiveTrueOrderByEntryDateAsc();
-        }
-
-        if ("csv".equalsIgnoreCase(format)) {
-            return exportToCsv(batches);
-        } else if ("excel".equalsIgnoreCase(format)) {
-            return exportToExcel(batches);
-        } else {
-            throw new IllegalArgumentException("Unsupported export format: " + format);
-        }
-    }
-
-    private ResponseEntity<byte[]> exportToCsv(List<Batch> batches) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Batch Code,Ingredient Name,Weight,Unit,Source,Entry Date,Expiry Date,Storage Location,Freshness Status,Active,Notes\n");
-
-        for (Batch batch : batches) {
-            csv.append(String.format("%s,%s,%.3f,%s,%s,%s,%s,%s,%s,%s,\"%s\"\n",
-                    batch.getBatchCode(),
-                    batch.getIngredientName(),
-                    batch.getWeight(),
-                    batch.getUnit(),
-                    batch.getSource(),
-                    batch.getEntryDate(),
-                    batch.getExpiryDate() != null ? batch.getExpiryDate() : "",
-                    batch.getStorageLocation(),
-                    batch.getFreshnessStatus(),
-                    batch.isActive(),
-                    batch.getNotes() != null ? batch.getNotes().replace("\"", "\"\"") : ""
-            ));
-        }
-
-        byte[] data = csv.toString().getBytes(StandardCharsets.UTF_8);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-        headers.setContentDispositionFormData("attachment", "batch_data.csv");
-
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(data);
-    }
-
-    private ResponseEntity<byte[]> exportToExcel(List<Batch> batches) {
-        log.info("Excel export requested for {} batches - implementing simple format", batches.size());
-
-        StringBuilder excel = new StringBuilder();
-        excel.append("Batch Data Export\n");
-        excel.append("Generated on: ").append(Instant.now()).append("\n\n");
-        excel.append("Batch Code\tIngredient Name\tWeight\tUnit\tSource\tEntry Date\tExpiry Date\tStorage Location\tFreshness Status\tActive\tNotes\n");
-
-        for (Batch batch : batches) {
-            excel.append(String.format("%s\t%s\t%.3f\t%s\t%s\t%s\t%s\t%s\t%s\t%s\t%s\n",
-                    batch.getBatchCode(),
-                    batch.getIngredientName(),
-                    batch.getWeight(),
-                    batch.getUnit(),
-                    batch.getSource(),
-                    batch.getEntryDate(),
-                    batch.getExpiryDate() != null ? batch.getExpiryDate() : "",
-                    batch.getStorageLocation(),
-                    batch.getFreshnessStatus(),
-                    batch.isActive(),
-                    batch.getNotes() != null ? batch.getNotes() : ""
-            ));
-        }
-
-        byte[] data = excel.toString().getBytes(StandardCharsets.UTF_8);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-        headers.setContentDispositionFormData("attachment", "batch_data.xls");
-
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(data);
-    }
-
     @Transactional
     public MessageResponse useIngredientForMenu(MenuUsageRequest request, String userEmail) {
         log.info("Processing menu usage for menu ID: {} with {} portions", request.getMenuId(), request.getPortionCount());
@@ -333,12 +252,7 @@ public class BatchService {
         Menu menu = menuRepository.findById(UUID.fromString(request.getMenuId()))
                 .orElseThrow(() -> new ResourceNotFoundException("Menu not found"));
 
-        for (MenuIngredient menuIngredient : menu.getIngredients()) {
-            BigDecimal totalNeeded = menuIngredient.getWeightPerPortion()
-                    .multiply(BigDecimal.valueOf(request.getPortionCount()));
-
-            processIngredientUsage(menuIngredient.getIngredientName(), totalNeeded, user, menu.getName(), request.getPortionCount(), request.getNotes());
-        }
+        menuAllocationEngine.allocate(menu, request.getPortionCount(), user, request.getNotes());
 
         return new MessageResponse("Menu ingredients used successfully following FIFO principle");
     }
@@ -356,18 +270,14 @@ public class BatchService {
             throw new IllegalArgumentException("Batch is not active");
         }
 
-        if (batch.getWeight().compareTo(request.getUsedWeight()) < 0) {
+        if (!batchRepository.decrementWeight(batch, request.getUsedWeight())) {
+            if (!batch.isActive()) {
+                throw new IllegalArgumentException("Batch is not active");
+            }
             throw new IllegalArgumentException("Insufficient stock. Available: " + batch.getWeight() + " " + batch.getUnit());
         }
 
-        BigDecimal newWeight = batch.getWeight().subtract(request.getUsedWeight());
-        batch.setWeight(newWeight);
-
-        if (newWeight.compareTo(BigDecimal.ZERO) == 0) {
-            batch.setActive(false);
-        }
-
-        batchRepository.save(batch);
+        eventPublisher.publishEvent(BatchChangedEvent.of(batch));
 
         BatchUsageHistory usage = new BatchUsageHistory();
         usage.setBatch(batch);
@@ -401,6 +311,7 @@ public class BatchService {
         }
 
         batchRepository.save(batch);
+        eventPublisher.publishEvent(BatchChangedEvent.of(batch));
 
         BatchUsageHistory usage = new BatchUsageHistory();
         usage.setBatch(batch);
@@ -425,6 +336,28 @@ public class BatchService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<BatchResponse> getActiveBatchesPage(String cursor, Integer size) {
+        int pageSize = CursorCodec.clampPageSize(size);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<Batch> batches;
+        if (cursor == null || cursor.isEmpty()) {
+            batches = batchRepository.findActivePage(limit);
+        } else {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            batches = batchRepository.findActivePageAfter(
+                    CursorCodec.instantOrNull(parts[0]), CursorCodec.uuid(parts[1]), limit);
+        }
+
+        return CursorCodec.toPage(batches, pageSize, this::convertToBatchResponse,
+                batch -> CursorCodec.encode(batch.getEntryDate(), batch.getId()));
+    }
+
+    public StreamingResponseBody streamActiveBatches() {
+        return streamingQueryService.streamJsonArray(batchRepository::streamActive, this::convertToBatchResponse);
+    }
+
     public List<BatchResponse> getExpiringBatches(int days) {
         Instant now = Instant.now();
         Instant futureDate = now.plus(days, ChronoUnit.DAYS);
@@ -475,62 +408,6 @@ public class BatchService {
         return label;
     }
 
-    private void processIngredientUsage(String ingredientName, BigDecimal totalNeeded, User user, String menuName, Integer portionCount, String notes) {
-        log.info("Processing ingredient usage with FIFO optimization for: {} ({})", ingredientName, totalNeeded);
-
-        FifoPickingRecommendationResponse fifoRecommendation = fifoService.getPickingRecommendation(
-                ingredientName, totalNeeded, "kg");
-
-        if (!fifoRecommendation.isCanFulfill()) {
-            log.error("Cannot fulfill requirement for {}: {}", ingredientName, fifoRecommendation.getMessage());
-            throw new IllegalArgumentException(fifoRecommendation.getMessage());
-        }
-
-        for (PickingInstructionDto instruction : fifoRecommendation.getPickingInstructions()) {
-            Batch batch = batchRepository.findByBatchCode(instruction.getBatchCode())
-                    .orElseThrow(() -> new ResourceNotFoundException("Batch not found: " + instruction.getBatchCode()));
-
-            BigDecimal toUse = instruction.getAmountToUse();
-
-            BigDecimal newWeight = batch.getWeight().subtract(toUse);
-            batch.setWeight(newWeight);
-
-            if (newWeight.compareTo(BigDecimal.ZERO) == 0) {
-                batch.setActive(false);
-                log.info("Batch {} exhausted and marked inactive", batch.getBatchCode());
-            }
-
-            batchRepository.save(batch);
-
-            BatchUsageHistory usage = new BatchUsageHistory();
-            usage.setBatch(batch);
-            usage.setUser(user);
-            usage.setUsedWeight(toUse);
-            usage.setUsageType(BatchUsageHistory.UsageType.MENU_COOKING);
-            usage.setMenuName(menuName);
-            usage.setPortionCount(portionCount);
-            usage.setNotes(notes + " | FIFO Priority: " + instruction.getUrgencyLevel());
-            usageHistoryRepository.save(usage);
-
-            log.info("Used {} {} from batch {} (FIFO: {})",
-                    toUse, batch.getUnit(), batch.getBatchCode(), instruction.getUrgencyLevel());
-        }
-
-        checkLowStock(ingredientName);
-    }
-
-    private void checkLowStock(String ingredientName) {
-        List<Batch> activeBatches = batchRepository.findByIngredientNameAndActiveTrueOrderByEntryDateAsc(ingredientName);
-
-        double totalWeight = activeBatches.stream()
-                .mapToDouble(batch -> batch.getWeight().doubleValue())
-                .sum();
-
-        if (totalWeight < BusinessConstants.StockThresholds.LOW_STOCK_THRESHOLD_KG && totalWeight > 0) {
-            notificationService.sendLowStockNotification(ingredientName, totalWeight);
-        }
-    }
-
     private String generateBatchCode(String ingredientName, String storageLocation) {
         String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
         String locationCode = getLocationCode(storageLocation);
@@ -540,8 +417,7 @@ public class BatchService {
 
         String prefix = ingredientCode + "-" + today + "-" + locationCode + "-";
 
-        Integer lastSerial = batchRepository.getLastSerialNumber(prefix);
-        int newSerial = (lastSerial != null ? lastSerial : 0) + 1;
+        long newSerial = batchCodeAllocator.nextSerial(prefix);
 
         return prefix + ("%0" + BusinessConstants.ValidationConstraints.BATCH_CODE_SERIAL_LENGTH + "d").formatted(newSerial);
     }
@@ -582,32 +458,22 @@ public class BatchService {
         response.setStorageLocation(batch.getStorageLocation());
         response.setFreshnessStatus(batch.getFreshnessStatus());
         response.setActive(batch.isActive());
+        response.setPredictionPending(batch.isPredictionPending());
         response.setNotes(batch.getNotes());
         response.setCreatedAt(batch.getCreatedAt());
         response.setUpdatedAt(batch.getUpdatedAt());
         return response;
     }
 
-    private String determineCategoryIfEmpty(String providedCategory, String ingredientName) {
+    private Batch.Category determineCategoryIfEmpty(String providedCategory, String ingredientName) {
         if (providedCategory != null && !providedCategory.trim().isEmpty()) {
-            return providedCategory.trim();
+            return Batch.Category.valueOf(providedCategory.trim().toUpperCase());
         }
 
-        String lowerName = ingredientName.toLowerCase();
-
-        if (lowerName.matches(".*(bayam|kangkung|sawi|selada|tomat|timun|wortel|kentang|bawang).*")) {
-            return "Sayuran";
-        } else if (lowerName.matches(".*(pisang|apel|jeruk|mangga|pepaya|semangka|anggur|strawberry).*")) {
-            return "Buah";
-        } else if (lowerName.matches(".*(ayam|daging|ikan|udang|telur|tahu|tempe).*")) {
-            return "Protein";
-        } else if (lowerName.matches(".*(beras|tepung|gula|garam|minyak|roti|pasta).*")) {
-            return "Karbohidrat";
-        } else if (lowerName.matches(".*(garam|merica|kunyit|jahe|bawang putih|cabai|bumbu).*")) {
-            return "Bumbu";
-        } else {
-            return "Lainnya";
-        }
+        return ingredientClassifier.classify(ingredientName)
+                .map(IngredientClassifier.IngredientGroup::getCategory)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Cannot determine category for ingredient '" + ingredientName + "', please provide one"));
     }
 
     public List<BatchResponse> getBatchesByCategory(String category) {
@@ -623,13 +489,11 @@ public class BatchService {
     public List<CategorySummaryResponse> getCategorySummary() {
         log.info("Getting category summary");
 
-        List<Object[]> categoryData = batchRepository.getCategorySummary();
-
-        return categoryData.stream()
-                .map(data -> new CategorySummaryResponse(
-                        (String) data[0],
-                        (Long) data[1],
-                        (BigDecimal) data[2],
+        return inventoryAggregationService.byCategory().stream()
+                .map(row -> new CategorySummaryResponse(
+                        row.getGroupKey(),
+                        row.getBatchCount(),
+                        row.getTotalWeight(),
                         "kg"
                 ))
                 .collect(Collectors.toList());
@@ -0,0 +1,131 @@
+package com.example.pantara.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Count-based circuit breaker for calls to a slow or failing upstream.
+ *
+ * The outcomes of the last {@code windowSize} calls are kept; once at least {@code minimumCalls} are
+ * recorded and the share of failed or of slow calls reaches its threshold, the breaker opens and refuses
+ * calls for {@code openDurationMs}. It then half-opens and lets a single probe through: a fast success
+ * closes it with a fresh window, anything else opens it again.
+ */
+final class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int recorded;
+    private int next;
+    private int failedCount;
+    private int slowCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRatePercent,
+                   double slowCallRatePercent, long slowCallMs, long openDurationMs) {
+        this.name = name;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRatePercent / 100.0;
+        this.slowCallRateThreshold = slowCallRatePercent / 100.0;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns whether a call may go ahead now; every permitted call must be followed by {@link #onResult}.
+     */
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    synchronized void onResult(long durationNanos, boolean failure) {
+        boolean slowCall = durationNanos >= slowCallNanos;
+
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            if (failure || slowCall) {
+                open();
+            } else {
+                resetWindow();
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+
+        if (recorded == failed.length) {
+            failedCount -= failed[next] ? 1 : 0;
+            slowCount -= slow[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failed[next] = failure;
+        slow[next] = slowCall;
+        failedCount += failure ? 1 : 0;
+        slowCount += slowCall ? 1 : 0;
+        next = (next + 1) % failed.length;
+
+        if (recorded >= minimumCalls
+                && ((double) failedCount / recorded >= failureRateThreshold
+                || (double) slowCount / recorded >= slowCallRateThreshold)) {
+            log.warn("{}: {} of the last {} calls failed and {} were slow", name, failedCount, recorded, slowCount);
+            open();
+        }
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        resetWindow();
+        transitionTo(State.OPEN);
+    }
+
+    private void resetWindow() {
+        recorded = 0;
+        next = 0;
+        failedCount = 0;
+        slowCount = 0;
+    }
+
+    private void transitionTo(State newState) {
+        if (state != newState) {
+            log.info("{}: circuit {} -> {}", name, state, newState);
+            state = newState;
+        }
+    }
+}
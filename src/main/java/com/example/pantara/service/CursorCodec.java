@@ -0,0 +1,91 @@
+package com.example.pantara.service;
+
+import com.example.pantara.constants.BusinessConstants;
+import com.example.pantara.dto.response.CursorPage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Encodes keyset pagination positions as opaque URL-safe cursors.
+ * A cursor is the sort key of the last row of a page, so the next page is a plain
+ * index seek instead of an OFFSET scan.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static String encode(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(parts[i] != null ? parts[i].toString() : "");
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static Instant instantOrNull(String part) {
+        try {
+            return part.isEmpty() ? null : Instant.parse(part);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static UUID uuid(String part) {
+        try {
+            return UUID.fromString(part);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static int clampPageSize(Integer size) {
+        if (size == null || size < 1) {
+            return BusinessConstants.PaginationDefaults.DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, BusinessConstants.PaginationDefaults.MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code pageSize + 1};
+     * the extra row only signals that another page exists.
+     */
+    public static <E, R> CursorPage<R> toPage(List<E> rows, int pageSize,
+                                              Function<E, R> mapper, Function<E, String> cursorOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        List<R> items = new ArrayList<>(pageRows.size());
+        for (E row : pageRows) {
+            items.add(mapper.apply(row));
+        }
+
+        String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, hasMore, items.size());
+    }
+}
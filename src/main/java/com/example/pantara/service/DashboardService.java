@@ -12,7 +12,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -26,48 +25,35 @@ public class DashboardService {
 
     private final BatchRepository batchRepository;
     private final BatchUsageHistoryRepository usageHistoryRepository;
+    private final InventoryAggregateStore inventoryAggregateStore;
     private final FirebaseMessaging firebaseMessaging;
 
     public DashboardService(BatchRepository batchRepository,
                             BatchUsageHistoryRepository usageHistoryRepository,
+                            InventoryAggregateStore inventoryAggregateStore,
                             @Autowired(required = false) FirebaseMessaging firebaseMessaging) {
         this.batchRepository = batchRepository;
         this.usageHistoryRepository = usageHistoryRepository;
+        this.inventoryAggregateStore = inventoryAggregateStore;
         this.firebaseMessaging = firebaseMessaging;
     }
 
     public DashboardSummaryResponse getDashboardSummary() {
-        long totalActiveBatches = batchRepository.countActiveBatches();
-        Double totalActiveWeight = batchRepository.getTotalActiveWeight();
-
-        List<Object[]> ingredientData = batchRepository.getIngredientSummary();
-        List<IngredientSummaryDto> ingredientSummaries = ingredientData.stream()
-                .map(data -> new IngredientSummaryDto(
-                        (String) data[0],
-                        (Long) data[1],
-                        (BigDecimal) data[2]
-                ))
+        List<IngredientSummaryDto> ingredientSummaries = inventoryAggregateStore.byIngredient().stream()
+                .map(row -> new IngredientSummaryDto(row.getGroupKey(), row.getBatchCount(), row.getTotalWeight()))
                 .collect(Collectors.toList());
 
-        List<Object[]> locationData = batchRepository.getStorageLocationSummary();
-        List<StorageLocationSummaryDto> locationSummaries = locationData.stream()
-                .map(data -> new StorageLocationSummaryDto(
-                        (String) data[0],
-                        (Long) data[1]
-                ))
+        List<StorageLocationSummaryDto> locationSummaries = inventoryAggregateStore.byStorageLocation().stream()
+                .map(row -> new StorageLocationSummaryDto(row.getGroupKey(), row.getBatchCount()))
                 .collect(Collectors.toList());
 
-        List<Object[]> freshnessData = batchRepository.getFreshnessStatusSummary();
-        List<FreshnessStatusSummaryDto> freshnessSummaries = freshnessData.stream()
-                .map(data -> new FreshnessStatusSummaryDto(
-                        (Batch.FreshnessStatus) data[0],
-                        (Long) data[1]
-                ))
+        List<FreshnessStatusSummaryDto> freshnessSummaries = inventoryAggregateStore.byFreshnessStatus().stream()
+                .map(row -> new FreshnessStatusSummaryDto(row.getStatus(), row.getBatchCount()))
                 .collect(Collectors.toList());
 
         return new DashboardSummaryResponse(
-                totalActiveBatches,
-                totalActiveWeight != null ? totalActiveWeight : 0.0,
+                inventoryAggregateStore.getTotalBatches(),
+                inventoryAggregateStore.getTotalWeight().doubleValue(),
                 ingredientSummaries,
                 locationSummaries,
                 freshnessSummaries
@@ -188,6 +174,7 @@ public class DashboardService {
         response.setStorageLocation(batch.getStorageLocation());
         response.setFreshnessStatus(batch.getFreshnessStatus());
         response.setActive(batch.isActive());
+        response.setPredictionPending(batch.isPredictionPending());
         response.setNotes(batch.getNotes());
         response.setCreatedAt(batch.getCreatedAt());
         response.setUpdatedAt(batch.getUpdatedAt());
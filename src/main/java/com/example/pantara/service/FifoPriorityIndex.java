@@ -0,0 +1,209 @@
+package com.example.pantara.service;
+
+import com.example.pantara.entity.Batch;
+import com.example.pantara.event.BatchChangedEvent;
+import com.example.pantara.repository.BatchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory view of all active batches kept in FIFO priority order
+ * (expiry date with nulls last, then entry date), per ingredient and per storage location.
+ *
+ * The index is loaded once on startup and then kept current through {@link BatchChangedEvent}s
+ * published by the services that modify batches. Reads never touch the database and are lock-free;
+ * writes are serialized. A periodic resync bounds drift, e.g. from writes made by other replicas.
+ */
+@Component
+public class FifoPriorityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FifoPriorityIndex.class);
+
+    public static final Comparator<Batch> FIFO_ORDER = Comparator
+            .comparing(Batch::getExpiryDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Batch::getEntryDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Batch::getId);
+
+    private final BatchRepository batchRepository;
+
+    private volatile Entries entries;
+
+    public FifoPriorityIndex(BatchRepository batchRepository) {
+        this.batchRepository = batchRepository;
+    }
+
+    public List<Batch> getAllBatches() {
+        return new ArrayList<>(current().allBatches);
+    }
+
+    public List<Batch> getBatchesByIngredient(String ingredientName) {
+        return copyOf(current().batchesByIngredient.get(ingredientName));
+    }
+
+    public List<Batch> getBatchesByStorageLocation(String storageLocation) {
+        return copyOf(current().batchesByLocation.get(storageLocation));
+    }
+
+    public List<Batch> getBatchesByIngredientAndLocation(String ingredientName, String storageLocation) {
+        Set<Batch> batches = current().batchesByIngredient.get(ingredientName);
+        if (batches == null) {
+            return new ArrayList<>();
+        }
+
+        List<Batch> result = new ArrayList<>();
+        for (Batch batch : batches) {
+            if (storageLocation.equals(batch.getStorageLocation())) {
+                result.add(batch);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns up to {@code limit} batches that sort strictly after {@code position} in FIFO order,
+     * or from the start when {@code position} is {@code null}.
+     */
+    public List<Batch> getBatchesAfter(Batch position, int limit) {
+        NavigableSet<Batch> all = current().allBatches;
+        Set<Batch> tail = position != null ? all.tailSet(position, false) : all;
+
+        List<Batch> result = new ArrayList<>(limit);
+        for (Batch batch : tail) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(batch);
+        }
+        return result;
+    }
+
+    public int size() {
+        return current().batchesById.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${fifo.index.resync-interval-ms:1800000}",
+            initialDelayString = "${fifo.index.resync-interval-ms:1800000}")
+    public void resync() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatchChanged(BatchChangedEvent event) {
+        if (entries == null) {
+            return;
+        }
+
+        synchronized (this) {
+            for (Batch batch : event.getBatches()) {
+                entries.apply(batch);
+            }
+        }
+    }
+
+    public synchronized void rebuild() {
+        List<Batch> activeBatches = batchRepository.findActiveBatchesOrderedByFifoPriority();
+
+        Entries rebuilt = new Entries();
+        for (Batch batch : activeBatches) {
+            rebuilt.apply(batch);
+        }
+
+        entries = rebuilt;
+        log.info("FIFO priority index loaded with {} active batches", rebuilt.batchesById.size());
+    }
+
+    private Entries current() {
+        Entries current = entries;
+        if (current == null) {
+            rebuild();
+            current = entries;
+        }
+        return current;
+    }
+
+    private List<Batch> copyOf(Set<Batch> batches) {
+        return batches != null ? new ArrayList<>(batches) : new ArrayList<>();
+    }
+
+    private static class Entries {
+        private final ConcurrentMap<UUID, Batch> batchesById = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<Batch> allBatches = new ConcurrentSkipListSet<>(FIFO_ORDER);
+        private final ConcurrentMap<String, ConcurrentSkipListSet<Batch>> batchesByIngredient = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, ConcurrentSkipListSet<Batch>> batchesByLocation = new ConcurrentHashMap<>();
+
+        private void apply(Batch batch) {
+            if (batch.getId() == null) {
+                return;
+            }
+
+            Batch previous = batchesById.remove(batch.getId());
+            if (previous != null) {
+                allBatches.remove(previous);
+                removeFromGroup(batchesByIngredient, previous.getIngredientName(), previous);
+                removeFromGroup(batchesByLocation, previous.getStorageLocation(), previous);
+            }
+
+            if (!batch.isActive()) {
+                return;
+            }
+
+            Batch snapshot = snapshotOf(batch);
+            batchesById.put(snapshot.getId(), snapshot);
+            allBatches.add(snapshot);
+            batchesByIngredient.computeIfAbsent(snapshot.getIngredientName(), k -> new ConcurrentSkipListSet<>(FIFO_ORDER))
+                    .add(snapshot);
+            batchesByLocation.computeIfAbsent(snapshot.getStorageLocation(), k -> new ConcurrentSkipListSet<>(FIFO_ORDER))
+                    .add(snapshot);
+        }
+    }
+
+    private static void removeFromGroup(ConcurrentMap<String, ConcurrentSkipListSet<Batch>> groups, String key, Batch batch) {
+        ConcurrentSkipListSet<Batch> group = groups.get(key);
+        if (group != null) {
+            group.remove(batch);
+            if (group.isEmpty()) {
+                groups.remove(key, group);
+            }
+        }
+    }
+
+    /**
+     * Entities handed in by listeners are managed by a persistence context that may still mutate them,
+     * so the index keeps its own copy; the sort order of a skip list must never change after insertion.
+     */
+    private static Batch snapshotOf(Batch batch) {
+        Batch snapshot = new Batch();
+        snapshot.setId(batch.getId());
+        snapshot.setBatchCode(batch.getBatchCode());
+        snapshot.setIngredientName(batch.getIngredientName());
+        snapshot.setCategory(batch.getCategory());
+        snapshot.setWeight(batch.getWeight());
+        snapshot.setUnit(batch.getUnit());
+        snapshot.setSource(batch.getSource());
+        snapshot.setEntryDate(batch.getEntryDate());
+        snapshot.setExpiryDate(batch.getExpiryDate());
+        snapshot.setStorageLocation(batch.getStorageLocation());
+        snapshot.setFreshnessStatus(batch.getFreshnessStatus());
+        snapshot.setActive(batch.isActive());
+        snapshot.setPredictionPending(batch.isPredictionPending());
+        snapshot.setNotes(batch.getNotes());
+        snapshot.setCreatedAt(batch.getCreatedAt());
+        snapshot.setUpdatedAt(batch.getUpdatedAt());
+        return snapshot;
+    }
+}
@@ -21,21 +21,40 @@ public class FifoService {
     private static final Logger log = LoggerFactory.getLogger(FifoService.class);
 
     private final BatchRepository batchRepository;
+    private final FifoPriorityIndex fifoPriorityIndex;
 
-    public FifoService(BatchRepository batchRepository) {
+    public FifoService(BatchRepository batchRepository, FifoPriorityIndex fifoPriorityIndex) {
         this.batchRepository = batchRepository;
+        this.fifoPriorityIndex = fifoPriorityIndex;
     }
 
     public List<FifoBatchResponse> getAllBatchesByFifoPriority() {
         log.info("Getting ALL batches ordered by FIFO priority");
 
-        List<Batch> batches = batchRepository.findActiveBatchesOrderedByFifoPriority();
+        List<Batch> batches = fifoPriorityIndex.getAllBatches();
 
         return batches.stream()
                 .map(this::convertToFifoBatchResponse)
                 .collect(Collectors.toList());
     }
 
+    public CursorPage<FifoBatchResponse> getAllBatchesByFifoPriorityPage(String cursor, Integer size) {
+        int pageSize = CursorCodec.clampPageSize(size);
+
+        Batch position = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = CursorCodec.decode(cursor, 3);
+            position = new Batch();
+            position.setExpiryDate(CursorCodec.instantOrNull(parts[0]));
+            position.setEntryDate(CursorCodec.instantOrNull(parts[1]));
+            position.setId(CursorCodec.uuid(parts[2]));
+        }
+
+        List<Batch> batches = fifoPriorityIndex.getBatchesAfter(position, pageSize + 1);
+        return CursorCodec.toPage(batches, pageSize, this::convertToFifoBatchResponse,
+                batch -> CursorCodec.encode(batch.getExpiryDate(), batch.getEntryDate(), batch.getId()));
+    }
+
     public List<FifoBatchResponse> getBatchesWithPriorityDetails(String ingredientName,
                                                                  String storageLocation,
                                                                  String urgencyLevel) {
@@ -45,13 +64,13 @@ public class FifoService {
         List<Batch> batches;
 
         if (ingredientName != null && storageLocation != null) {
-            batches = batchRepository.findByIngredientAndLocationOrderedByFifoPriority(ingredientName, storageLocation);
+            batches = fifoPriorityIndex.getBatchesByIngredientAndLocation(ingredientName, storageLocation);
         } else if (ingredientName != null) {
-            batches = batchRepository.findByIngredientNameOrderedByFifoPriority(ingredientName);
+            batches = fifoPriorityIndex.getBatchesByIngredient(ingredientName);
         } else if (storageLocation != null) {
-            batches = batchRepository.findByStorageLocationOrderedByFifoPriority(storageLocation);
+            batches = fifoPriorityIndex.getBatchesByStorageLocation(storageLocation);
         } else {
-            batches = batchRepository.findActiveBatchesOrderedByFifoPriority();
+            batches = fifoPriorityIndex.getAllBatches();
         }
 
         List<FifoBatchResponse> responses = batches.stream()
@@ -70,7 +89,7 @@ public class FifoService {
     public List<FifoBatchResponse> getBatchesByUrgencyLevel(String urgencyLevel) {
         log.info("Getting batches by urgency level: {}", urgencyLevel);
 
-        List<Batch> allBatches = batchRepository.findActiveBatchesOrderedByFifoPriority();
+        List<Batch> allBatches = fifoPriorityIndex.getAllBatches();
 
         return allBatches.stream()
                 .map(this::convertToFifoBatchResponse)
@@ -81,7 +100,7 @@ public class FifoService {
     public FifoPriorityDashboardResponse getFifoPriorityDashboard() {
         log.info("Generating FIFO priority dashboard");
 
-        List<Batch> allBatches = batchRepository.findActiveBatchesOrderedByFifoPriority();
+        List<Batch> allBatches = fifoPriorityIndex.getAllBatches();
         List<FifoBatchResponse> batchResponses = allBatches.stream()
                 .map(this::convertToFifoBatchResponse)
                 .collect(Collectors.toList());
@@ -116,7 +135,7 @@ public class FifoService {
     public FifoAnalysisResponse getFifoAnalysis() {
         log.info("Performing comprehensive FIFO analysis");
 
-        List<Batch> allBatches = batchRepository.findActiveBatchesOrderedByFifoPriority();
+        List<Batch> allBatches = fifoPriorityIndex.getAllBatches();
         List<FifoBatchResponse> batchResponses = allBatches.stream()
                 .map(this::convertToFifoBatchResponse)
                 .collect(Collectors.toList());
@@ -540,7 +559,7 @@ public class FifoService {
         return response;
     }
 
-    private String calculateUrgencyLevel(Batch batch) {
+    String calculateUrgencyLevel(Batch batch) {
         if (batch.getExpiryDate() == null) {
             return "MEDIUM";
         }
@@ -558,7 +577,7 @@ public class FifoService {
         }
     }
 
-    private String generatePickingNote(Batch batch, String urgencyLevel) {
+    String generatePickingNote(Batch batch, String urgencyLevel) {
         StringBuilder note = new StringBuilder();
 
         switch (urgencyLevel) {
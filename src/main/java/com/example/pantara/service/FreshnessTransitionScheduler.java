@@ -0,0 +1,239 @@
+package com.example.pantara.service;
+
+import com.example.pantara.entity.Batch;
+import com.example.pantara.event.BatchChangedEvent;
+import com.example.pantara.repository.BatchRepository;
+import com.example.pantara.repository.projection.BatchFreshnessRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wakes up exactly when an active batch is due to cross a freshness threshold.
+ *
+ * Each batch has at most one pending {@link Transition} in a {@link DelayQueue}, keyed by the instant
+ * returned by {@link SpoilagePredictionService#nextFreshnessTransition}. A single worker thread takes due
+ * transitions, hands them to {@link FreshnessUpdateService} in one transaction and schedules the next one.
+ * Batches are (re)scheduled from {@link BatchChangedEvent}s, and all active batches are loaded on startup,
+ * where any transition missed while the application was down is applied immediately.
+ */
+@Component
+public class FreshnessTransitionScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(FreshnessTransitionScheduler.class);
+
+    private final BatchRepository batchRepository;
+    private final SpoilagePredictionService predictionService;
+    private final FreshnessUpdateService freshnessUpdateService;
+    private final long retryDelayMs;
+    private final int maxBatchSize;
+
+    private final DelayQueue<Transition> queue = new DelayQueue<>();
+    private final ConcurrentMap<UUID, Transition> pending = new ConcurrentHashMap<>();
+    private final Counter evaluatedTransitions;
+
+    private volatile boolean running = true;
+    private Thread workerThread;
+
+    public FreshnessTransitionScheduler(BatchRepository batchRepository,
+                                        SpoilagePredictionService predictionService,
+                                        FreshnessUpdateService freshnessUpdateService,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${freshness.transitions.retry-delay-ms:60000}") long retryDelayMs,
+                                        @Value("${freshness.transitions.max-batch-size:500}") int maxBatchSize) {
+        this.batchRepository = batchRepository;
+        this.predictionService = predictionService;
+        this.freshnessUpdateService = freshnessUpdateService;
+        this.retryDelayMs = retryDelayMs;
+        this.maxBatchSize = maxBatchSize;
+
+        Gauge.builder("pantara.freshness.transitions.pending", pending, Map::size)
+                .description("Active batches with a scheduled freshness transition")
+                .register(meterRegistry);
+        this.evaluatedTransitions = Counter.builder("pantara.freshness.transitions.evaluated")
+                .description("Batches re-evaluated because a freshness transition was due")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        workerThread = new Thread(this::runWorker, "freshness-transitions");
+        workerThread.setDaemon(true);
+        workerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        workerThread.interrupt();
+        workerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Instant now = Instant.now();
+        List<BatchFreshnessRow> rows = batchRepository.findActiveFreshnessRows();
+
+        int overdue = 0;
+        for (BatchFreshnessRow row : rows) {
+            Batch.FreshnessStatus status = predictionService.calculateFreshnessStatus(
+                    row.getEntryDate(), row.getExpiryDate(), now);
+            if (status != row.getFreshnessStatus()) {
+                schedule(row.getId(), now);
+                overdue++;
+            } else {
+                schedule(row.getId(), predictionService.nextFreshnessTransition(row.getEntryDate(), row.getExpiryDate(), now));
+            }
+        }
+        log.info("Freshness transitions scheduled for {} active batches, {} overdue", pending.size(), overdue);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBatchChanged(BatchChangedEvent event) {
+        Instant now = Instant.now();
+        for (Batch batch : event.getBatches()) {
+            if (batch.getId() != null) {
+                reschedule(batch, now);
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void reschedule(Batch batch, Instant now) {
+        if (!batch.isActive() || batch.getExpiryDate() == null) {
+            schedule(batch.getId(), null);
+            return;
+        }
+
+        Batch.FreshnessStatus status = predictionService.calculateFreshnessStatus(
+                batch.getEntryDate(), batch.getExpiryDate(), now);
+        Instant dueAt = status != batch.getFreshnessStatus()
+                ? now
+                : predictionService.nextFreshnessTransition(batch.getEntryDate(), batch.getExpiryDate(), now);
+        schedule(batch.getId(), dueAt);
+    }
+
+    /**
+     * Replaces the pending transition of a batch; a {@code null} due time cancels it.
+     * A transition superseded by a different due time stays in the queue and is skipped when it comes due.
+     */
+    private void schedule(UUID batchId, Instant dueAt) {
+        if (dueAt == null) {
+            Transition previous = pending.remove(batchId);
+            if (previous != null) {
+                queue.remove(previous);
+            }
+            return;
+        }
+
+        Transition previous = pending.get(batchId);
+        if (previous != null && previous.dueAt.equals(dueAt)) {
+            return;
+        }
+
+        Transition transition = new Transition(batchId, dueAt);
+        pending.put(batchId, transition);
+        queue.put(transition);
+    }
+
+    private void runWorker() {
+        while (running) {
+            try {
+                List<UUID> due = new ArrayList<>();
+                collectIfCurrent(queue.take(), due);
+
+                Transition next;
+                while (due.size() < maxBatchSize && (next = queue.poll()) != null) {
+                    collectIfCurrent(next, due);
+                }
+
+                if (!due.isEmpty()) {
+                    apply(due);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void collectIfCurrent(Transition transition, List<UUID> due) {
+        if (pending.remove(transition.batchId, transition)) {
+            due.add(transition.batchId);
+        }
+    }
+
+    private void apply(List<UUID> batchIds) {
+        try {
+            List<Batch> evaluated = freshnessUpdateService.applyFreshnessTransitions(batchIds);
+            evaluatedTransitions.increment(evaluated.size());
+
+            Instant now = Instant.now();
+            for (Batch batch : evaluated) {
+                pending.computeIfAbsent(batch.getId(), id -> {
+                    Instant dueAt = predictionService.nextFreshnessTransition(batch.getEntryDate(), batch.getExpiryDate(), now);
+                    if (dueAt == null) {
+                        return null;
+                    }
+                    Transition transition = new Transition(id, dueAt);
+                    queue.put(transition);
+                    return transition;
+                });
+            }
+        } catch (Exception e) {
+            log.error("Failed to apply freshness transitions for {} batches, retrying in {} ms",
+                    batchIds.size(), retryDelayMs, e);
+            Instant retryAt = Instant.now().plusMillis(retryDelayMs);
+            for (UUID batchId : batchIds) {
+                pending.computeIfAbsent(batchId, id -> {
+                    Transition transition = new Transition(id, retryAt);
+                    queue.put(transition);
+                    return transition;
+                });
+            }
+        }
+    }
+
+    private static final class Transition implements Delayed {
+        private final UUID batchId;
+        private final Instant dueAt;
+
+        private Transition(UUID batchId, Instant dueAt) {
+            this.batchId = batchId;
+            this.dueAt = dueAt;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt.toEpochMilli() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Transition transition) {
+                return dueAt.compareTo(transition.dueAt);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
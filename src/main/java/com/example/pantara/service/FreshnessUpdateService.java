@@ -1,17 +1,38 @@
 package com.example.pantara.service;
 
+import com.example.pantara.config.AsyncExecutorsConfig;
 import com.example.pantara.constants.BusinessConstants;
 import com.example.pantara.entity.Batch;
+import com.example.pantara.event.BatchChangedEvent;
 import com.example.pantara.repository.BatchRepository;
+import com.example.pantara.repository.projection.ExpiredBatchRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class FreshnessUpdateService {
@@ -21,63 +42,188 @@ public class FreshnessUpdateService {
     private final BatchRepository batchRepository;
     private final SpoilagePredictionService predictionService;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SystemAccountService systemAccountService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor refreshExecutor;
+    private final int cleanupChunkSize;
+
+    private final Counter cleanupDeactivated;
+    private final Timer cleanupDuration;
 
     public FreshnessUpdateService(BatchRepository batchRepository,
                                   SpoilagePredictionService predictionService,
-                                  NotificationService notificationService) {
+                                  NotificationService notificationService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  SystemAccountService systemAccountService,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Qualifier(AsyncExecutorsConfig.MAINTENANCE_EXECUTOR) Executor refreshExecutor,
+                                  @Value("${freshness.cleanup.chunk-size:500}") int cleanupChunkSize) {
         this.batchRepository = batchRepository;
         this.predictionService = predictionService;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.systemAccountService = systemAccountService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.refreshExecutor = refreshExecutor;
+        this.cleanupChunkSize = cleanupChunkSize;
+
+        this.cleanupDeactivated = Counter.builder("pantara.freshness.cleanup.deactivated")
+                .description("Expired batches deactivated by the scheduled cleanup")
+                .register(meterRegistry);
+        this.cleanupDuration = Timer.builder("pantara.freshness.cleanup.duration")
+                .description("Time taken by one run of the expired batch cleanup")
+                .register(meterRegistry);
     }
 
-    @Scheduled(fixedRate = BusinessConstants.ScheduleIntervals.FRESHNESS_UPDATE_INTERVAL_MS)
-    @Transactional
-    public void updateFreshnessStatus() {
-        List<Batch> activeBatches = batchRepository.findByActiveTrue();
+    /**
+     * Replaces the fallback expiry of a batch with its ML prediction once {@code pendingPrediction} completes,
+     * and clears its {@code predictionPending} flag either way; a failed or unusable prediction keeps the fallback.
+     * When called inside a transaction, waits for it to commit so that the batch is visible.
+     */
+    public void refreshWhenPredicted(UUID batchId, CompletableFuture<SpoilagePredictionService.PredictionResult> pendingPrediction) {
+        Runnable attach = () -> pendingPrediction
+                .exceptionally(e -> {
+                    log.warn("ML prediction for batch {} failed, keeping fallback expiry: {}", batchId, e.getMessage());
+                    return null;
+                })
+                .thenAcceptAsync(prediction -> applyLatePrediction(batchId, prediction), refreshExecutor)
+                .exceptionally(e -> {
+                    log.warn("Late prediction for batch {} not applied: {}", batchId, e.getMessage());
+                    return null;
+                });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    attach.run();
+                }
+            });
+        } else {
+            attach.run();
+        }
+    }
+
+    /**
+     * Re-requests the ML prediction of batches still flagged as pending, e.g. because the application
+     * stopped before their prediction arrived.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingPredictions() {
+        List<Batch> pending = batchRepository.findByActiveTrueAndPredictionPendingTrue();
+        for (Batch batch : pending) {
+            refreshWhenPredicted(batch.getId(), predictionService.predictSpoilageAsync(
+                    batch.getIngredientName(), batch.getStorageLocation(), batch.getEntryDate(), null));
+        }
+        if (!pending.isEmpty()) {
+            log.info("Resumed ML prediction for {} batches", pending.size());
+        }
+    }
+
+    private void applyLatePrediction(UUID batchId, SpoilagePredictionService.PredictionResult prediction) {
+        transactionTemplate.executeWithoutResult(status -> batchRepository.findById(batchId)
+                .filter(Batch::isActive)
+                .ifPresent(batch -> {
+                    batch.setPredictionPending(false);
+                    if (prediction != null) {
+                        batch.setExpiryDate(prediction.getExpiryDate());
+                        batch.setFreshnessStatus(predictionService.calculateFreshnessStatus(
+                                batch.getEntryDate(), prediction.getExpiryDate()));
+                        log.info("Batch {} expiry refreshed from ML prediction: {}", batch.getBatchCode(),
+                                prediction.getExpiryDate());
+                    }
+                    eventPublisher.publishEvent(BatchChangedEvent.of(batch));
+                }));
+    }
 
-        for (Batch batch : activeBatches) {
-            if (batch.getExpiryDate() != null) {
-                Batch.FreshnessStatus oldStatus = batch.getFreshnessStatus();
+    /**
+     * Recomputes the freshness status of the given batches, persisting and alerting only those whose
+     * status changed. Called by {@link FreshnessTransitionScheduler} when their next transition is due.
+     *
+     * @return the active batches that were evaluated, so the caller can schedule their next transition
+     */
+    @Transactional
+    public List<Batch> applyFreshnessTransitions(Collection<UUID> batchIds) {
+        List<Batch> evaluatedBatches = new ArrayList<>();
+        List<Batch> changedBatches = new ArrayList<>();
+        Instant now = Instant.now();
+
+        for (Batch batch : batchRepository.findAllById(batchIds)) {
+            if (!batch.isActive() || batch.getExpiryDate() == null) {
+                continue;
+            }
+            evaluatedBatches.add(batch);
 
-                predictionService.updateFreshnessStatus(batch);
-                Batch.FreshnessStatus newStatus = batch.getFreshnessStatus();
+            Batch.FreshnessStatus oldStatus = batch.getFreshnessStatus();
+            Batch.FreshnessStatus newStatus = predictionService.calculateFreshnessStatus(
+                    batch.getEntryDate(), batch.getExpiryDate(), now);
 
-                if (oldStatus != newStatus) {
-                    batchRepository.save(batch);
+            if (oldStatus != newStatus) {
+                batch.setFreshnessStatus(newStatus);
+                batchRepository.save(batch);
+                changedBatches.add(batch);
 
-                    notificationService.sendFreshnessStatusAlert(batch, oldStatus, newStatus);
+                notificationService.sendFreshnessStatusAlert(batch, oldStatus, newStatus);
 
-                    if (newStatus == Batch.FreshnessStatus.RED) {
-                        long daysUntilExpiry = ChronoUnit.DAYS.between(Instant.now(), batch.getExpiryDate());
-                        notificationService.sendExpiryAlert(batch, (int) daysUntilExpiry);
-                    }
+                if (newStatus == Batch.FreshnessStatus.RED) {
+                    long daysUntilExpiry = ChronoUnit.DAYS.between(now, batch.getExpiryDate());
+                    notificationService.sendExpiryAlert(batch, (int) daysUntilExpiry);
                 }
             }
         }
+
+        if (!changedBatches.isEmpty()) {
+            log.info("Applied freshness transitions to {} batches", changedBatches.size());
+            eventPublisher.publishEvent(new BatchChangedEvent(changedBatches));
+        }
+        return evaluatedBatches;
     }
 
+    /**
+     * Deactivates active RED batches past their expiry date and records their remaining weight as EXPIRED usage.
+     * Works through the set in chunks of {@code freshness.cleanup.chunk-size}, each in its own transaction,
+     * without loading the batches as entities.
+     */
     @Scheduled(fixedRate = BusinessConstants.ScheduleIntervals.BATCH_CLEANUP_INTERVAL_MS)
-    @Transactional
     public void cleanupExpiredBatches() {
         log.info("Starting cleanup of expired batches...");
 
-        List<Batch> activeBatches = batchRepository.findByActiveTrue();
-        int expiredCount = 0;
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        UUID systemUserId = systemAccountService.getSystemUserId();
+        int totalDeactivated = 0;
+
+        List<ExpiredBatchRow> chunk;
+        do {
+            chunk = transactionTemplate.execute(status ->
+                    batchRepository.deactivateExpiredChunk(now, cleanupChunkSize, systemUserId));
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
 
-        for (Batch batch : activeBatches) {
-            if (batch.getFreshnessStatus() == Batch.FreshnessStatus.RED &&
-                    batch.getExpiryDate() != null &&
-                    batch.getExpiryDate().isBefore(java.time.Instant.now())) {
+            totalDeactivated += chunk.size();
+            cleanupDeactivated.increment(chunk.size());
+            eventPublisher.publishEvent(new BatchChangedEvent(toDeactivatedBatches(chunk)));
+            log.debug("Marked {} expired batches as inactive", chunk.size());
+        } while (chunk.size() >= cleanupChunkSize);
 
-                batch.setActive(false);
-                batchRepository.save(batch);
-                expiredCount++;
+        cleanupDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("Expired batch cleanup completed. Marked {} batches as inactive", totalDeactivated);
+    }
 
-                log.debug("Marked expired batch as inactive: {}", batch.getBatchCode());
-            }
+    private List<Batch> toDeactivatedBatches(List<ExpiredBatchRow> rows) {
+        List<Batch> batches = new ArrayList<>(rows.size());
+        for (ExpiredBatchRow row : rows) {
+            Batch batch = new Batch();
+            batch.setId(row.id());
+            batch.setBatchCode(row.batchCode());
+            batch.setWeight(row.weight());
+            batch.setActive(false);
+            batches.add(batch);
         }
-
-        log.info("Expired batch cleanup completed. Marked {} batches as inactive", expiredCount);
+        return batches;
     }
 
     private boolean shouldNotifyStatusChange(Batch.FreshnessStatus oldStatus, Batch.FreshnessStatus newStatus) {
@@ -0,0 +1,260 @@
+package com.example.pantara.service;
+
+import com.example.pantara.constants.IngredientConstants;
+import com.example.pantara.entity.Batch;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Classifies ingredient names into {@link IngredientGroup}s by keyword, e.g. "Ayam Potong" as protein.
+ *
+ * All keywords are compiled once into an Aho-Corasick automaton, so a name is classified in a single pass
+ * over its characters whatever the size of the dictionary. When a name contains keywords of several groups,
+ * the group declared first wins. Keywords come from {@link IngredientConstants.IngredientKeywords}, extended
+ * or overridden by the optional {@code ingredients.classifier.dictionary} file of {@code keyword=GROUP} lines.
+ * Results are cached per distinct name.
+ */
+@Component
+public class IngredientClassifier {
+
+    private static final Logger log = LoggerFactory.getLogger(IngredientClassifier.class);
+
+    private static final int ASCII = 128;
+    private static final int NO_GROUP = Integer.MAX_VALUE;
+    private static final IngredientGroup[] GROUPS = IngredientGroup.values();
+
+    /**
+     * Ingredient groups in priority order. Each maps to the category stored on batches and to the
+     * {@code kategori_bahan} label the Azure ML model was trained with.
+     */
+    public enum IngredientGroup {
+        SAYURAN(Batch.Category.SAYURAN, "Sayuran"),
+        BUAH(Batch.Category.BUAH, "Buah"),
+        PROTEIN_HEWANI(Batch.Category.PROTEIN, "Protein Hewani"),
+        PROTEIN_NABATI(Batch.Category.PROTEIN, "Protein Nabati"),
+        KARBOHIDRAT(Batch.Category.BAHAN_POKOK, "Karbohidrat"),
+        BUMBU(Batch.Category.BAHAN_POKOK, "Sayuran");
+
+        private final Batch.Category category;
+        private final String mlLabel;
+
+        IngredientGroup(Batch.Category category, String mlLabel) {
+            this.category = category;
+            this.mlLabel = mlLabel;
+        }
+
+        public Batch.Category getCategory() {
+            return category;
+        }
+
+        public String getMlLabel() {
+            return mlLabel;
+        }
+    }
+
+    /** Dense transitions for ASCII characters, {@code [state * ASCII + c]}, with failure links already folded in. */
+    private final int[] asciiNext;
+    /** Transitions on other characters, kept sparse and resolved through {@link #fail}. */
+    private final List<Map<Character, Integer>> otherNext;
+    private final int[] fail;
+    /** Lowest group ordinal of any keyword ending at a state or at one of its suffix states. */
+    private final int[] bestGroup;
+
+    private final Cache<String, Optional<IngredientGroup>> cache;
+
+    public IngredientClassifier(ResourceLoader resourceLoader,
+                                @Value("${ingredients.classifier.dictionary:}") String dictionaryLocation,
+                                @Value("${ingredients.classifier.cache-size:10000}") long cacheSize) {
+        Map<String, IngredientGroup> keywords = loadKeywords(resourceLoader, dictionaryLocation);
+
+        Trie trie = new Trie();
+        keywords.forEach(trie::add);
+
+        int states = trie.children.size();
+        this.asciiNext = new int[states * ASCII];
+        this.otherNext = new ArrayList<>(states);
+        this.fail = new int[states];
+        this.bestGroup = new int[states];
+        compile(trie);
+
+        this.cache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+        log.info("Ingredient classifier built from {} keywords ({} states)", keywords.size(), states);
+    }
+
+    public Optional<IngredientGroup> classify(String ingredientName) {
+        if (ingredientName == null) {
+            return Optional.empty();
+        }
+        return cache.get(ingredientName, this::match);
+    }
+
+    /**
+     * Uncached classification: one pass over the name, lowercasing character by character.
+     */
+    Optional<IngredientGroup> match(String ingredientName) {
+        int state = 0;
+        int best = NO_GROUP;
+        for (int i = 0; i < ingredientName.length(); i++) {
+            char c = Character.toLowerCase(ingredientName.charAt(i));
+            state = c < ASCII ? asciiNext[state * ASCII + c] : nextOther(state, c);
+            if (bestGroup[state] < best) {
+                best = bestGroup[state];
+                if (best == 0) {
+                    break;
+                }
+            }
+        }
+        return best == NO_GROUP ? Optional.empty() : Optional.of(GROUPS[best]);
+    }
+
+    private int nextOther(int state, char c) {
+        while (true) {
+            Integer next = otherNext.get(state).get(c);
+            if (next != null) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+
+    /**
+     * Breadth-first pass computing failure links and the dense goto table from the trie.
+     */
+    private void compile(Trie trie) {
+        for (int state = 0; state < trie.children.size(); state++) {
+            Map<Character, Integer> other = new HashMap<>();
+            trie.children.get(state).forEach((c, child) -> {
+                if (c >= ASCII) {
+                    other.put(c, child);
+                }
+            });
+            otherNext.add(other);
+            bestGroup[state] = trie.groups.get(state);
+        }
+
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ASCII; c++) {
+            Integer child = trie.children.get(0).get((char) c);
+            asciiNext[c] = child != null ? child : 0;
+            if (child != null) {
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+        otherNext.get(0).values().forEach(child -> {
+            fail[child] = 0;
+            queue.add(child);
+        });
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            bestGroup[state] = Math.min(bestGroup[state], bestGroup[fail[state]]);
+
+            for (int c = 0; c < ASCII; c++) {
+                Integer child = trie.children.get(state).get((char) c);
+                int viaFail = asciiNext[fail[state] * ASCII + c];
+                if (child != null) {
+                    fail[child] = viaFail;
+                    asciiNext[state * ASCII + c] = child;
+                    queue.add(child);
+                } else {
+                    asciiNext[state * ASCII + c] = viaFail;
+                }
+            }
+            for (Map.Entry<Character, Integer> entry : otherNext.get(state).entrySet()) {
+                int child = entry.getValue();
+                fail[child] = nextOther(fail[state], entry.getKey());
+                queue.add(child);
+            }
+        }
+    }
+
+    private static Map<String, IngredientGroup> loadKeywords(ResourceLoader resourceLoader, String location) {
+        Map<String, IngredientGroup> keywords = new LinkedHashMap<>();
+        addAll(keywords, IngredientGroup.SAYURAN, IngredientConstants.IngredientKeywords.VEGETABLES);
+        addAll(keywords, IngredientGroup.BUAH, IngredientConstants.IngredientKeywords.FRUITS);
+        addAll(keywords, IngredientGroup.PROTEIN_HEWANI, IngredientConstants.IngredientKeywords.ANIMAL_PROTEIN);
+        addAll(keywords, IngredientGroup.PROTEIN_NABATI, IngredientConstants.IngredientKeywords.PLANT_PROTEIN);
+        addAll(keywords, IngredientGroup.KARBOHIDRAT, IngredientConstants.IngredientKeywords.CARBOHYDRATES);
+        addAll(keywords, IngredientGroup.BUMBU, IngredientConstants.IngredientKeywords.SEASONINGS);
+
+        if (location == null || location.isBlank()) {
+            return keywords;
+        }
+
+        Resource resource = resourceLoader.getResource(location);
+        Properties dictionary = new Properties();
+        try (InputStream in = resource.getInputStream()) {
+            dictionary.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read ingredient dictionary " + location, e);
+        }
+        dictionary.forEach((keyword, group) -> keywords.put(normalize((String) keyword),
+                IngredientGroup.valueOf(((String) group).trim().toUpperCase(Locale.ROOT))));
+        log.info("Loaded {} ingredient keywords from {}", dictionary.size(), location);
+        return keywords;
+    }
+
+    private static void addAll(Map<String, IngredientGroup> keywords, IngredientGroup group, String[] words) {
+        for (String word : words) {
+            keywords.putIfAbsent(normalize(word), group);
+        }
+    }
+
+    private static String normalize(String keyword) {
+        StringBuilder normalized = new StringBuilder(keyword.length());
+        String trimmed = keyword.trim();
+        for (int i = 0; i < trimmed.length(); i++) {
+            normalized.append(Character.toLowerCase(trimmed.charAt(i)));
+        }
+        return normalized.toString();
+    }
+
+    private static final class Trie {
+        private final List<Map<Character, Integer>> children = new ArrayList<>();
+        private final List<Integer> groups = new ArrayList<>();
+
+        private Trie() {
+            newState();
+        }
+
+        private void add(String keyword, IngredientGroup group) {
+            if (keyword.isEmpty()) {
+                return;
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = newState();
+                    children.get(state).put(c, next);
+                }
+                state = next;
+            }
+            groups.set(state, Math.min(groups.get(state), group.ordinal()));
+        }
+
+        private int newState() {
+            children.add(new HashMap<>());
+            groups.add(NO_GROUP);
+            return children.size() - 1;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.pantara.service;
+
+import com.example.pantara.entity.Batch;
+import com.example.pantara.event.BatchChangedEvent;
+import com.example.pantara.repository.BatchRepository;
+import com.example.pantara.repository.projection.BatchAggregateRow;
+import com.example.pantara.repository.projection.FreshnessBreakdown;
+import com.example.pantara.repository.projection.StatusBreakdown;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Inventory counters per ingredient, category, storage location and freshness status,
+ * kept in memory so that dashboard reads cost O(groups) instead of scanning the batches table.
+ *
+ * Every {@link BatchChangedEvent} replaces the previous contribution of each batch with its new one,
+ * which covers creation, weight changes, deactivation and freshness transitions alike.
+ * A periodic reconciliation reloads the counters from the database and records how far they had drifted.
+ */
+@Component
+public class InventoryAggregateStore {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryAggregateStore.class);
+
+    private static final Comparator<StatusBreakdown> BY_WEIGHT_DESC =
+            Comparator.comparing(StatusBreakdown::getTotalWeight).reversed()
+                    .thenComparing(StatusBreakdown::getGroupKey);
+
+    private final BatchRepository batchRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<UUID, Contribution> contributions = new HashMap<>();
+    private final Map<String, Counter> ingredients = new HashMap<>();
+    private final Map<String, Counter> categories = new HashMap<>();
+    private final Map<String, Counter> locations = new HashMap<>();
+    private final Counter total = new Counter();
+
+    private boolean loaded;
+    private volatile Snapshot snapshot;
+
+    public InventoryAggregateStore(BatchRepository batchRepository, MeterRegistry meterRegistry) {
+        this.batchRepository = batchRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public long getTotalBatches() {
+        return current().total.getBatchCount();
+    }
+
+    public BigDecimal getTotalWeight() {
+        return current().total.getTotalWeight();
+    }
+
+    public List<StatusBreakdown> byIngredient() {
+        return current().ingredients;
+    }
+
+    public List<StatusBreakdown> byCategory() {
+        return current().categories;
+    }
+
+    public List<StatusBreakdown> byStorageLocation() {
+        return current().locations;
+    }
+
+    public List<FreshnessBreakdown> byFreshnessStatus() {
+        return current().freshness;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.aggregates.reconcile-interval-ms:300000}",
+            initialDelayString = "${inventory.aggregates.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBatchChanged(BatchChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+
+        for (Batch batch : event.getBatches()) {
+            if (batch.getId() == null) {
+                continue;
+            }
+            Contribution next = batch.isActive()
+                    ? new Contribution(batch.getIngredientName(), categoryKey(batch.getCategory()),
+                    batch.getStorageLocation(), batch.getFreshnessStatus(), batch.getWeight())
+                    : null;
+            replace(batch.getId(), next);
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Reloads all counters from the active batches and publishes the number of batches
+     * whose in-memory contribution differed from the database.
+     */
+    public synchronized void reconcile() {
+        List<BatchAggregateRow> rows = batchRepository.findActiveAggregateRows();
+
+        Map<UUID, Contribution> reloaded = new HashMap<>(rows.size() * 2);
+        for (BatchAggregateRow row : rows) {
+            reloaded.put(row.getId(), new Contribution(row.getIngredientName(), categoryKey(row.getCategory()),
+                    row.getStorageLocation(), row.getFreshnessStatus(), row.getWeight()));
+        }
+
+        long drifted = 0;
+        if (loaded) {
+            for (Map.Entry<UUID, Contribution> entry : reloaded.entrySet()) {
+                if (!entry.getValue().equals(contributions.get(entry.getKey()))) {
+                    drifted++;
+                }
+            }
+            for (UUID id : contributions.keySet()) {
+                if (!reloaded.containsKey(id)) {
+                    drifted++;
+                }
+            }
+        }
+
+        contributions.clear();
+        ingredients.clear();
+        categories.clear();
+        locations.clear();
+        total.reset();
+        reloaded.forEach(this::replace);
+
+        loaded = true;
+        snapshot = null;
+
+        meterRegistry.counter("pantara.inventory.aggregates.drift").increment(drifted);
+        if (drifted > 0) {
+            log.warn("Inventory aggregates corrected {} drifted batches", drifted);
+        }
+        log.info("Inventory aggregates loaded from {} active batches", reloaded.size());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (!loaded) {
+                reconcile();
+            }
+            if (snapshot == null) {
+                snapshot = new Snapshot(
+                        total.toBreakdown(null),
+                        toBreakdowns(ingredients),
+                        toBreakdowns(categories),
+                        toBreakdowns(locations),
+                        total.toFreshnessBreakdowns());
+            }
+            return snapshot;
+        }
+    }
+
+    private void replace(UUID id, Contribution next) {
+        Contribution previous = next != null ? contributions.put(id, next) : contributions.remove(id);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        if (next != null) {
+            apply(next, 1);
+        }
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        total.add(contribution, sign);
+        addToGroup(ingredients, contribution.ingredientName, contribution, sign);
+        addToGroup(categories, contribution.category, contribution, sign);
+        addToGroup(locations, contribution.storageLocation, contribution, sign);
+    }
+
+    private static void addToGroup(Map<String, Counter> groups, String key, Contribution contribution, int sign) {
+        if (key == null) {
+            return;
+        }
+        Counter counter = groups.computeIfAbsent(key, k -> new Counter());
+        counter.add(contribution, sign);
+        if (counter.batchCount == 0) {
+            groups.remove(key);
+        }
+    }
+
+    private static List<StatusBreakdown> toBreakdowns(Map<String, Counter> groups) {
+        List<StatusBreakdown> result = new ArrayList<>(groups.size());
+        groups.forEach((key, counter) -> result.add(counter.toBreakdown(key)));
+        result.sort(BY_WEIGHT_DESC);
+        return Collections.unmodifiableList(result);
+    }
+
+    private static String categoryKey(Batch.Category category) {
+        return category != null ? category.name() : null;
+    }
+
+    private record Contribution(String ingredientName, String category, String storageLocation,
+                                Batch.FreshnessStatus status, BigDecimal weight) {
+
+        private Contribution {
+            weight = weight != null ? weight.stripTrailingZeros() : BigDecimal.ZERO;
+        }
+    }
+
+    private static class Counter {
+        private static final Batch.FreshnessStatus[] STATUSES = Batch.FreshnessStatus.values();
+
+        private long batchCount;
+        private BigDecimal weight = BigDecimal.ZERO;
+        private final long[] statusCounts = new long[STATUSES.length];
+        private final BigDecimal[] statusWeights = new BigDecimal[STATUSES.length];
+
+        private Counter() {
+            Arrays.fill(statusWeights, BigDecimal.ZERO);
+        }
+
+        private void add(Contribution contribution, int sign) {
+            BigDecimal delta = sign > 0 ? contribution.weight : contribution.weight.negate();
+            batchCount += sign;
+            weight = weight.add(delta);
+            if (contribution.status != null) {
+                int index = contribution.status.ordinal();
+                statusCounts[index] += sign;
+                statusWeights[index] = statusWeights[index].add(delta);
+            }
+        }
+
+        private void reset() {
+            batchCount = 0;
+            weight = BigDecimal.ZERO;
+            Arrays.fill(statusCounts, 0);
+            Arrays.fill(statusWeights, BigDecimal.ZERO);
+        }
+
+        private GroupTotals toBreakdown(String key) {
+            return new GroupTotals(key, batchCount, weight, statusCounts.clone(), statusWeights.clone());
+        }
+
+        private List<FreshnessBreakdown> toFreshnessBreakdowns() {
+            List<FreshnessBreakdown> result = new ArrayList<>(STATUSES.length);
+            for (Batch.FreshnessStatus status : STATUSES) {
+                long count = statusCounts[status.ordinal()];
+                if (count > 0) {
+                    result.add(new StatusTotals(status, count, statusWeights[status.ordinal()]));
+                }
+            }
+            return Collections.unmodifiableList(result);
+        }
+    }
+
+    private record Snapshot(GroupTotals total,
+                            List<StatusBreakdown> ingredients,
+                            List<StatusBreakdown> categories,
+                            List<StatusBreakdown> locations,
+                            List<FreshnessBreakdown> freshness) {
+    }
+
+    private record GroupTotals(String groupKey, long batchCount, BigDecimal totalWeight,
+                               long[] statusCounts, BigDecimal[] statusWeights) implements StatusBreakdown {
+
+        @Override
+        public String getGroupKey() {
+            return groupKey;
+        }
+
+        @Override
+        public long getBatchCount() {
+            return batchCount;
+        }
+
+        @Override
+        public BigDecimal getTotalWeight() {
+            return totalWeight;
+        }
+
+        @Override
+        public long getGreenBatches() {
+            return statusCounts[Batch.FreshnessStatus.GREEN.ordinal()];
+        }
+
+        @Override
+        public long getYellowBatches() {
+            return statusCounts[Batch.FreshnessStatus.YELLOW.ordinal()];
+        }
+
+        @Override
+        public long getRedBatches() {
+            return statusCounts[Batch.FreshnessStatus.RED.ordinal()];
+        }
+
+        @Override
+        public BigDecimal getGreenWeight() {
+            return statusWeights[Batch.FreshnessStatus.GREEN.ordinal()];
+        }
+
+        @Override
+        public BigDecimal getYellowWeight() {
+            return statusWeights[Batch.FreshnessStatus.YELLOW.ordinal()];
+        }
+
+        @Override
+        public BigDecimal getRedWeight() {
+            return statusWeights[Batch.FreshnessStatus.RED.ordinal()];
+        }
+    }
+
+    private record StatusTotals(Batch.FreshnessStatus status, long batchCount, BigDecimal totalWeight)
+            implements FreshnessBreakdown {
+
+        @Override
+        public Batch.FreshnessStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public long getBatchCount() {
+            return batchCount;
+        }
+
+        @Override
+        public BigDecimal getTotalWeight() {
+            return totalWeight;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.pantara.service;
+
+import com.example.pantara.repository.BatchRepository;
+import com.example.pantara.repository.projection.FreshnessBreakdown;
+import com.example.pantara.repository.projection.IngredientBreakdown;
+import com.example.pantara.repository.projection.StatusBreakdown;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Single-pass aggregations over active batches.
+ *
+ * Each grouping is answered by one GROUP BY query with conditional sums per freshness status,
+ * so summaries no longer load the batches of every group to count them in memory.
+ */
+@Service
+@Transactional(readOnly = true)
+public class InventoryAggregationService {
+
+    private final BatchRepository batchRepository;
+
+    public InventoryAggregationService(BatchRepository batchRepository) {
+        this.batchRepository = batchRepository;
+    }
+
+    public List<IngredientBreakdown> byIngredient() {
+        return batchRepository.getIngredientBreakdown();
+    }
+
+    public List<StatusBreakdown> byStorageLocation() {
+        return batchRepository.getStorageLocationBreakdown();
+    }
+
+    public List<StatusBreakdown> byCategory() {
+        return batchRepository.getCategoryBreakdown();
+    }
+
+    public List<FreshnessBreakdown> byFreshnessStatus() {
+        return batchRepository.getFreshnessBreakdown();
+    }
+}
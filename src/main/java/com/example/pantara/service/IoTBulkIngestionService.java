@@ -0,0 +1,231 @@
+package com.example.pantara.service;
+
+import com.example.pantara.dto.request.IoTSensorDataRequest;
+import com.example.pantara.dto.response.IoTBulkIngestResponse;
+import com.example.pantara.exception.ServiceOverloadedException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parses bulk sensor uploads incrementally and hands each valid reading to {@link IoTService} so that it
+ * joins the regular batched ingestion pipeline.
+ *
+ * The whole body is read and validated before the first reading is queued, so a malformed or truncated
+ * upload is refused without side effects and the device can resend it unchanged. Readings carrying a
+ * plausible device timestamp keep it as their receive time, so replayed history lands in the right
+ * rollup buckets.
+ */
+@Service
+public class IoTBulkIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(IoTBulkIngestionService.class);
+
+    public static final String STATUS_ACCEPTED = "ACCEPTED";
+    public static final String STATUS_REJECTED = "REJECTED";
+    public static final String STATUS_RETRY = "RETRY";
+
+    /** Device clocks that were never synchronised report times near the epoch or the time since boot. */
+    private static final Instant EARLIEST_DEVICE_TIME = Instant.parse("2020-01-01T00:00:00Z");
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(5);
+    private static final long EPOCH_MILLIS_THRESHOLD = 100_000_000_000L;
+
+    private final IoTService iotService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int maxItems;
+
+    public IoTBulkIngestionService(IoTService iotService,
+                                   ObjectMapper objectMapper,
+                                   Validator validator,
+                                   @Value("${iot.ingestion.bulk-max-items:5000}") int maxItems) {
+        this.iotService = iotService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Reads a JSON array of readings. A syntax error in the array itself aborts the request before any
+     * reading is queued, while readings that fail binding or validation are rejected individually.
+     */
+    public IoTBulkIngestResponse ingestJsonArray(InputStream body) throws IOException {
+        IoTBulkIngestResponse response = new IoTBulkIngestResponse();
+        List<IoTSensorDataRequest> readings = new ArrayList<>();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Request body must be a JSON array of sensor readings");
+            }
+
+            int index = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IllegalArgumentException("Unexpected end of input at item " + index);
+                }
+                if (index >= maxItems) {
+                    response.setTruncated(true);
+                    break;
+                }
+
+                JsonNode node = parser.readValueAsTree();
+                readings.add(bind(index++, node, response));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON array: " + e.getOriginalMessage());
+        }
+
+        submit(readings, response);
+        return finish(response);
+    }
+
+    /**
+     * Reads newline-delimited JSON. Every line is parsed on its own, so a malformed line only
+     * rejects that reading.
+     */
+    public IoTBulkIngestResponse ingestNdjson(InputStream body) throws IOException {
+        IoTBulkIngestResponse response = new IoTBulkIngestResponse();
+        List<IoTSensorDataRequest> readings = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            int index = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (index >= maxItems) {
+                    response.setTruncated(true);
+                    break;
+                }
+
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    reject(response, index++, null, List.of("Malformed JSON: " + e.getOriginalMessage()));
+                    readings.add(null);
+                    continue;
+                }
+                readings.add(bind(index++, node, response));
+            }
+        }
+
+        submit(readings, response);
+        return finish(response);
+    }
+
+    /**
+     * Binds and validates one reading.
+     *
+     * @return the reading, or {@code null} if it was rejected
+     */
+    private IoTSensorDataRequest bind(int index, JsonNode node, IoTBulkIngestResponse response) {
+        IoTSensorDataRequest request;
+        try {
+            request = objectMapper.treeToValue(node, IoTSensorDataRequest.class);
+        } catch (JsonProcessingException e) {
+            reject(response, index, node.path("device").asText(null), List.of(e.getOriginalMessage()));
+            return null;
+        }
+
+        Set<ConstraintViolation<IoTSensorDataRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            List<String> errors = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.toList());
+            reject(response, index, request.getDevice(), errors);
+            return null;
+        }
+        return request;
+    }
+
+    /**
+     * Queues the valid readings, indexed by their position in the upload.
+     */
+    private void submit(List<IoTSensorDataRequest> readings, IoTBulkIngestResponse response) {
+        Instant now = Instant.now();
+        for (int index = 0; index < readings.size(); index++) {
+            IoTSensorDataRequest request = readings.get(index);
+            if (request == null) {
+                continue;
+            }
+
+            // Once the queue is full the remaining readings are not attempted, the device resends them later
+            if (response.getRetry() > 0) {
+                addResult(response, index, STATUS_RETRY, request.getDevice(), null);
+                response.setRetry(response.getRetry() + 1);
+                continue;
+            }
+
+            try {
+                iotService.processSensorData(request, receivedAt(request.getTimestamp(), now));
+                addResult(response, index, STATUS_ACCEPTED, request.getDevice(), null);
+                response.setAccepted(response.getAccepted() + 1);
+            } catch (ServiceOverloadedException e) {
+                addResult(response, index, STATUS_RETRY, request.getDevice(), List.of(e.getMessage()));
+                response.setRetry(response.getRetry() + 1);
+            }
+        }
+    }
+
+    /**
+     * Uses the device timestamp, in epoch seconds or milliseconds, when it is plausible; otherwise the
+     * reading is taken to have been received now.
+     */
+    static Instant receivedAt(Long timestamp, Instant now) {
+        if (timestamp == null) {
+            return now;
+        }
+        Instant deviceTime = timestamp < EPOCH_MILLIS_THRESHOLD
+                ? Instant.ofEpochSecond(timestamp)
+                : Instant.ofEpochMilli(timestamp);
+        if (deviceTime.isBefore(EARLIEST_DEVICE_TIME) || deviceTime.isAfter(now.plus(MAX_CLOCK_SKEW))) {
+            return now;
+        }
+        return deviceTime.isAfter(now) ? now : deviceTime;
+    }
+
+    private void reject(IoTBulkIngestResponse response, int index, String device, List<String> errors) {
+        addResult(response, index, STATUS_REJECTED, device, errors);
+        response.setRejected(response.getRejected() + 1);
+    }
+
+    private void addResult(IoTBulkIngestResponse response, int index, String status, String device, List<String> errors) {
+        response.getResults().add(new IoTBulkIngestResponse.ItemResult(index, status, device, errors));
+    }
+
+    private IoTBulkIngestResponse finish(IoTBulkIngestResponse response) {
+        response.getResults().sort(Comparator.comparingInt(IoTBulkIngestResponse.ItemResult::getIndex));
+        response.setTotal(response.getResults().size());
+        response.setMessage("Accepted %d of %d readings".formatted(response.getAccepted(), response.getTotal())
+                + (response.isTruncated() ? "; stopped after " + maxItems + " items, resend the rest" : ""));
+
+        log.info("Bulk IoT upload: {} accepted, {} rejected, {} to retry, truncated: {}",
+                response.getAccepted(), response.getRejected(), response.getRetry(), response.isTruncated());
+        return response;
+    }
+}
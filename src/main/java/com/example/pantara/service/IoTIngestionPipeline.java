@@ -0,0 +1,238 @@
+package com.example.pantara.service;
+
+import com.example.pantara.entity.IoTSensorData;
+import com.example.pantara.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers incoming IoT readings and writes them in batches.
+ *
+ * Readings are placed on a bounded queue by request threads and persisted by a single writer thread,
+ * which flushes whenever {@code iot.ingestion.batch-size} readings are pending or
+ * {@code iot.ingestion.flush-interval-ms} has elapsed since the first pending reading.
+ * When the queue is full new readings are rejected with a {@link ServiceOverloadedException}.
+ *
+ * Readings are folded into the rollups in the transaction that writes them, so a reading is never stored
+ * without being counted. A batch that fails to write is retried up to {@code iot.ingestion.flush-attempts}
+ * times, then written row by row so that one bad reading only loses itself. On shutdown the writer drains
+ * the queue before it exits.
+ */
+@Component
+public class IoTIngestionPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(IoTIngestionPipeline.class);
+
+    private final EntityManager entityManager;
+    private final IoTRollupService rollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<IoTSensorData> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long retryAfterSeconds;
+    private final int flushAttempts;
+    private final long shutdownTimeoutMs;
+
+    private final DistributionSummary flushSize;
+    private final Timer flushLatency;
+    private final MeterRegistry meterRegistry;
+
+    private volatile boolean running = true;
+    private Thread writerThread;
+
+    public IoTIngestionPipeline(EntityManager entityManager,
+                                IoTRollupService rollupService,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${iot.ingestion.queue-capacity:10000}") int queueCapacity,
+                                @Value("${iot.ingestion.batch-size:200}") int batchSize,
+                                @Value("${iot.ingestion.flush-interval-ms:250}") long flushIntervalMs,
+                                @Value("${iot.ingestion.retry-after-seconds:1}") long retryAfterSeconds,
+                                @Value("${iot.ingestion.flush-attempts:3}") int flushAttempts,
+                                @Value("${iot.ingestion.shutdown-timeout-ms:30000}") long shutdownTimeoutMs) {
+        this.entityManager = entityManager;
+        this.rollupService = rollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.flushAttempts = Math.max(1, flushAttempts);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("pantara.iot.ingestion.queue.depth", queue, BlockingQueue::size)
+                .description("IoT readings waiting to be written")
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("pantara.iot.ingestion.flush.size")
+                .description("Number of IoT readings written per flush")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("pantara.iot.ingestion.flush.latency")
+                .description("Time taken to write one batch of IoT readings")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread = new Thread(this::runWriter, "iot-ingestion-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(shutdownTimeoutMs);
+
+        if (writerThread.isAlive()) {
+            log.error("IoT ingestion writer did not finish within {} ms, {} queued readings may be lost",
+                    shutdownTimeoutMs, queue.size());
+        }
+    }
+
+    /**
+     * Queues a reading for persistence.
+     *
+     * @throws ServiceOverloadedException if the queue is full
+     */
+    public void submit(IoTSensorData reading) {
+        if (!queue.offer(reading)) {
+            meterRegistry.counter("pantara.iot.ingestion.rejected").increment();
+            throw ServiceOverloadedException.iotIngestionQueueFull(retryAfterSeconds);
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void runWriter() {
+        List<IoTSensorData> pending = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                IoTSensorData first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                pending.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (pending.size() < batchSize) {
+                    queue.drainTo(pending, batchSize - pending.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (pending.size() >= batchSize || remainingNanos <= 0) {
+                        break;
+                    }
+                    IoTSensorData next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        pending.add(next);
+                    }
+                }
+
+                flush(pending);
+                pending.clear();
+            } catch (InterruptedException e) {
+                // stop() interrupts to wake the writer; running is already false
+            }
+        }
+
+        // Only this thread writes, so the final drain cannot race another flush
+        Thread.interrupted();
+        queue.drainTo(pending);
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            flush(pending.subList(from, Math.min(from + batchSize, pending.size())));
+        }
+    }
+
+    private void flush(List<IoTSensorData> readings) {
+        long start = System.nanoTime();
+        List<IoTSensorData> written = readings;
+        try {
+            if (!writeBatch(readings)) {
+                written = writeEachRow(readings);
+            }
+            flushSize.record(written.size());
+            log.debug("Flushed {} IoT readings", written.size());
+        } finally {
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Writes the readings in one transaction, retrying with a growing pause.
+     *
+     * @return whether the batch was written
+     */
+    private boolean writeBatch(List<IoTSensorData> readings) {
+        for (int attempt = 1; attempt <= flushAttempts; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(readings));
+                return true;
+            } catch (Exception e) {
+                // an interrupt from stop() can fail the attempt; running already carries that signal
+                Thread.interrupted();
+                meterRegistry.counter("pantara.iot.ingestion.flush.failed").increment();
+                log.warn("Attempt {} of {} to write batch of {} IoT readings failed",
+                        attempt, flushAttempts, readings.size(), e);
+            }
+            if (attempt < flushAttempts && running) {
+                try {
+                    Thread.sleep(flushIntervalMs * attempt);
+                } catch (InterruptedException e) {
+                    // shutting down; fall through to the row-by-row write without further pauses
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes each reading in its own transaction, so a reading the database refuses does not take the
+     * rest of the batch with it.
+     *
+     * @return the readings that were written
+     */
+    private List<IoTSensorData> writeEachRow(List<IoTSensorData> readings) {
+        List<IoTSensorData> written = new ArrayList<>(readings.size());
+        for (IoTSensorData reading : readings) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(List.of(reading)));
+                written.add(reading);
+            } catch (Exception e) {
+                meterRegistry.counter("pantara.iot.ingestion.dropped").increment();
+                log.error("Dropping IoT reading {} from device {}", reading.getId(), reading.getDeviceId(), e);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Readings carry their id from the moment they are received, so they are persisted rather than
+     * merged; {@code saveAll} would select every row first to decide whether it is new.
+     */
+    private void write(List<IoTSensorData> readings) {
+        readings.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+        rollupService.accumulate(readings);
+    }
+}
@@ -0,0 +1,356 @@
+package com.example.pantara.service;
+
+import com.example.pantara.config.AsyncExecutorsConfig;
+import com.example.pantara.dto.response.IoTHistoryResponse;
+import com.example.pantara.entity.IoTRollupBackfill;
+import com.example.pantara.entity.IoTSensorData;
+import com.example.pantara.entity.IoTSensorRollup;
+import com.example.pantara.entity.IoTSensorRollup.BucketSize;
+import com.example.pantara.repository.IoTRollupBackfillRepository;
+import com.example.pantara.repository.IoTSensorDataRepository;
+import com.example.pantara.repository.IoTSensorRollupRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains per-device 1-minute, 15-minute and 1-hour aggregates of IoT readings and prunes old data.
+ *
+ * Aggregates are folded in incrementally by the ingestion pipeline in the transaction that writes the
+ * readings, so history queries never have to scan raw readings and a stored reading is always counted.
+ * Each flush adds its readings to the buckets with one atomic upsert, so instances writing the same
+ * bucket at once never lose each other's readings.
+ *
+ * Readings stored before rollups were maintained are folded in once by a backfill whose range and
+ * progress are kept in {@link IoTRollupBackfill}. The range is fixed before the ingestion pipeline starts,
+ * so live flushes can never make the backfill skip history. While it runs, flushes and backfill pages
+ * lock the progress row, shared and exclusive respectively, so on every instance a reading is folded in
+ * by exactly one of them.
+ */
+@Service
+public class IoTRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(IoTRollupService.class);
+
+    private static final int BACKFILL_PAGE_SIZE = 5000;
+
+    private final IoTSensorRollupRepository rollupRepository;
+    private final IoTSensorDataRepository iotRepository;
+    private final IoTRollupBackfillRepository backfillRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration rawRetention;
+    private final Map<BucketSize, Duration> rollupRetention = new EnumMap<>(BucketSize.class);
+
+    /** Last known backfill progress; once completed it never changes again. */
+    private volatile IoTRollupBackfill backfill;
+
+    public IoTRollupService(IoTSensorRollupRepository rollupRepository,
+                            IoTSensorDataRepository iotRepository,
+                            IoTRollupBackfillRepository backfillRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${iot.retention.raw-days:7}") int rawRetentionDays,
+                            @Value("${iot.retention.minute-rollup-days:30}") int minuteRetentionDays,
+                            @Value("${iot.retention.quarter-hour-rollup-days:180}") int quarterHourRetentionDays,
+                            @Value("${iot.retention.hour-rollup-days:0}") int hourRetentionDays) {
+        this.rollupRepository = rollupRepository;
+        this.iotRepository = iotRepository;
+        this.backfillRepository = backfillRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rawRetention = Duration.ofDays(rawRetentionDays);
+        this.rollupRetention.put(BucketSize.MINUTE_1, Duration.ofDays(minuteRetentionDays));
+        this.rollupRetention.put(BucketSize.MINUTE_15, Duration.ofDays(quarterHourRetentionDays));
+        this.rollupRetention.put(BucketSize.HOUR_1, Duration.ofDays(hourRetentionDays));
+    }
+
+    /**
+     * Folds readings into every bucket size. Must run in the transaction that writes the readings, so
+     * they are stored and counted together or not at all.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void accumulate(List<IoTSensorData> readings) {
+        List<IoTSensorData> live = readings;
+        IoTRollupBackfill progress = backfill;
+        if (progress != null && !progress.isCompleted()) {
+            // Replayed history the backfill has yet to reach is already in the raw table, which it reads
+            progress = backfillRepository.findForShare(IoTRollupBackfill.RAW_READINGS).orElseThrow();
+            backfill = progress;
+            IoTRollupBackfill current = progress;
+            live = readings.stream()
+                    .filter(reading -> !current.isPending(reading.getReceivedAt(), reading.getId()))
+                    .toList();
+        }
+        if (live.isEmpty()) {
+            return;
+        }
+
+        for (BucketSize bucketSize : BucketSize.values()) {
+            accumulate(bucketSize, live);
+        }
+    }
+
+    private void accumulate(BucketSize bucketSize, List<IoTSensorData> readings) {
+        Map<String, IoTSensorRollup> deltas = new HashMap<>();
+        for (IoTSensorData reading : readings) {
+            Instant bucketStart = bucketSize.bucketStartOf(reading.getReceivedAt());
+            deltas.computeIfAbsent(key(reading.getDeviceId(), bucketStart),
+                            k -> new IoTSensorRollup(reading.getDeviceId(), bucketSize, bucketStart))
+                    .add(reading);
+        }
+        rollupRepository.upsert(deltas.values());
+    }
+
+    private String key(String deviceId, Instant bucketStart) {
+        return deviceId + "|" + bucketStart.toEpochMilli();
+    }
+
+    /**
+     * Returns the device history between {@code from} and {@code to} using the finest bucket size that
+     * keeps the result within {@code maxPoints} and is still retained for the whole range. When even hourly
+     * buckets are too many, consecutive hours are merged into wider points, so the response never holds
+     * more than {@code maxPoints} points; its bucket size is then reported as e.g. {@code HOUR_6}.
+     */
+    @Transactional(readOnly = true)
+    public IoTHistoryResponse getHistory(String deviceId, Instant from, Instant to, int maxPoints) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (maxPoints < 1) {
+            throw new IllegalArgumentException("maxPoints must be at least 1");
+        }
+
+        BucketSize bucketSize = selectBucketSize(from, to, maxPoints);
+        Instant start = bucketSize.bucketStartOf(from);
+        List<IoTSensorRollup> rollups = rollupRepository.findRange(deviceId, bucketSize, start, to);
+
+        // Only the coarsest size can be selected without fitting; merge enough of its buckets per point
+        long bucketsPerPoint = Math.max(1, ceilDiv(bucketCount(bucketSize, start, to), maxPoints));
+
+        IoTHistoryResponse response = new IoTHistoryResponse();
+        response.setDeviceId(deviceId);
+        response.setFrom(from);
+        response.setTo(to);
+        if (bucketsPerPoint == 1) {
+            response.setBucketSize(bucketSize.name());
+            response.setPoints(rollups.stream().map(this::toPoint).collect(Collectors.toList()));
+        } else {
+            response.setBucketSize("HOUR_" + bucketsPerPoint * bucketSize.getDuration().toHours());
+            response.setPoints(downsample(deviceId, bucketSize, rollups, start, bucketsPerPoint));
+        }
+        return response;
+    }
+
+    /**
+     * Returns the whole retained history of the device, from its earliest hourly rollup.
+     */
+    @Transactional(readOnly = true)
+    public IoTHistoryResponse getFullHistory(String deviceId, int maxPoints) {
+        Instant to = Instant.now();
+        Instant from = rollupRepository.findEarliestBucketStart(deviceId, BucketSize.HOUR_1);
+        return getHistory(deviceId, from != null ? from : to.minus(BucketSize.HOUR_1.getDuration()), to, maxPoints);
+    }
+
+    BucketSize selectBucketSize(Instant from, Instant to, int maxPoints) {
+        Instant now = Instant.now();
+
+        for (BucketSize bucketSize : BucketSize.values()) {
+            Duration retention = rollupRetention.get(bucketSize);
+            boolean retained = retention.isZero() || !from.isBefore(now.minus(retention));
+
+            if (retained && bucketCount(bucketSize, bucketSize.bucketStartOf(from), to) <= maxPoints) {
+                return bucketSize;
+            }
+        }
+        return BucketSize.HOUR_1;
+    }
+
+    /**
+     * Number of buckets a query from {@code start}, a bucket boundary, up to {@code to} can return.
+     */
+    private static long bucketCount(BucketSize bucketSize, Instant start, Instant to) {
+        return ceilDiv(Duration.between(start, to).toMillis(), bucketSize.getDuration().toMillis());
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    /**
+     * Merges every {@code bucketsPerPoint} consecutive buckets, counted from {@code start}, into one point.
+     */
+    private List<IoTHistoryResponse.Point> downsample(String deviceId, BucketSize bucketSize,
+                                                      List<IoTSensorRollup> rollups, Instant start,
+                                                      long bucketsPerPoint) {
+        long windowMillis = bucketSize.getDuration().toMillis() * bucketsPerPoint;
+        Map<Long, IoTSensorRollup> windows = new TreeMap<>();
+        for (IoTSensorRollup rollup : rollups) {
+            long window = Duration.between(start, rollup.getBucketStart()).toMillis() / windowMillis;
+            windows.computeIfAbsent(window, w -> new IoTSensorRollup(deviceId, bucketSize,
+                            start.plusMillis(w * windowMillis)))
+                    .merge(rollup);
+        }
+        return windows.values().stream().map(this::toPoint).collect(Collectors.toList());
+    }
+
+    private IoTHistoryResponse.Point toPoint(IoTSensorRollup rollup) {
+        long count = Math.max(rollup.getSampleCount(), 1);
+
+        IoTHistoryResponse.Point point = new IoTHistoryResponse.Point();
+        point.setBucketStart(rollup.getBucketStart());
+        point.setSampleCount(rollup.getSampleCount());
+        point.setTemperatureMin(rollup.getTemperatureMin());
+        point.setTemperatureAvg(round(rollup.getTemperatureSum() / count));
+        point.setTemperatureMax(rollup.getTemperatureMax());
+        point.setHumidityMin(rollup.getHumidityMin());
+        point.setHumidityAvg(round(rollup.getHumiditySum() / count));
+        point.setHumidityMax(rollup.getHumidityMax());
+        point.setHeatIndexMin(rollup.getHeatIndexMin());
+        point.setHeatIndexAvg(round(rollup.getHeatIndexSum() / count));
+        point.setHeatIndexMax(rollup.getHeatIndexMax());
+        return point;
+    }
+
+    private double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    @Scheduled(cron = "${iot.retention.cron:0 15 * * * *}")
+    public void applyRetention() {
+        Instant now = Instant.now();
+
+        int rawDeleted = transactionTemplate.execute(status ->
+                iotRepository.deleteReceivedBefore(now.minus(rawRetention)));
+
+        int rollupsDeleted = 0;
+        for (Map.Entry<BucketSize, Duration> entry : rollupRetention.entrySet()) {
+            if (entry.getValue().isZero()) {
+                continue;
+            }
+            Instant cutoff = now.minus(entry.getValue());
+            rollupsDeleted += transactionTemplate.execute(status ->
+                    rollupRepository.deleteOlderThan(entry.getKey(), cutoff));
+        }
+
+        log.info("IoT retention applied: {} raw readings and {} rollups removed", rawDeleted, rollupsDeleted);
+    }
+
+    /**
+     * Fixes the backfill range on first start, before the ingestion pipeline can write any rollups.
+     *
+     * Without rollups the range covers every raw reading. If rollups already exist they were built by
+     * live flushes alone, so the whole hours covered by raw readings are dropped and rebuilt from the
+     * raw table, up to the current hour, which live flushes have been keeping.
+     */
+    @PostConstruct
+    public void planBackfill() {
+        IoTRollupBackfill planned;
+        try {
+            planned = transactionTemplate.execute(status -> backfillRepository.findById(IoTRollupBackfill.RAW_READINGS)
+                    .orElseGet(this::createBackfill));
+        } catch (DataIntegrityViolationException e) {
+            // another instance planned it first
+            planned = backfillRepository.findById(IoTRollupBackfill.RAW_READINGS).orElseThrow();
+        }
+
+        backfill = planned;
+    }
+
+    private IoTRollupBackfill createBackfill() {
+        Instant now = Instant.now();
+        Instant earliest = iotRepository.findEarliestReceivedAt();
+
+        IoTRollupBackfill created;
+        if (earliest == null) {
+            created = new IoTRollupBackfill(IoTRollupBackfill.RAW_READINGS, now, now);
+        } else if (rollupRepository.count() == 0) {
+            created = new IoTRollupBackfill(IoTRollupBackfill.RAW_READINGS, earliest, now);
+        } else {
+            Instant from = BucketSize.HOUR_1.bucketStartOf(earliest).plus(BucketSize.HOUR_1.getDuration());
+            Instant cutoff = BucketSize.HOUR_1.bucketStartOf(now);
+            created = new IoTRollupBackfill(IoTRollupBackfill.RAW_READINGS, from, cutoff);
+            if (!created.isCompleted()) {
+                int deleted = rollupRepository.deleteBetween(from, cutoff);
+                log.info("Dropped {} IoT rollups between {} and {} to rebuild them from raw readings", deleted, from, cutoff);
+            }
+        }
+        return backfillRepository.saveAndFlush(created);
+    }
+
+    /**
+     * Folds raw readings in the backfill range into the rollups, one page per transaction. Progress is
+     * saved with each page, so a restart resumes where the previous run stopped.
+     */
+    @Async(AsyncExecutorsConfig.MAINTENANCE_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        IoTRollupBackfill planned = backfill;
+        if (planned == null || planned.isCompleted()) {
+            return;
+        }
+        log.info("Backfilling IoT rollups from raw readings received between {} and {}",
+                planned.getRangeFrom(), planned.getCutoff());
+
+        long processed = 0;
+        // Instances running the backfill at once take turns on the progress row, each continuing from the last page
+        while (true) {
+            BackfillPage page = backfillPage();
+            processed += page.folded();
+            if (page.progress().isCompleted()) {
+                break;
+            }
+        }
+
+        log.info("IoT rollup backfill completed for {} readings", processed);
+    }
+
+    private BackfillPage backfillPage() {
+        BackfillPage page = transactionTemplate.execute(status -> {
+            IoTRollupBackfill current = backfillRepository.findForUpdate(IoTRollupBackfill.RAW_READINGS).orElseThrow();
+            if (current.isCompleted()) {
+                return new BackfillPage(current, 0);
+            }
+
+            PageRequest limit = PageRequest.of(0, BACKFILL_PAGE_SIZE);
+            List<IoTSensorData> readings = current.getResumeReceivedAt() == null
+                    ? iotRepository.findBackfillPage(current.getRangeFrom(), current.getCutoff(), limit)
+                    : iotRepository.findBackfillPageAfter(current.getCutoff(),
+                            current.getResumeReceivedAt(), current.getResumeId(), limit);
+
+            if (!readings.isEmpty()) {
+                for (BucketSize bucketSize : BucketSize.values()) {
+                    accumulate(bucketSize, readings);
+                }
+                IoTSensorData last = readings.get(readings.size() - 1);
+                current.setResumeReceivedAt(last.getReceivedAt());
+                current.setResumeId(last.getId());
+            }
+            if (readings.size() < BACKFILL_PAGE_SIZE) {
+                current.setCompletedAt(Instant.now());
+            }
+            return new BackfillPage(backfillRepository.saveAndFlush(current), readings.size());
+        });
+
+        backfill = page.progress();
+        return page;
+    }
+
+    private record BackfillPage(IoTRollupBackfill progress, int folded) {
+    }
+}
@@ -1,20 +1,26 @@
 package com.example.pantara.service;
 
+import com.example.pantara.config.AsyncExecutorsConfig;
 import com.example.pantara.dto.request.IoTSensorDataRequest;
+import com.example.pantara.dto.response.CursorPage;
+import com.example.pantara.dto.response.IoTHistoryResponse;
 import com.example.pantara.entity.IoTSensorData;
 import com.example.pantara.entity.Notification;
 import com.example.pantara.repository.IoTSensorDataRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Service
@@ -27,55 +33,85 @@ public class IoTService {
 
     private final IoTSensorDataRepository iotRepository;
     private final NotificationService notificationService;
+    private final IoTIngestionPipeline ingestionPipeline;
+    private final StreamingQueryService streamingQueryService;
+    private final IoTRollupService rollupService;
 
     private final Map<String, Instant> lastDeviceActivity = new ConcurrentHashMap<>();
+    private final Map<String, Double> lastDeviceTemperature = new ConcurrentHashMap<>();
 
-    public IoTService(IoTSensorDataRepository iotRepository, NotificationService notificationService) {
+    public IoTService(IoTSensorDataRepository iotRepository,
+                      NotificationService notificationService,
+                      IoTIngestionPipeline ingestionPipeline,
+                      StreamingQueryService streamingQueryService,
+                      IoTRollupService rollupService) {
         this.iotRepository = iotRepository;
         this.notificationService = notificationService;
+        this.ingestionPipeline = ingestionPipeline;
+        this.streamingQueryService = streamingQueryService;
+        this.rollupService = rollupService;
     }
 
-    @Transactional
     public IoTSensorData processSensorData(IoTSensorDataRequest request) {
+        return processSensorData(request, Instant.now());
+    }
+
+    /**
+     * Queues a reading that was taken at {@code receivedAt}, which is earlier than now for readings
+     * a device replays from its own buffer.
+     */
+    public IoTSensorData processSensorData(IoTSensorDataRequest request, Instant receivedAt) {
         IoTSensorData sensorData = new IoTSensorData();
+        sensorData.setId(UUID.randomUUID());
         sensorData.setDeviceId(request.getDevice());
         sensorData.setTemperatureC(request.getTemperatureC());
         sensorData.setHumidityPct(request.getHumidityPct());
         sensorData.setHeatIndexC(request.getHeatIndexC());
         sensorData.setDeviceTimestamp(request.getTimestamp());
+        sensorData.setReceivedAt(receivedAt);
 
-        IoTSensorData savedData = iotRepository.save(sensorData);
+        ingestionPipeline.submit(sensorData);
 
-        lastDeviceActivity.put(request.getDevice(), Instant.now());
+        Instant lastSeen = lastDeviceActivity.merge(request.getDevice(), receivedAt,
+                (previous, current) -> previous.isAfter(current) ? previous : current);
 
-        checkTemperatureChanges(request.getDevice(), request.getTemperatureC());
+        // A replayed reading older than the latest one must not become the temperature baseline
+        if (!lastSeen.isAfter(receivedAt)) {
+            checkTemperatureChanges(request.getDevice(), request.getTemperatureC());
+        }
 
-        log.info("Processed IoT data from device: {} - Temp: {}°C, Humidity: {}%, Heat Index: {}°C",
+        log.debug("Queued IoT data from device: {} - Temp: {}°C, Humidity: {}%, Heat Index: {}°C",
                 request.getDevice(), request.getTemperatureC(), request.getHumidityPct(), request.getHeatIndexC());
 
-        return savedData;
+        return sensorData;
     }
 
     private void checkTemperatureChanges(String deviceId, double currentTemp) {
-        List<IoTSensorData> recentData = iotRepository.findTop2ByDeviceIdOrderByReceivedAtDesc(deviceId);
+        Double previousTemp = lastDeviceTemperature.put(deviceId, currentTemp);
 
-        if (recentData.size() >= 2) {
-            IoTSensorData current = recentData.get(0);
-            IoTSensorData previous = recentData.get(1);
+        if (previousTemp == null) {
+            // First reading seen by this instance; compare against the last persisted one
+            previousTemp = iotRepository.findFirstByDeviceIdOrderByReceivedAtDesc(deviceId)
+                    .map(IoTSensorData::getTemperatureC)
+                    .orElse(null);
+        }
 
-            double tempDifference = current.getTemperatureC() - previous.getTemperatureC();
+        if (previousTemp == null) {
+            return;
+        }
 
-            if (Math.abs(tempDifference) >= TEMPERATURE_CHANGE_THRESHOLD) {
-                if (tempDifference > 0) {
-                    sendTemperatureRiseAlert(deviceId, previous.getTemperatureC(), currentTemp, tempDifference);
-                } else {
-                    sendTemperatureDropAlert(deviceId, previous.getTemperatureC(), currentTemp, Math.abs(tempDifference));
-                }
+        double tempDifference = currentTemp - previousTemp;
+
+        if (Math.abs(tempDifference) >= TEMPERATURE_CHANGE_THRESHOLD) {
+            if (tempDifference > 0) {
+                sendTemperatureRiseAlert(deviceId, previousTemp, currentTemp, tempDifference);
+            } else {
+                sendTemperatureDropAlert(deviceId, previousTemp, currentTemp, Math.abs(tempDifference));
             }
         }
     }
 
-    @Async
+    @Async(AsyncExecutorsConfig.IOT_ALERT_EXECUTOR)
     public void sendTemperatureDropAlert(String deviceId, double previousTemp, double currentTemp, double difference) {
         try {
             String title = "🥶 Penurunan Suhu Drastis Terdeteksi";
@@ -91,7 +127,7 @@ public class IoTService {
         }
     }
 
-    @Async
+    @Async(AsyncExecutorsConfig.IOT_ALERT_EXECUTOR)
     public void sendTemperatureRiseAlert(String deviceId, double previousTemp, double currentTemp, double difference) {
         try {
             String title = "🔥 Kenaikan Suhu Drastis Terdeteksi";
@@ -107,7 +143,7 @@ public class IoTService {
         }
     }
 
-    @Async
+    @Async(AsyncExecutorsConfig.IOT_ALERT_EXECUTOR)
     public void sendDeviceOfflineAlert(String deviceId, Instant lastSeen) {
         try {
             long minutesOffline = ChronoUnit.MINUTES.between(lastSeen, Instant.now());
@@ -147,13 +183,34 @@ public class IoTService {
         }
     }
 
-    public List<IoTSensorData> getDeviceData(String deviceId) {
-        return iotRepository.findByDeviceIdOrderByReceivedAtDesc(deviceId);
+    public IoTHistoryResponse getDeviceData(String deviceId, int maxPoints) {
+        return rollupService.getFullHistory(deviceId, maxPoints);
+    }
+
+    public CursorPage<IoTSensorData> getDeviceDataPage(String deviceId, String cursor, Integer size) {
+        int pageSize = CursorCodec.clampPageSize(size);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<IoTSensorData> data;
+        if (cursor == null || cursor.isEmpty()) {
+            data = iotRepository.findDevicePage(deviceId, limit);
+        } else {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            data = iotRepository.findDevicePageBefore(deviceId,
+                    CursorCodec.instantOrNull(parts[0]), CursorCodec.uuid(parts[1]), limit);
+        }
+
+        return CursorCodec.toPage(data, pageSize, reading -> reading,
+                reading -> CursorCodec.encode(reading.getReceivedAt(), reading.getId()));
+    }
+
+    public StreamingResponseBody streamDeviceData(String deviceId) {
+        return streamingQueryService.streamJsonArray(() -> iotRepository.streamByDevice(deviceId), reading -> reading);
     }
 
-    public List<IoTSensorData> getRecentDeviceData(String deviceId, int hours) {
-        Instant since = Instant.now().minus(hours, ChronoUnit.HOURS);
-        return iotRepository.findByDeviceIdAndReceivedAtAfter(deviceId, since);
+    public IoTHistoryResponse getRecentDeviceData(String deviceId, int hours, int maxPoints) {
+        Instant now = Instant.now();
+        return rollupService.getHistory(deviceId, now.minus(hours, ChronoUnit.HOURS), now, maxPoints);
     }
 
     public List<String> getAllDeviceIds() {
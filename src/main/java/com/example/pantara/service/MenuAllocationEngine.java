@@ -0,0 +1,264 @@
+package com.example.pantara.service;
+
+import com.example.pantara.constants.BusinessConstants;
+import com.example.pantara.dto.request.ProductionPlanRequest;
+import com.example.pantara.dto.response.FifoPickingRecommendationResponse;
+import com.example.pantara.dto.response.PickingInstructionDto;
+import com.example.pantara.dto.response.ProductionPlanResponse;
+import com.example.pantara.entity.Batch;
+import com.example.pantara.entity.BatchUsageHistory;
+import com.example.pantara.entity.Menu;
+import com.example.pantara.entity.MenuIngredient;
+import com.example.pantara.entity.User;
+import com.example.pantara.event.BatchChangedEvent;
+import com.example.pantara.exception.ResourceNotFoundException;
+import com.example.pantara.repository.BatchRepository;
+import com.example.pantara.repository.MenuRepository;
+import com.example.pantara.repository.projection.StockAllocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Takes the ingredients of a cooked menu from stock following FIFO, and plans production of several menus.
+ *
+ * The candidate batches of all ingredients are loaded with one query and allocated in memory, oldest entry
+ * first. The decrements and the usage history rows are then written as two JDBC batches; each decrement is
+ * conditional, so if a batch was used concurrently the whole menu is rolled back instead of overdrawing it.
+ * The touched batches are read back with one query for the change event, so it carries the stored weights
+ * even when another decrement landed between loading and writing. Low stock is evaluated from the loaded data.
+ *
+ * A production plan sums the demand per ingredient over all its menus and runs the same allocation once
+ * per ingredient over one inventory snapshot, so menus sharing an ingredient never get the same stock.
+ */
+@Service
+public class MenuAllocationEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(MenuAllocationEngine.class);
+
+    private final BatchRepository batchRepository;
+    private final MenuRepository menuRepository;
+    private final FifoService fifoService;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MenuAllocationEngine(BatchRepository batchRepository,
+                                MenuRepository menuRepository,
+                                FifoService fifoService,
+                                NotificationService notificationService,
+                                ApplicationEventPublisher eventPublisher) {
+        this.batchRepository = batchRepository;
+        this.menuRepository = menuRepository;
+        this.fifoService = fifoService;
+        this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public void allocate(Menu menu, int portionCount, User user, String notes) {
+        Map<String, BigDecimal> needed = new LinkedHashMap<>();
+        addDemand(needed, menu, portionCount);
+        if (needed.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<Batch>> candidates = loadCandidates(needed.keySet());
+        List<StockAllocation> allocations = new ArrayList<>();
+        Map<UUID, Batch> picked = new LinkedHashMap<>();
+        Map<String, BigDecimal> remainingStock = new LinkedHashMap<>();
+
+        for (Map.Entry<String, BigDecimal> entry : needed.entrySet()) {
+            String ingredientName = entry.getKey();
+            IngredientAllocation allocation = allocateFifo(candidates.getOrDefault(ingredientName, List.of()),
+                    entry.getValue());
+            if (allocation.picks().isEmpty()) {
+                throw new IllegalArgumentException("No active batches available for " + ingredientName);
+            }
+            if (allocation.shortage().signum() > 0) {
+                throw new IllegalArgumentException("Insufficient stock of " + ingredientName + ". Need "
+                        + allocation.shortage() + " kg more");
+            }
+
+            for (Pick pick : allocation.picks()) {
+                Batch batch = pick.batch();
+                allocations.add(new StockAllocation(batch.getId(), pick.amount(),
+                        notes + " | FIFO Priority: " + pick.urgencyLevel()));
+                picked.put(batch.getId(), batch);
+
+                log.debug("Allocating {} {} of {} from batch {} (FIFO: {})",
+                        pick.amount(), batch.getUnit(), ingredientName, batch.getBatchCode(), pick.urgencyLevel());
+            }
+            remainingStock.put(ingredientName, allocation.available().subtract(entry.getValue()));
+        }
+
+        List<UUID> failed = batchRepository.applyAllocations(allocations, user.getId(),
+                BatchUsageHistory.UsageType.MENU_COOKING, menu.getName(), portionCount, Instant.now());
+        if (!failed.isEmpty()) {
+            throw new IllegalArgumentException("Stock of batch " + picked.get(failed.get(0)).getBatchCode()
+                    + " changed while processing menu " + menu.getName() + ", please try again");
+        }
+
+        log.info("Menu {} x{} took {} allocations from {} batches", menu.getName(), portionCount,
+                allocations.size(), picked.size());
+        eventPublisher.publishEvent(new BatchChangedEvent(batchRepository.reload(picked.values())));
+
+        remainingStock.forEach((ingredientName, stock) -> {
+            double totalWeight = stock.doubleValue();
+            if (totalWeight < BusinessConstants.StockThresholds.LOW_STOCK_THRESHOLD_KG && totalWeight > 0) {
+                notificationService.sendLowStockNotification(ingredientName, totalWeight);
+            }
+        });
+    }
+
+    /**
+     * Works out whether the given menus can all be produced from current stock, and which batches to pick.
+     * Nothing is taken from stock. Inactive menus are rejected like unknown ones, since they cannot be cooked.
+     */
+    @Transactional(readOnly = true)
+    public ProductionPlanResponse plan(List<ProductionPlanRequest.MenuPortion> portions) {
+        Instant snapshotAt = Instant.now();
+
+        Set<UUID> menuIds = new LinkedHashSet<>();
+        portions.forEach(portion -> menuIds.add(UUID.fromString(portion.getMenuId())));
+        Map<UUID, Menu> menus = new HashMap<>();
+        menuRepository.findAllWithIngredientsByIdIn(menuIds).forEach(menu -> menus.put(menu.getId(), menu));
+
+        Map<String, BigDecimal> needed = new LinkedHashMap<>();
+        Map<String, String> units = new HashMap<>();
+        for (ProductionPlanRequest.MenuPortion portion : portions) {
+            Menu menu = menus.get(UUID.fromString(portion.getMenuId()));
+            if (menu == null) {
+                throw new ResourceNotFoundException("Menu not found: " + portion.getMenuId());
+            }
+            if (!menu.isActive()) {
+                throw new ResourceNotFoundException("Menu is not active: " + menu.getName());
+            }
+            addDemand(needed, menu, portion.getPortionCount());
+            menu.getIngredients().forEach(ingredient ->
+                    units.putIfAbsent(ingredient.getIngredientName(), ingredient.getUnit()));
+        }
+
+        Map<String, List<Batch>> candidates = needed.isEmpty() ? Map.of() : loadCandidates(needed.keySet());
+
+        List<FifoPickingRecommendationResponse> ingredients = new ArrayList<>(needed.size());
+        List<String> shortages = new ArrayList<>();
+        Set<String> shortIngredients = new HashSet<>();
+        for (Map.Entry<String, BigDecimal> entry : needed.entrySet()) {
+            String ingredientName = entry.getKey();
+            String unit = units.get(ingredientName);
+            IngredientAllocation allocation = allocateFifo(candidates.getOrDefault(ingredientName, List.of()),
+                    entry.getValue());
+
+            FifoPickingRecommendationResponse recommendation =
+                    toRecommendation(ingredientName, entry.getValue(), unit, allocation);
+            ingredients.add(recommendation);
+            if (!recommendation.isCanFulfill()) {
+                shortIngredients.add(ingredientName);
+                shortages.add(ingredientName + ": " + allocation.shortage() + " " + unit + " missing");
+            }
+        }
+
+        List<ProductionPlanResponse.MenuPlan> menuPlans = new ArrayList<>(portions.size());
+        for (ProductionPlanRequest.MenuPortion portion : portions) {
+            Menu menu = menus.get(UUID.fromString(portion.getMenuId()));
+            List<String> missing = menu.getIngredients().stream()
+                    .map(MenuIngredient::getIngredientName)
+                    .filter(shortIngredients::contains)
+                    .distinct()
+                    .toList();
+            menuPlans.add(new ProductionPlanResponse.MenuPlan(portion.getMenuId(), menu.getName(),
+                    portion.getPortionCount(), missing.isEmpty(), missing));
+        }
+
+        log.info("Production plan for {} menus needs {} ingredients, {} short", portions.size(),
+                needed.size(), shortages.size());
+        return new ProductionPlanResponse(shortages.isEmpty(), snapshotAt, menuPlans, ingredients, shortages);
+    }
+
+    private static void addDemand(Map<String, BigDecimal> needed, Menu menu, int portionCount) {
+        for (MenuIngredient ingredient : menu.getIngredients()) {
+            needed.merge(ingredient.getIngredientName(),
+                    ingredient.getWeightPerPortion().multiply(BigDecimal.valueOf(portionCount)), BigDecimal::add);
+        }
+    }
+
+    /**
+     * Active batches of the given ingredients, grouped by ingredient and oldest entry first.
+     */
+    private Map<String, List<Batch>> loadCandidates(Collection<String> ingredientNames) {
+        Map<String, List<Batch>> candidates = new HashMap<>();
+        for (Batch batch : batchRepository.findByIngredientNameInAndActiveTrueOrderByEntryDateAsc(ingredientNames)) {
+            candidates.computeIfAbsent(batch.getIngredientName(), k -> new ArrayList<>()).add(batch);
+        }
+        return candidates;
+    }
+
+    /**
+     * Takes {@code needed} from the batches in order. When they hold too little, every batch is picked in
+     * full and the rest is reported as shortage.
+     */
+    private IngredientAllocation allocateFifo(List<Batch> batches, BigDecimal needed) {
+        List<Pick> picks = new ArrayList<>();
+        BigDecimal available = BigDecimal.ZERO;
+        BigDecimal remaining = needed;
+        for (Batch batch : batches) {
+            available = available.add(batch.getWeight());
+            if (remaining.signum() > 0) {
+                BigDecimal toUse = remaining.min(batch.getWeight());
+                picks.add(new Pick(batch, toUse, fifoService.calculateUrgencyLevel(batch)));
+                remaining = remaining.subtract(toUse);
+            }
+        }
+        return new IngredientAllocation(picks, available, remaining.max(BigDecimal.ZERO));
+    }
+
+    private FifoPickingRecommendationResponse toRecommendation(String ingredientName, BigDecimal needed, String unit,
+                                                               IngredientAllocation allocation) {
+        List<PickingInstructionDto> instructions = new ArrayList<>(allocation.picks().size());
+        List<String> warnings = new ArrayList<>();
+        for (Pick pick : allocation.picks()) {
+            Batch batch = pick.batch();
+            PickingInstructionDto instruction = new PickingInstructionDto();
+            instruction.setBatchCode(batch.getBatchCode());
+            instruction.setAmountToUse(pick.amount());
+            instruction.setUnit(batch.getUnit());
+            instruction.setExpiryDate(batch.getExpiryDate());
+            instruction.setUrgencyLevel(pick.urgencyLevel());
+            instruction.setSequence(instructions.size() + 1);
+            instruction.setStorageLocation(batch.getStorageLocation());
+            instruction.setPickingNote(fifoService.generatePickingNote(batch, pick.urgencyLevel()));
+            instructions.add(instruction);
+
+            if ("HIGH".equals(pick.urgencyLevel()) || "CRITICAL".equals(pick.urgencyLevel())) {
+                warnings.add("Batch " + batch.getBatchCode() + " expires soon - use immediately");
+            }
+        }
+
+        boolean canFulfill = allocation.shortage().signum() == 0;
+        String message;
+        if (canFulfill) {
+            message = "FIFO picking instructions generated successfully";
+        } else if (allocation.picks().isEmpty()) {
+            message = "No active batches available";
+            warnings.add("No stock available for " + ingredientName);
+        } else {
+            message = "Insufficient stock. Need " + allocation.shortage() + " " + unit + " more";
+            warnings.add("Stock shortage: " + allocation.shortage() + " " + unit + " missing");
+        }
+
+        return new FifoPickingRecommendationResponse(ingredientName, needed, unit, canFulfill,
+                allocation.available(), allocation.shortage(), message, instructions, warnings);
+    }
+
+    private record Pick(Batch batch, BigDecimal amount, String urgencyLevel) {
+    }
+
+    private record IngredientAllocation(List<Pick> picks, BigDecimal available, BigDecimal shortage) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.pantara.service;
+
+import com.example.pantara.dto.response.MenuIngredientResponse;
+import com.example.pantara.dto.response.MenuResponse;
+import com.example.pantara.entity.Menu;
+import com.example.pantara.entity.MenuIngredient;
+import com.example.pantara.event.MenuChangedEvent;
+import com.example.pantara.repository.MenuRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of all menus with their ingredients, indexed by id, category and ingredient name.
+ *
+ * Menus and ingredients are loaded with a single fetch join on startup and kept as an immutable snapshot,
+ * so reads never touch the database. Any menu write publishes a {@link MenuChangedEvent}; the snapshot is
+ * dropped after commit and reloaded once by the first read, while concurrent readers wait for that load.
+ * A periodic refresh picks up writes from other replicas. The response DTOs are mutable, so every read
+ * hands out copies and callers can never change the shared snapshot.
+ */
+@Component
+public class MenuCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(MenuCatalog.class);
+
+    private static final Comparator<String> CATEGORY_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final MenuRepository menuRepository;
+
+    /** Bumped on every menu write, so a reload that raced with a write is not kept. */
+    private final AtomicLong changes = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public MenuCatalog(MenuRepository menuRepository) {
+        this.menuRepository = menuRepository;
+    }
+
+    public List<MenuResponse> getActiveMenus() {
+        return copyOf(current().activeMenus);
+    }
+
+    public Optional<MenuResponse> getMenu(UUID menuId) {
+        return Optional.ofNullable(current().menusById.get(menuId)).map(MenuCatalog::copyOf);
+    }
+
+    public List<String> getActiveCategories() {
+        return new ArrayList<>(current().categories);
+    }
+
+    public List<MenuResponse> getActiveMenusByCategory(String category) {
+        return copyOf(current().menusByCategory.getOrDefault(category, List.of()));
+    }
+
+    public List<MenuResponse> getActiveMenusByIngredient(String ingredientName) {
+        return copyOf(current().menusByIngredient.getOrDefault(ingredientName, List.of()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        load(true);
+    }
+
+    @Scheduled(fixedDelayString = "${menu.catalog.refresh-interval-ms:3600000}",
+            initialDelayString = "${menu.catalog.refresh-interval-ms:3600000}")
+    public void refresh() {
+        load(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        changes.incrementAndGet();
+        snapshot = null;
+    }
+
+    /**
+     * Loads a new snapshot. Unless {@code force} is set, a snapshot loaded by another thread while this one
+     * waited for the lock is returned instead, so a burst of reads after an invalidation loads only once.
+     */
+    private synchronized Snapshot load(boolean force) {
+        Snapshot current = snapshot;
+        if (!force && current != null) {
+            return current;
+        }
+
+        long seen = changes.get();
+        List<Menu> menus = menuRepository.findAllWithIngredients();
+
+        Snapshot loaded = new Snapshot(menus.stream().map(MenuCatalog::toResponse).toList());
+        if (changes.get() == seen) {
+            snapshot = loaded;
+        }
+        log.info("Menu catalog loaded with {} menus ({} active)", loaded.menusById.size(), loaded.activeMenus.size());
+        return loaded;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : load(false);
+    }
+
+    private static List<MenuResponse> copyOf(List<MenuResponse> menus) {
+        List<MenuResponse> copies = new ArrayList<>(menus.size());
+        for (MenuResponse menu : menus) {
+            copies.add(copyOf(menu));
+        }
+        return copies;
+    }
+
+    private static MenuResponse copyOf(MenuResponse menu) {
+        List<MenuIngredientResponse> ingredients = new ArrayList<>(menu.getIngredients().size());
+        for (MenuIngredientResponse ingredient : menu.getIngredients()) {
+            ingredients.add(new MenuIngredientResponse(ingredient.getId(), ingredient.getIngredientName(),
+                    ingredient.getWeightPerPortion(), ingredient.getUnit(), ingredient.getNotes()));
+        }
+        return new MenuResponse(menu.getId(), menu.getName(), menu.getDescription(), menu.getCategory(),
+                menu.isActive(), ingredients, menu.getCreatedAt(), menu.getUpdatedAt());
+    }
+
+    private static MenuResponse toResponse(Menu menu) {
+        MenuResponse response = new MenuResponse();
+        response.setId(menu.getId().toString());
+        response.setName(menu.getName());
+        response.setDescription(menu.getDescription());
+        response.setCategory(menu.getCategory());
+        response.setActive(menu.isActive());
+        response.setIngredients(menu.getIngredients().stream()
+                .map(MenuCatalog::toIngredientResponse)
+                .toList());
+        response.setCreatedAt(menu.getCreatedAt());
+        response.setUpdatedAt(menu.getUpdatedAt());
+        return response;
+    }
+
+    private static MenuIngredientResponse toIngredientResponse(MenuIngredient ingredient) {
+        MenuIngredientResponse response = new MenuIngredientResponse();
+        response.setId(ingredient.getId().toString());
+        response.setIngredientName(ingredient.getIngredientName());
+        response.setWeightPerPortion(ingredient.getWeightPerPortion());
+        response.setUnit(ingredient.getUnit());
+        response.setNotes(ingredient.getNotes());
+        return response;
+    }
+
+    private static final class Snapshot {
+        private final Map<UUID, MenuResponse> menusById = new HashMap<>();
+        private final List<MenuResponse> activeMenus;
+        private final List<String> categories;
+        private final Map<String, List<MenuResponse>> menusByCategory = new HashMap<>();
+        private final Map<String, List<MenuResponse>> menusByIngredient = new HashMap<>();
+
+        private Snapshot(List<MenuResponse> menus) {
+            List<MenuResponse> active = new ArrayList<>();
+            Set<String> activeCategories = new TreeSet<>(CATEGORY_ORDER);
+            for (MenuResponse menu : menus) {
+                menusById.put(UUID.fromString(menu.getId()), menu);
+                if (menu.isActive()) {
+                    active.add(menu);
+                    activeCategories.add(menu.getCategory());
+                }
+            }
+            active.sort(Comparator.comparing(MenuResponse::getName));
+
+            for (MenuResponse menu : active) {
+                if (menu.getCategory() != null) {
+                    menusByCategory.computeIfAbsent(menu.getCategory(), k -> new ArrayList<>()).add(menu);
+                }
+                menu.getIngredients().stream()
+                        .map(MenuIngredientResponse::getIngredientName)
+                        .distinct()
+                        .forEach(name -> menusByIngredient.computeIfAbsent(name, k -> new ArrayList<>()).add(menu));
+            }
+
+            this.activeMenus = List.copyOf(active);
+            this.categories = new ArrayList<>(activeCategories);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.pantara.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Merges single-item requests that arrive within a short window into one call of a batch handler.
+ *
+ * A collector thread takes the first pending item, waits up to {@code windowMs} for more (or until
+ * {@code maxBatchSize} items are collected) and hands the batch to a small pool that runs the handler.
+ * At most {@code maxConcurrentCalls} handler calls run at once; while they are all busy, new items keep
+ * queueing and simply end up in a larger next batch. The handler must return one result per item, in order.
+ */
+final class MicroBatcher<T, R> {
+
+    private static final Logger log = LoggerFactory.getLogger(MicroBatcher.class);
+
+    private final String name;
+    private final Function<List<T>, List<R>> handler;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final BlockingQueue<Pending<T, R>> queue = new LinkedBlockingQueue<>();
+    private final Semaphore callSlots;
+    private final ExecutorService callers;
+    private final Thread collector;
+
+    private volatile boolean running = true;
+
+    MicroBatcher(String name, Function<List<T>, List<R>> handler, long windowMs, int maxBatchSize,
+                 int maxConcurrentCalls) {
+        this.name = name;
+        this.handler = handler;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxBatchSize = maxBatchSize;
+        this.callSlots = new Semaphore(maxConcurrentCalls);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.callers = Executors.newFixedThreadPool(maxConcurrentCalls, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.collector = new Thread(this::collect, name + "-collector");
+        this.collector.setDaemon(true);
+        this.collector.start();
+    }
+
+    CompletableFuture<R> submit(T item) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        if (!running) {
+            result.completeExceptionally(new RejectedExecutionException(name + " is shut down"));
+            return result;
+        }
+        queue.add(new Pending<>(item, result));
+        return result;
+    }
+
+    void shutdown() {
+        running = false;
+        collector.interrupt();
+        callers.shutdown();
+
+        List<Pending<T, R>> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        fail(abandoned, new RejectedExecutionException(name + " is shut down"));
+    }
+
+    private void collect() {
+        while (running) {
+            List<Pending<T, R>> batch = new ArrayList<>();
+            try {
+                batch.add(queue.take());
+                callSlots.acquire();
+
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending<T, R> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(batch, new RejectedExecutionException(name + " is shut down"));
+                break;
+            }
+
+            try {
+                callers.execute(() -> {
+                    try {
+                        call(batch);
+                    } finally {
+                        callSlots.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                callSlots.release();
+                fail(batch, e);
+            }
+        }
+    }
+
+    private void call(List<Pending<T, R>> batch) {
+        try {
+            List<T> items = new ArrayList<>(batch.size());
+            batch.forEach(pending -> items.add(pending.item));
+
+            List<R> results = handler.apply(items);
+            if (results == null || results.size() != batch.size()) {
+                throw new IllegalStateException("Expected " + batch.size() + " results but got "
+                        + (results == null ? "none" : results.size()));
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (Exception e) {
+            log.warn("{}: batch of {} items failed: {}", name, batch.size(), e.getMessage());
+            fail(batch, e);
+        }
+    }
+
+    private static <T, R> void fail(List<Pending<T, R>> batch, Exception cause) {
+        batch.forEach(pending -> pending.result.completeExceptionally(cause));
+    }
+
+    private record Pending<T, R>(T item, CompletableFuture<R> result) {
+    }
+}
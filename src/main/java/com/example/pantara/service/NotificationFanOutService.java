@@ -0,0 +1,69 @@
+package com.example.pantara.service;
+
+import com.example.pantara.constants.BusinessConstants;
+import com.example.pantara.entity.Notification;
+import com.example.pantara.repository.NotificationRepository;
+import com.example.pantara.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Delivers a broadcast notification to every user's inbox.
+ *
+ * Only recipient ids are loaded, and the per-user rows are written with JDBC batch inserts
+ * of {@code notifications.fan-out.batch-size}, so a broadcast costs a handful of round-trips
+ * instead of one INSERT per user.
+ */
+@Service
+public class NotificationFanOutService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationFanOutService.class);
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final int batchSize;
+
+    private final DistributionSummary recipients;
+    private final Timer latency;
+
+    public NotificationFanOutService(NotificationRepository notificationRepository,
+                                     UserRepository userRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${notifications.fan-out.batch-size:500}") int batchSize) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.batchSize = batchSize;
+
+        this.recipients = DistributionSummary.builder("pantara.notifications.fanout.recipients")
+                .description("Number of inbox rows written per broadcast notification")
+                .register(meterRegistry);
+        this.latency = Timer.builder("pantara.notifications.fanout.latency")
+                .description("Time taken to write one broadcast notification to all inboxes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the id of the notification written for each recipient, keyed by user id
+     */
+    @Transactional
+    public Map<UUID, UUID> broadcast(Notification template) {
+        return latency.record(() -> {
+            List<UUID> userIds = userRepository.findAllIdsExcludingProvider(BusinessConstants.SystemAccount.PROVIDER);
+            Map<UUID, UUID> notificationIds = notificationRepository.insertForRecipients(template, userIds, batchSize);
+
+            recipients.record(notificationIds.size());
+            log.debug("Broadcast {} notification to {} users", template.getType(), notificationIds.size());
+            return notificationIds;
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.pantara.service;
 
+import com.example.pantara.config.AsyncExecutorsConfig;
 import com.example.pantara.constants.BusinessConstants;
 import com.example.pantara.entity.Batch;
 import com.example.pantara.entity.Notification;
@@ -10,10 +11,11 @@ import com.example.pantara.dto.response.MessageResponse;
 import com.example.pantara.exception.ResourceNotFoundException;
 import com.example.pantara.repository.NotificationRepository;
 import com.example.pantara.repository.UserRepository;
-import com.google.firebase.messaging.*;
+import com.example.pantara.service.push.DeviceTokenRegistry;
+import com.example.pantara.service.push.PushDispatcher;
+import com.example.pantara.service.push.PushMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -34,16 +36,20 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
-    private final FirebaseMessaging firebaseMessaging;
-
-    private final Map<String, Set<String>> userDeviceTokens = new HashMap<>();
+    private final NotificationFanOutService notificationFanOutService;
+    private final PushDispatcher pushDispatcher;
+    private final DeviceTokenRegistry deviceTokenRegistry;
 
     public NotificationService(NotificationRepository notificationRepository,
                                UserRepository userRepository,
-                               @Autowired(required = false) FirebaseMessaging firebaseMessaging) {
+                               NotificationFanOutService notificationFanOutService,
+                               PushDispatcher pushDispatcher,
+                               DeviceTokenRegistry deviceTokenRegistry) {
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
-        this.firebaseMessaging = firebaseMessaging;
+        this.notificationFanOutService = notificationFanOutService;
+        this.pushDispatcher = pushDispatcher;
+        this.deviceTokenRegistry = deviceTokenRegistry;
     }
 
     public Page<NotificationResponse> getUserNotifications(String userId, int page, int size) {
@@ -120,49 +126,37 @@ public class NotificationService {
     }
 
     public MessageResponse registerDeviceToken(String userId, String deviceToken) {
-        userDeviceTokens.computeIfAbsent(userId, k -> new HashSet<>()).add(deviceToken);
+        deviceTokenRegistry.register(UUID.fromString(userId), deviceToken);
         log.info("Registered device token for user: {}", userId);
         return new MessageResponse("Device token registered successfully");
     }
 
     public MessageResponse unregisterDeviceToken(String userId, String deviceToken) {
-        Set<String> tokens = userDeviceTokens.get(userId);
-        if (tokens != null) {
-            tokens.remove(deviceToken);
-            if (tokens.isEmpty()) {
-                userDeviceTokens.remove(userId);
-            }
-        }
+        deviceTokenRegistry.unregister(UUID.fromString(userId), deviceToken);
         log.info("Unregistered device token for user: {}", userId);
         return new MessageResponse("Device token unregistered successfully");
     }
 
-    @Async
+    @Async(AsyncExecutorsConfig.NOTIFICATION_EXECUTOR)
     public void sendBatchCreatedNotification(Batch batch) {
         try {
-            List<User> users = userRepository.findAll();
-
-            for (User user : users) {
-                Notification notification = createNotification(
-                        user,
-                        "📦 Batch Baru Ditambahkan",
-                        "Batch %s untuk %s telah berhasil ditambahkan ke inventory".formatted(
-                                batch.getBatchCode(), batch.getIngredientName()),
-                        Notification.NotificationType.BATCH_CREATED,
-                        Notification.NotificationPriority.LOW,
-                        batch.getBatchCode(),
-                        "BATCH",
-                        false
-                );
-
-                notificationRepository.save(notification);
-            }
+            broadcast(createNotification(
+                    null,
+                    "📦 Batch Baru Ditambahkan",
+                    "Batch %s untuk %s telah berhasil ditambahkan ke inventory".formatted(
+                            batch.getBatchCode(), batch.getIngredientName()),
+                    Notification.NotificationType.BATCH_CREATED,
+                    Notification.NotificationPriority.LOW,
+                    batch.getBatchCode(),
+                    "BATCH",
+                    false
+            ));
         } catch (Exception e) {
             log.error("Failed to send batch created notification", e);
         }
     }
 
-    @Async
+    @Async(AsyncExecutorsConfig.NOTIFICATION_EXECUTOR)
     public void sendFreshnessStatusAlert(Batch batch, Batch.FreshnessStatus oldStatus, Batch.FreshnessStatus newStatus) {
         try {
             String emoji = switch (newStatus) {
@@ -181,114 +175,84 @@ public class NotificationService {
             Notification.NotificationPriority priority = newStatus == Batch.FreshnessStatus.RED ?
                     Notification.NotificationPriority.HIGH : Notification.NotificationPriority.MEDIUM;
 
-            List<User> users = userRepository.findAll();
-
-            for (User user : users) {
-                Notification notification = createNotification(
-                        user,
-                        emoji + " Status Kesegaran Berubah",
-                        "Batch %s (%s) berubah dari %s ke %s - %s".formatted(
-                                batch.getBatchCode(), batch.getIngredientName(), oldStatus, newStatus, statusName),
-                        Notification.NotificationType.FRESHNESS_CHANGED,
-                        priority,
-                        batch.getBatchCode(),
-                        "BATCH",
-                        sendFirebase
-                );
-
-                notificationRepository.save(notification);
-
-                if (sendFirebase) {
-                    sendFirebaseNotification(user, notification);
-                }
-            }
+            broadcast(createNotification(
+                    null,
+                    emoji + " Status Kesegaran Berubah",
+                    "Batch %s (%s) berubah dari %s ke %s - %s".formatted(
+                            batch.getBatchCode(), batch.getIngredientName(), oldStatus, newStatus, statusName),
+                    Notification.NotificationType.FRESHNESS_CHANGED,
+                    priority,
+                    batch.getBatchCode(),
+                    "BATCH",
+                    sendFirebase
+            ));
         } catch (Exception e) {
             log.error("Failed to send freshness status alert", e);
         }
     }
 
-    @Async
+    @Async(AsyncExecutorsConfig.NOTIFICATION_EXECUTOR)
     public void sendLowStockNotification(String ingredientName, double totalWeight) {
         try {
-            List<User> users = userRepository.findAll();
-
-            for (User user : users) {
-                Notification notification = createNotification(
-                        user,
-                        "📉 Stok Rendah",
-                        "Stok %s hampir habis. Tersisa %.2f kg. Pertimbangkan untuk menambah stok.".formatted(
-                                ingredientName, totalWeight),
-                        Notification.NotificationType.LOW_STOCK,
-                        Notification.NotificationPriority.MEDIUM,
-                        ingredientName,
-                        "INGREDIENT",
-                        true
-                );
-
-                notificationRepository.save(notification);
-                sendFirebaseNotification(user, notification);
-            }
+            broadcast(createNotification(
+                    null,
+                    "📉 Stok Rendah",
+                    "Stok %s hampir habis. Tersisa %.2f kg. Pertimbangkan untuk menambah stok.".formatted(
+                            ingredientName, totalWeight),
+                    Notification.NotificationType.LOW_STOCK,
+                    Notification.NotificationPriority.MEDIUM,
+                    ingredientName,
+                    "INGREDIENT",
+                    true
+            ));
         } catch (Exception e) {
             log.error("Failed to send low stock notification", e);
         }
     }
 
-    @Async
+    @Async(AsyncExecutorsConfig.NOTIFICATION_EXECUTOR)
     public void sendExpiryAlert(Batch batch, int daysUntilExpiry) {
         try {
             String urgency = daysUntilExpiry <= 1 ? "HARI INI" : "DALAM " + daysUntilExpiry + " HARI";
             Notification.NotificationPriority priority = daysUntilExpiry <= 1 ?
                     Notification.NotificationPriority.CRITICAL : Notification.NotificationPriority.HIGH;
 
-            List<User> users = userRepository.findAll();
-
-            for (User user : users) {
-                Notification notification = createNotification(
-                        user,
-                        "🚨 Peringatan Expired",
-                        "Batch %s (%s) akan expired %s. Gunakan segera!".formatted(
-                                batch.getBatchCode(), batch.getIngredientName(), urgency),
-                        Notification.NotificationType.EXPIRY_ALERT,
-                        priority,
-                        batch.getBatchCode(),
-                        "BATCH",
-                        true
-                );
-
-                notificationRepository.save(notification);
-                sendFirebaseNotification(user, notification);
-            }
+            broadcast(createNotification(
+                    null,
+                    "🚨 Peringatan Expired",
+                    "Batch %s (%s) akan expired %s. Gunakan segera!".formatted(
+                            batch.getBatchCode(), batch.getIngredientName(), urgency),
+                    Notification.NotificationType.EXPIRY_ALERT,
+                    priority,
+                    batch.getBatchCode(),
+                    "BATCH",
+                    true
+            ));
         } catch (Exception e) {
             log.error("Failed to send expiry alert", e);
         }
     }
 
-    @Async
+    @Async(AsyncExecutorsConfig.NOTIFICATION_EXECUTOR)
     public void sendFifoViolationAlert(String ingredientName, String violatingBatch, String shouldUseBatch) {
         try {
-            List<User> users = userRepository.findAll();
-
-            for (User user : users) {
-                Notification notification = createNotification(
-                        user,
-                        "⚠️ Pelanggaran FIFO",
-                        "Batch %s digunakan tetapi batch %s untuk %s seharusnya digunakan lebih dulu. Gunakan prinsip FIFO!".formatted(
-                                violatingBatch, shouldUseBatch, ingredientName),
-                        Notification.NotificationType.FIFO_VIOLATION,
-                        Notification.NotificationPriority.MEDIUM,
-                        ingredientName,
-                        "INGREDIENT",
-                        false
-                );
-
-                notificationRepository.save(notification);
-            }
+            broadcast(createNotification(
+                    null,
+                    "⚠️ Pelanggaran FIFO",
+                    "Batch %s digunakan tetapi batch %s untuk %s seharusnya digunakan lebih dulu. Gunakan prinsip FIFO!".formatted(
+                            violatingBatch, shouldUseBatch, ingredientName),
+                    Notification.NotificationType.FIFO_VIOLATION,
+                    Notification.NotificationPriority.MEDIUM,
+                    ingredientName,
+                    "INGREDIENT",
+                    false
+            ));
         } catch (Exception e) {
             log.error("Failed to send FIFO violation alert", e);
         }
     }
 
-    @Async
+    @Async(AsyncExecutorsConfig.NOTIFICATION_EXECUTOR)
     public void sendAchievementNotification(String userId, String achievementTitle, String achievementDescription) {
         try {
             User user = getUserById(userId);
@@ -305,35 +269,25 @@ public class NotificationService {
             );
 
             notificationRepository.save(notification);
-            sendFirebaseNotification(user, notification);
+            sendFirebaseNotification(user.getId(), notification.getId(), notification);
         } catch (Exception e) {
             log.error("Failed to send achievement notification", e);
         }
     }
 
-    @Async
+    @Async(AsyncExecutorsConfig.IOT_ALERT_EXECUTOR)
     public void sendIoTAlert(String title, String message, String deviceId, String alertType, Notification.NotificationPriority priority) {
         try {
-            List<User> users = userRepository.findAll();
-
-            for (User user : users) {
-                Notification notification = createNotification(
-                        user,
-                        title,
-                        message,
-                        Notification.NotificationType.IOT_ALERT,
-                        priority,
-                        deviceId,
-                        "IOT_DEVICE",
-                        priority == Notification.NotificationPriority.CRITICAL || priority == Notification.NotificationPriority.HIGH
-                );
-
-                notificationRepository.save(notification);
-
-                if (priority == Notification.NotificationPriority.CRITICAL || priority == Notification.NotificationPriority.HIGH) {
-                    sendFirebaseNotification(user, notification);
-                }
-            }
+            broadcast(createNotification(
+                    null,
+                    title,
+                    message,
+                    Notification.NotificationType.IOT_ALERT,
+                    priority,
+                    deviceId,
+                    "IOT_DEVICE",
+                    priority == Notification.NotificationPriority.CRITICAL || priority == Notification.NotificationPriority.HIGH
+            ));
         } catch (Exception e) {
             log.error("Failed to send IoT alert", e);
         }
@@ -350,6 +304,21 @@ public class NotificationService {
         log.info("Cleaned up {} old notifications", deletedCount);
     }
 
+    /**
+     * Writes {@code template} to every user's inbox and pushes it to the devices of users
+     * with registered tokens when the template is marked for Firebase delivery.
+     */
+    private void broadcast(Notification template) {
+        Map<UUID, UUID> notificationIds = notificationFanOutService.broadcast(template);
+
+        if (template.isSentViaFirebase()) {
+            List<PushMessage> messages = new ArrayList<>();
+            deviceTokenRegistry.getTokens(notificationIds.keySet()).forEach((userId, tokens) ->
+                    messages.addAll(pushMessagesFor(tokens, notificationIds.get(userId), template)));
+            pushDispatcher.dispatch(messages, deviceTokenRegistry::prune);
+        }
+    }
+
     private Notification createNotification(User user, String title, String message,
                                             Notification.NotificationType type,
                                             Notification.NotificationPriority priority,
@@ -368,50 +337,24 @@ public class NotificationService {
         return notification;
     }
 
-    @Async
-    protected void sendFirebaseNotification(User user, Notification notification) {
-        if (firebaseMessaging == null) {
-            log.warn("Firebase not configured, skipping Firebase notification");
-            return;
-        }
+    private void sendFirebaseNotification(UUID userId, UUID notificationId, Notification notification) {
+        Set<String> deviceTokens = deviceTokenRegistry.getTokens(userId);
+        pushDispatcher.dispatch(pushMessagesFor(deviceTokens, notificationId, notification), deviceTokenRegistry::prune);
+    }
 
-        try {
-            String userId = user.getId().toString();
-            Set<String> deviceTokens = userDeviceTokens.get(userId);
-
-            if (deviceTokens == null || deviceTokens.isEmpty()) {
-                log.debug("No device tokens found for user: {}", userId);
-                return;
-            }
-
-            for (String deviceToken : deviceTokens) {
-                try {
-                    Message message = Message.builder()
-                            .setToken(deviceToken)
-                            .setNotification(com.google.firebase.messaging.Notification.builder()
-                                    .setTitle(notification.getTitle())
-                                    .setBody(notification.getMessage())
-                                    .build())
-                            .putData("notificationId", notification.getId().toString())
-                            .putData("type", notification.getType().toString())
-                            .putData("priority", notification.getPriority().toString())
-                            .putData("referenceId", notification.getReferenceId() != null ? notification.getReferenceId() : "")
-                            .putData("referenceType", notification.getReferenceType() != null ? notification.getReferenceType() : "")
-                            .build();
-
-                    String response = firebaseMessaging.send(message);
-                    log.debug("Firebase notification sent successfully: {}", response);
-
-                } catch (FirebaseMessagingException e) {
-                    log.error("Failed to send Firebase notification to token: {}", deviceToken, e);
-                    if (e.getErrorCode().equals("INVALID_ARGUMENT") || e.getErrorCode().equals("UNREGISTERED")) {
-                        deviceTokens.remove(deviceToken);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("Failed to send Firebase notification", e);
+    private List<PushMessage> pushMessagesFor(Set<String> deviceTokens, UUID notificationId, Notification notification) {
+        Map<String, String> data = Map.of(
+                "notificationId", notificationId.toString(),
+                "type", notification.getType().toString(),
+                "priority", notification.getPriority().toString(),
+                "referenceId", notification.getReferenceId() != null ? notification.getReferenceId() : "",
+                "referenceType", notification.getReferenceType() != null ? notification.getReferenceType() : "");
+
+        List<PushMessage> messages = new ArrayList<>(deviceTokens.size());
+        for (String deviceToken : deviceTokens) {
+            messages.add(new PushMessage(deviceToken, notification.getTitle(), notification.getMessage(), data));
         }
+        return messages;
     }
 
     private User getUserById(String userId) {
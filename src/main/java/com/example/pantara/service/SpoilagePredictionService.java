@@ -9,6 +9,14 @@ import com.example.pantara.entity.Batch;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,9 +25,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 @Service
 public class SpoilagePredictionService {
@@ -28,6 +44,33 @@ public class SpoilagePredictionService {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final IngredientClassifier ingredientClassifier;
+
+    /**
+     * Predicted shelf life per exact ML feature vector. A pending future doubles as the in-flight marker,
+     * so concurrent misses for the same features wait for one call instead of issuing their own.
+     * Failed calls and unusable responses complete with an exception or {@code null} and are not retained.
+     */
+    private final AsyncCache<PredictionFeatures, Double> predictionCache;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter cacheCoalesced;
+    private final Timer mlLatency;
+    private final DistributionSummary rowsPerCall;
+
+    /**
+     * Merges concurrent single predictions that miss the cache into one multi-row scoring call.
+     */
+    private final MicroBatcher<PredictionFeatures, Double> scoringBatcher;
+    private final int maxRowsPerCall;
+
+    /**
+     * Sends every scoring call to the rule-based fallback while Azure ML keeps failing or answering slowly.
+     */
+    private final CircuitBreaker circuitBreaker;
+    private final Counter circuitRejected;
+    private final long latencyBudgetMs;
+    private final Counter budgetExceeded;
 
     @Value("${azure.ml.endpoint}")
     private String azureMLEndpoint;
@@ -63,11 +106,70 @@ public class SpoilagePredictionService {
         FALLBACK_SHELF_LIFE.put("default", IngredientConstants.DefaultShelfLife.DEFAULT_DAYS);
     }
 
-    public SpoilagePredictionService(RestTemplate restTemplate) {
+    public SpoilagePredictionService(RestTemplate restTemplate,
+                                     MeterRegistry meterRegistry,
+                                     IngredientClassifier ingredientClassifier,
+                                     @Value("${azure.ml.cache.ttl-ms:3600000}") long cacheTtlMs,
+                                     @Value("${azure.ml.cache.max-size:10000}") long cacheMaxSize,
+                                     @Value("${azure.ml.batch.window-ms:5}") long batchWindowMs,
+                                     @Value("${azure.ml.batch.max-rows:100}") int maxRowsPerCall,
+                                     @Value("${azure.ml.batch.max-concurrent-calls:4}") int maxConcurrentCalls,
+                                     @Value("${azure.ml.latency-budget-ms:1500}") long latencyBudgetMs,
+                                     @Value("${azure.ml.circuit.window-size:20}") int circuitWindowSize,
+                                     @Value("${azure.ml.circuit.minimum-calls:10}") int circuitMinimumCalls,
+                                     @Value("${azure.ml.circuit.failure-rate-threshold:50}") double failureRateThreshold,
+                                     @Value("${azure.ml.circuit.slow-call-threshold-ms:3000}") long slowCallThresholdMs,
+                                     @Value("${azure.ml.circuit.slow-call-rate-threshold:80}") double slowCallRateThreshold,
+                                     @Value("${azure.ml.circuit.open-duration-ms:30000}") long circuitOpenDurationMs) {
         this.restTemplate = restTemplate;
         this.objectMapper = new ObjectMapper();
+        this.ingredientClassifier = ingredientClassifier;
+
+        this.predictionCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .maximumSize(cacheMaxSize)
+                .buildAsync();
+        this.cacheHits = meterRegistry.counter("pantara.prediction.cache", "result", "hit");
+        this.cacheMisses = meterRegistry.counter("pantara.prediction.cache", "result", "miss");
+        this.cacheCoalesced = meterRegistry.counter("pantara.prediction.cache", "result", "coalesced");
+        this.mlLatency = Timer.builder("pantara.prediction.ml.latency")
+                .description("Time taken by one call to the Azure ML endpoint")
+                .register(meterRegistry);
+        Gauge.builder("pantara.prediction.cache.size", predictionCache, cache -> cache.synchronous().estimatedSize())
+                .description("Distinct feature vectors with a cached prediction")
+                .register(meterRegistry);
+        this.rowsPerCall = DistributionSummary.builder("pantara.prediction.ml.rows")
+                .description("Feature rows sent in one call to the Azure ML endpoint")
+                .register(meterRegistry);
+
+        this.latencyBudgetMs = latencyBudgetMs;
+        this.budgetExceeded = Counter.builder("pantara.prediction.budget.exceeded")
+                .description("Predictions answered with the fallback because Azure ML exceeded the latency budget")
+                .register(meterRegistry);
+        this.circuitBreaker = new CircuitBreaker("azure-ml", circuitWindowSize, circuitMinimumCalls,
+                failureRateThreshold, slowCallRateThreshold, slowCallThresholdMs, circuitOpenDurationMs);
+        this.circuitRejected = Counter.builder("pantara.prediction.circuit.rejected")
+                .description("Azure ML calls skipped because the circuit was open")
+                .register(meterRegistry);
+        Gauge.builder("pantara.prediction.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Azure ML circuit state: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+
+        this.maxRowsPerCall = maxRowsPerCall;
+        this.scoringBatcher = new MicroBatcher<>("ml-scoring", this::score, batchWindowMs, maxRowsPerCall,
+                maxConcurrentCalls);
     }
 
+    @PreDestroy
+    public void shutdown() {
+        scoringBatcher.shutdown();
+    }
+
+    /**
+     * Predicts the expiry of one batch, waiting at most {@code azure.ml.latency-budget-ms} for Azure ML.
+     * Past the budget the rule-based fallback is returned with {@link PredictionResult#getPendingPrediction()}
+     * set, which completes with the ML prediction once the call finishes.
+     */
     public PredictionResult predictSpoilage(String ingredientName, String storageLocation,
                                             Instant entryDate, Double temperature) {
         log.info("🤖 Starting Azure ML spoilage prediction for: {} in {}", ingredientName, storageLocation);
@@ -83,36 +185,204 @@ public class SpoilagePredictionService {
         }
 
         try {
-            List<Double> predictions = callAzureMLEndpointFixed(ingredientName, storageLocation, entryDate, temperature);
-
-            if (predictions != null && !predictions.isEmpty()) {
-                Double predictedDays = predictions.get(0);
+            CompletableFuture<Double> prediction = predictShelfLifeDays(featuresFor(ingredientName, storageLocation, temperature));
 
-                if (predictedDays != null && predictedDays > 0) {
-                    Instant expiryDate = entryDate.plus(predictedDays.longValue(), ChronoUnit.DAYS);
-                    Batch.FreshnessStatus status = calculateFreshnessStatus(entryDate, expiryDate);
+            Double predictedDays;
+            try {
+                predictedDays = prediction.get(latencyBudgetMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                budgetExceeded.increment();
+                log.warn("Azure ML exceeded the {} ms latency budget, using fallback until it answers", latencyBudgetMs);
+                return getFallbackPrediction(ingredientName, storageLocation, entryDate)
+                        .withPendingPrediction(prediction.thenApply(days -> days != null ? toResult(entryDate, days) : null));
+            }
 
-                    log.info("Azure ML prediction successful: {} days until expiry", predictedDays);
-                    return new PredictionResult(expiryDate, status, predictedDays.intValue());
-                }
+            if (predictedDays != null) {
+                log.info("Azure ML prediction successful: {} days until expiry", predictedDays);
+                return toResult(entryDate, predictedDays);
             }
 
-            log.warn("Azure ML returned invalid response, using fallback");
+            log.debug("No usable Azure ML prediction, using fallback");
             return getFallbackPrediction(ingredientName, storageLocation, entryDate);
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return getFallbackPrediction(ingredientName, storageLocation, entryDate);
         } catch (Exception e) {
-            log.error("Error calling Azure ML endpoint: {}", e.getMessage());
+            Throwable cause = e;
+            while ((cause instanceof ExecutionException || cause instanceof CompletionException) && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            log.error("Error calling Azure ML endpoint: {}", cause.getMessage());
             log.info("Falling back to rule-based prediction");
             return getFallbackPrediction(ingredientName, storageLocation, entryDate);
         }
     }
 
-    private List<Double> callAzureMLEndpointFixed(String ingredientName, String storageLocation,
-                                                  Instant entryDate, Double temperature) throws JsonProcessingException {
+    /**
+     * Requests the ML prediction without waiting for it. The future completes with {@code null} when Azure ML
+     * is not configured, gave no usable prediction or could not be called.
+     */
+    public CompletableFuture<PredictionResult> predictSpoilageAsync(String ingredientName, String storageLocation,
+                                                                    Instant entryDate, Double temperature) {
+        if (!azureMLEnabled || azureMLApiKey == null || azureMLApiKey.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return predictShelfLifeDays(featuresFor(ingredientName, storageLocation, temperature))
+                .thenApply(days -> days != null ? toResult(entryDate, days) : null);
+    }
+
+    /**
+     * Single-vector lookup: served from the cache, joined to an in-flight call, or merged into the next
+     * micro-batch.
+     */
+    private CompletableFuture<Double> predictShelfLifeDays(PredictionFeatures features) {
+        return claimPredictions(List.of(features), owned -> owned.forEach(missed ->
+                scoringBatcher.submit(missed.features()).whenComplete(missed::complete))).get(features);
+    }
+
+    private PredictionResult toResult(Instant entryDate, double predictedDays) {
+        Instant expiryDate = entryDate.plus((long) predictedDays, ChronoUnit.DAYS);
+        return new PredictionResult(expiryDate, calculateFreshnessStatus(entryDate, expiryDate), (int) predictedDays);
+    }
+
+    /**
+     * Predicts every input with as few Azure ML calls as possible: inputs sharing a feature vector share one
+     * prediction, cached vectors are not sent at all, and the rest go out in calls of up to
+     * {@code azure.ml.batch.max-rows} rows. Inputs without a usable prediction get the rule-based fallback.
+     *
+     * @return one result per input, in the same order
+     */
+    public List<PredictionResult> predictSpoilage(List<PredictionInput> inputs) {
+        if (inputs.isEmpty()) {
+            return List.of();
+        }
+        if (!azureMLEnabled || azureMLApiKey == null || azureMLApiKey.trim().isEmpty()) {
+            log.warn("Azure ML is not available, using fallback prediction for {} inputs", inputs.size());
+            return inputs.stream()
+                    .map(input -> getFallbackPrediction(input.ingredientName(), input.storageLocation(), input.entryDate()))
+                    .toList();
+        }
+
+        List<PredictionFeatures> features = new ArrayList<>(inputs.size());
+        for (PredictionInput input : inputs) {
+            features.add(featuresFor(input.ingredientName(), input.storageLocation(), input.temperature()));
+        }
+
+        Map<PredictionFeatures, CompletableFuture<Double>> predictions = claimPredictions(features, owned -> {
+            for (int from = 0; from < owned.size(); from += maxRowsPerCall) {
+                List<MissedPrediction> chunk = owned.subList(from, Math.min(from + maxRowsPerCall, owned.size()));
+                try {
+                    List<Double> scored = score(chunk.stream().map(MissedPrediction::features).toList());
+                    for (int i = 0; i < chunk.size(); i++) {
+                        chunk.get(i).complete(scored.get(i), null);
+                    }
+                } catch (Exception e) {
+                    log.error("Azure ML batch scoring of {} rows failed: {}", chunk.size(), e.getMessage());
+                    chunk.forEach(missed -> missed.complete(null, e));
+                }
+            }
+        });
+
+        List<PredictionResult> results = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            PredictionInput input = inputs.get(i);
+            Double predictedDays = predictions.get(features.get(i)).join();
+
+            if (predictedDays != null) {
+                results.add(toResult(input.entryDate(), predictedDays));
+            } else {
+                results.add(getFallbackPrediction(input.ingredientName(), input.storageLocation(), input.entryDate()));
+            }
+        }
+        log.info("Predicted {} inputs ({} distinct feature vectors)", inputs.size(), predictions.size());
+        return results;
+    }
+
+    /**
+     * Looks up the prediction of every distinct feature vector. Vectors that are neither cached nor already
+     * being predicted are claimed with a pending future and handed to {@code predictMissing}, which must
+     * eventually complete each of them; everyone else asking for those vectors meanwhile waits on that future.
+     */
+    private Map<PredictionFeatures, CompletableFuture<Double>> claimPredictions(
+            Collection<PredictionFeatures> features, Consumer<List<MissedPrediction>> predictMissing) {
+        Map<PredictionFeatures, CompletableFuture<Double>> predictions = new LinkedHashMap<>();
+        List<MissedPrediction> missing = new ArrayList<>();
+
+        for (PredictionFeatures vector : features) {
+            if (predictions.containsKey(vector)) {
+                continue;
+            }
+
+            CompletableFuture<Double> cached = predictionCache.getIfPresent(vector);
+            if (cached == null || !cached.isDone()) {
+                CompletableFuture<Double> claim = new CompletableFuture<>();
+                cached = predictionCache.asMap().putIfAbsent(vector, claim);
+                if (cached == null) {
+                    cacheMisses.increment();
+                    missing.add(new MissedPrediction(vector, claim));
+                    predictions.put(vector, claim);
+                    continue;
+                }
+            }
+            (cached.isDone() ? cacheHits : cacheCoalesced).increment();
+            predictions.put(vector, cached);
+        }
+
+        if (!missing.isEmpty()) {
+            predictMissing.accept(missing);
+        }
+        return predictions;
+    }
+
+    /**
+     * Scores {@code features} in one Azure ML call and returns the predicted shelf life in days per row,
+     * with {@code null} for rows whose prediction is unusable.
+     */
+    private List<Double> score(List<PredictionFeatures> features) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitRejected.increment();
+            throw new RejectedExecutionException("Azure ML circuit is open");
+        }
+
+        rowsPerCall.record(features.size());
+        long start = System.nanoTime();
+        List<Double> predictions;
         try {
-            log.info("Calling Azure ML endpoint: {}", azureMLEndpoint);
+            predictions = callAzureMLEndpointFixed(features);
+            if (predictions == null || predictions.size() != features.size()) {
+                throw new IllegalStateException("Azure ML returned " + (predictions == null ? "no" : predictions.size())
+                        + " predictions for " + features.size() + " rows");
+            }
+        } catch (Exception e) {
+            recordCall(start, true);
+            throw e instanceof RuntimeException runtime ? runtime : new CompletionException(e);
+        }
+        recordCall(start, false);
 
-            AzureMLPredictionRequest request = createCorrectFormatRequest(ingredientName, storageLocation, temperature);
+        List<Double> result = new ArrayList<>(predictions.size());
+        for (Double predictedDays : predictions) {
+            result.add(predictedDays != null && predictedDays > 0 ? predictedDays : null);
+        }
+        return result;
+    }
+
+    private void recordCall(long startNanos, boolean failure) {
+        long duration = System.nanoTime() - startNanos;
+        mlLatency.record(duration, TimeUnit.NANOSECONDS);
+        circuitBreaker.onResult(duration, failure);
+    }
+
+    private PredictionFeatures featuresFor(String ingredientName, String storageLocation, Double temperature) {
+        double suhuPenyimpanan = temperature != null ? temperature : getDefaultTemperature(storageLocation);
+        return new PredictionFeatures(1.0, suhuPenyimpanan, mapToKategoriBahan(ingredientName));
+    }
+
+    private List<Double> callAzureMLEndpointFixed(List<PredictionFeatures> features) throws JsonProcessingException {
+        try {
+            log.info("Calling Azure ML endpoint: {} with {} rows", azureMLEndpoint, features.size());
+
+            AzureMLPredictionRequest request = createCorrectFormatRequest(features);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -186,7 +456,7 @@ public class SpoilagePredictionService {
         }
     }
 
-    private AzureMLPredictionRequest createCorrectFormatRequest(String ingredientName, String storageLocation, Double temperature) {
+    private AzureMLPredictionRequest createCorrectFormatRequest(List<PredictionFeatures> features) {
         AzureMLPredictionRequest request = new AzureMLPredictionRequest();
         AzureMLPredictionRequest.InputData inputData = new AzureMLPredictionRequest.InputData();
 
@@ -196,42 +466,29 @@ public class SpoilagePredictionService {
                 "kategori_bahan"
         );
 
-        double kuantitasMasuk = 1.0;
-        double suhuPenyimpanan = temperature != null ? temperature : getDefaultTemperature(storageLocation);
-        String kategoriBahan = mapToKategoriBahan(ingredientName);
-
-        List<Object> dataRow = Arrays.asList(kuantitasMasuk, suhuPenyimpanan, kategoriBahan);
+        List<Integer> index = new ArrayList<>(features.size());
+        List<List<Object>> data = new ArrayList<>(features.size());
+        for (PredictionFeatures row : features) {
+            index.add(index.size());
+            data.add(Arrays.asList(row.kuantitasMasuk(), row.suhuPenyimpanan(), row.kategoriBahan()));
+        }
 
         inputData.setColumns(columns);
-        inputData.setIndex(Arrays.asList(0));
-        inputData.setData(Arrays.asList(dataRow));
+        inputData.setIndex(index);
+        inputData.setData(data);
 
         request.setInputData(inputData);
 
-        log.info("Azure ML request created:");
-        log.info("Kuantitas Masuk: {}", kuantitasMasuk);
-        log.info("Suhu Penyimpanan: {}°C", suhuPenyimpanan);
-        log.info("Kategori Bahan: {}", kategoriBahan);
+        log.info("Azure ML request created with {} rows", data.size());
+        log.debug("Rows (kuantitas_masuk, suhu_penyimpanan, kategori_bahan): {}", data);
 
         return request;
     }
 
     private String mapToKategoriBahan(String ingredientName) {
-        String lower = ingredientName.toLowerCase();
-
-        if (lower.matches(".*(tomat|bayam|kangkung|sawi|wortel|kentang|bawang|timun|kubis|terong).*")) {
-            return "Sayuran";
-        } else if (lower.matches(".*(pisang|apel|jeruk|mangga|pepaya|semangka|melon|anggur).*")) {
-            return "Buah";
-        } else if (lower.matches(".*(ayam|daging|ikan|udang|telur).*")) {
-            return "Protein Hewani";
-        } else if (lower.matches(".*(tahu|tempe|kacang).*")) {
-            return "Protein Nabati";
-        } else if (lower.matches(".*(beras|tepung|mie|roti).*")) {
-            return "Karbohidrat";
-        } else {
-            return "Sayuran";
-        }
+        return ingredientClassifier.classify(ingredientName)
+                .map(IngredientClassifier.IngredientGroup::getMlLabel)
+                .orElse("Sayuran");
     }
 
     private Double getDefaultTemperature(String storageLocation) {
@@ -248,7 +505,7 @@ public class SpoilagePredictionService {
         };
     }
 
-    private PredictionResult getFallbackPrediction(String ingredientName, String storageLocation, Instant entryDate) {
+    public PredictionResult getFallbackPrediction(String ingredientName, String storageLocation, Instant entryDate) {
         log.info("Using fallback prediction for: {}", ingredientName);
 
         String normalizedName = ingredientName.toLowerCase().trim();
@@ -281,8 +538,10 @@ public class SpoilagePredictionService {
     }
 
     public Batch.FreshnessStatus calculateFreshnessStatus(Instant entryDate, Instant expiryDate) {
-        Instant now = Instant.now();
+        return calculateFreshnessStatus(entryDate, expiryDate, Instant.now());
+    }
 
+    public Batch.FreshnessStatus calculateFreshnessStatus(Instant entryDate, Instant expiryDate, Instant now) {
         if (expiryDate.isBefore(now)) {
             return Batch.FreshnessStatus.RED;
         }
@@ -305,6 +564,37 @@ public class SpoilagePredictionService {
         }
     }
 
+    /**
+     * Returns the first instant after {@code now} at which {@link #calculateFreshnessStatus} yields a different
+     * status, or {@code null} once the batch is already RED.
+     *
+     * The status only depends on whole days remaining, so it can only change just after {@code expiryDate}
+     * minus a whole number of days; the first such instant past the current status threshold is returned.
+     */
+    public Instant nextFreshnessTransition(Instant entryDate, Instant expiryDate, Instant now) {
+        Batch.FreshnessStatus current = calculateFreshnessStatus(entryDate, expiryDate, now);
+        if (current == Batch.FreshnessStatus.RED) {
+            return null;
+        }
+
+        long totalShelfLife = ChronoUnit.DAYS.between(entryDate, expiryDate);
+        double threshold = current == Batch.FreshnessStatus.GREEN
+                ? BusinessConstants.FreshnessPeriods.GREEN_FRESHNESS_THRESHOLD
+                : BusinessConstants.FreshnessPeriods.YELLOW_FRESHNESS_THRESHOLD;
+
+        // Largest number of remaining days that no longer clears the threshold
+        long remainingDays = (long) Math.floor(threshold * totalShelfLife);
+        while (remainingDays > 0 && (double) remainingDays / totalShelfLife > threshold) {
+            remainingDays--;
+        }
+        while ((double) (remainingDays + 1) / totalShelfLife <= threshold) {
+            remainingDays++;
+        }
+
+        Instant transition = expiryDate.minus(remainingDays + 1, ChronoUnit.DAYS).plusMillis(1);
+        return transition.isAfter(now) ? transition : now;
+    }
+
     public void updateFreshnessStatus(Batch batch) {
         if (batch.getExpiryDate() != null) {
             Batch.FreshnessStatus newStatus = calculateFreshnessStatus(batch.getEntryDate(), batch.getExpiryDate());
@@ -321,7 +611,7 @@ public class SpoilagePredictionService {
         try {
             log.info("Testing Azure ML connection...");
 
-            List<Double> predictions = callAzureMLEndpointFixed("tomat", "kulkas", Instant.now(), 4.0);
+            List<Double> predictions = callAzureMLEndpointFixed(List.of(featuresFor("tomat", "kulkas", 4.0)));
 
             boolean isHealthy = predictions != null && !predictions.isEmpty();
 
@@ -363,15 +653,44 @@ public class SpoilagePredictionService {
         return status;
     }
 
+    public record PredictionInput(String ingredientName, String storageLocation, Instant entryDate, Double temperature) {
+    }
+
+    /**
+     * The exact inputs sent to Azure ML, in the order of its feature columns.
+     */
+    private record PredictionFeatures(double kuantitasMasuk, double suhuPenyimpanan, String kategoriBahan) {
+    }
+
+    /**
+     * A failed call completes the claim with {@code null}, i.e. "use the fallback", rather than exceptionally:
+     * the failure is already logged once for the whole batch, while an exceptional claim would make Caffeine log
+     * a stack trace for every feature vector in it. Null-valued entries are dropped all the same, so the next
+     * request for the vector calls Azure ML again.
+     */
+    private record MissedPrediction(PredictionFeatures features, CompletableFuture<Double> claim) {
+
+        private void complete(Double predictedDays, Throwable failure) {
+            claim.complete(failure != null ? null : predictedDays);
+        }
+    }
+
     public static class PredictionResult {
         private final Instant expiryDate;
         private final Batch.FreshnessStatus freshnessStatus;
         private final int estimatedShelfLifeDays;
+        private final CompletableFuture<PredictionResult> pendingPrediction;
 
         public PredictionResult(Instant expiryDate, Batch.FreshnessStatus freshnessStatus, int estimatedShelfLifeDays) {
+            this(expiryDate, freshnessStatus, estimatedShelfLifeDays, null);
+        }
+
+        private PredictionResult(Instant expiryDate, Batch.FreshnessStatus freshnessStatus, int estimatedShelfLifeDays,
+                                 CompletableFuture<PredictionResult> pendingPrediction) {
             this.expiryDate = expiryDate;
             this.freshnessStatus = freshnessStatus;
             this.estimatedShelfLifeDays = estimatedShelfLifeDays;
+            this.pendingPrediction = pendingPrediction;
         }
 
         public Instant getExpiryDate() {
@@ -385,5 +704,17 @@ public class SpoilagePredictionService {
         public int getEstimatedShelfLifeDays() {
             return estimatedShelfLifeDays;
         }
+
+        /**
+         * For a fallback returned because Azure ML exceeded the latency budget: completes with the ML
+         * prediction once it arrives, or with {@code null} if it turned out unusable. {@code null} otherwise.
+         */
+        public CompletableFuture<PredictionResult> getPendingPrediction() {
+            return pendingPrediction;
+        }
+
+        private PredictionResult withPendingPrediction(CompletableFuture<PredictionResult> pendingPrediction) {
+            return new PredictionResult(expiryDate, freshnessStatus, estimatedShelfLifeDays, pendingPrediction);
+        }
     }
 }
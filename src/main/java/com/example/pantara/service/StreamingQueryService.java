@@ -0,0 +1,86 @@
+package com.example.pantara.service;
+
+import com.example.pantara.constants.BusinessConstants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Consumes query results while they are being read from the database.
+ *
+ * The query runs in a read-only transaction so the JDBC driver can use a server-side cursor,
+ * and the persistence context is cleared periodically, keeping heap use flat regardless of
+ * how many rows are returned.
+ */
+@Service
+public class StreamingQueryService {
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter itemWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public StreamingQueryService(EntityManager entityManager,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.itemWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @FunctionalInterface
+    public interface RowHandler<E> {
+        void handle(E row) throws IOException;
+    }
+
+    /**
+     * Runs {@code query} and passes every row to {@code handler}. If {@code flushTarget} is given
+     * it is flushed each time the persistence context is cleared.
+     */
+    public <E> void forEach(Supplier<Stream<E>> query, RowHandler<E> handler, Flushable flushTarget) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<E> rows = query.get()) {
+                int processed = 0;
+                Iterator<E> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    handler.handle(iterator.next());
+
+                    if (++processed % BusinessConstants.PaginationDefaults.STREAM_CLEAR_INTERVAL == 0) {
+                        entityManager.clear();
+                        if (flushTarget != null) {
+                            flushTarget.flush();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public <E, R> StreamingResponseBody streamJsonArray(Supplier<Stream<E>> query, Function<E, R> mapper) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                forEach(query, row -> itemWriter.writeValue(generator, mapper.apply(row)), null);
+                generator.writeEndArray();
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.pantara.service;
+
+import com.example.pantara.constants.BusinessConstants;
+import com.example.pantara.entity.User;
+import com.example.pantara.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Owns the disabled account that background jobs record their changes under,
+ * e.g. usage history written when expired batches are cleaned up.
+ */
+@Service
+public class SystemAccountService {
+
+    private static final Logger log = LoggerFactory.getLogger(SystemAccountService.class);
+
+    private final UserRepository userRepository;
+
+    private volatile UUID systemUserId;
+
+    public SystemAccountService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Transactional
+    public UUID getSystemUserId() {
+        UUID id = systemUserId;
+        if (id == null) {
+            id = userRepository.findByProviderAndProviderId(
+                            BusinessConstants.SystemAccount.PROVIDER, BusinessConstants.SystemAccount.PROVIDER_ID)
+                    .or(this::findLegacySystemUser)
+                    .orElseGet(this::createSystemUser)
+                    .getId();
+            systemUserId = id;
+        }
+        return id;
+    }
+
+    /**
+     * Accounts created before the provider id was set are still recognised by their provider, which
+     * neither registration nor OAuth2 login can produce; the username alone is not trusted.
+     */
+    private Optional<User> findLegacySystemUser() {
+        return userRepository.findByUsername(BusinessConstants.SystemAccount.USERNAME)
+                .filter(user -> BusinessConstants.SystemAccount.PROVIDER.equals(user.getProvider()))
+                .map(user -> {
+                    user.setProviderId(BusinessConstants.SystemAccount.PROVIDER_ID);
+                    return user;
+                });
+    }
+
+    private User createSystemUser() {
+        String username = BusinessConstants.SystemAccount.USERNAME;
+        String email = BusinessConstants.SystemAccount.EMAIL;
+        if (userRepository.existsByUsername(username) || userRepository.existsByEmail(email)) {
+            // taken by a user who registered before the name was reserved
+            String suffix = UUID.randomUUID().toString().substring(0, 8);
+            log.warn("System account name {} is taken by a user account, using suffix {}", username, suffix);
+            username = username + "-" + suffix;
+            email = email.replace("@", "+" + suffix + "@");
+        }
+
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setProvider(BusinessConstants.SystemAccount.PROVIDER);
+        user.setProviderId(BusinessConstants.SystemAccount.PROVIDER_ID);
+        user.setEnabled(false);
+        user.setPassword("");
+
+        log.info("Creating system account {}", username);
+        return userRepository.save(user);
+    }
+}
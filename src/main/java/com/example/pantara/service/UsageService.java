@@ -1,21 +1,25 @@
 package com.example.pantara.service;
 
 import com.example.pantara.dto.request.UsageRecordRequest;
+import com.example.pantara.dto.response.CursorPage;
 import com.example.pantara.dto.response.MessageResponse;
 import com.example.pantara.dto.response.UsageHistoryResponse;
 import com.example.pantara.entity.Batch;
 import com.example.pantara.entity.BatchUsageHistory;
 import com.example.pantara.entity.User;
+import com.example.pantara.event.BatchChangedEvent;
 import com.example.pantara.exception.ResourceNotFoundException;
 import com.example.pantara.repository.BatchRepository;
 import com.example.pantara.repository.BatchUsageHistoryRepository;
 import com.example.pantara.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -30,15 +34,21 @@ public class UsageService {
     private final BatchUsageHistoryRepository usageHistoryRepository;
     private final UserRepository userRepository;
     private final UserLookupService userLookupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StreamingQueryService streamingQueryService;
 
     public UsageService(BatchRepository batchRepository,
                         BatchUsageHistoryRepository usageHistoryRepository,
                         UserRepository userRepository,
-                        UserLookupService userLookupService) {
+                        UserLookupService userLookupService,
+                        ApplicationEventPublisher eventPublisher,
+                        StreamingQueryService streamingQueryService) {
         this.batchRepository = batchRepository;
         this.usageHistoryRepository = usageHistoryRepository;
         this.userRepository = userRepository;
         this.userLookupService = userLookupService;
+        this.eventPublisher = eventPublisher;
+        this.streamingQueryService = streamingQueryService;
     }
 
     @Transactional
@@ -54,18 +64,14 @@ public class UsageService {
             throw new IllegalArgumentException("Batch is not active");
         }
 
-        if (batch.getWeight().compareTo(request.getUsedWeight()) < 0) {
+        if (!batchRepository.decrementWeight(batch, request.getUsedWeight())) {
+            if (!batch.isActive()) {
+                throw new IllegalArgumentException("Batch is not active");
+            }
             throw new IllegalArgumentException("Insufficient stock. Available: " + batch.getWeight() + " " + batch.getUnit());
         }
 
-        BigDecimal newWeight = batch.getWeight().subtract(request.getUsedWeight());
-        batch.setWeight(newWeight);
-
-        if (newWeight.compareTo(BigDecimal.ZERO) == 0) {
-            batch.setActive(false);
-        }
-
-        batchRepository.save(batch);
+        eventPublisher.publishEvent(BatchChangedEvent.of(batch));
 
         BatchUsageHistory usage = new BatchUsageHistory();
         usage.setBatch(batch);
@@ -99,6 +105,31 @@ public class UsageService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<UsageHistoryResponse> getUsageHistoryPage(Instant startDate, Instant endDate,
+                                                                String cursor, Integer size) {
+        int pageSize = CursorCodec.clampPageSize(size);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<BatchUsageHistory> history;
+        if (cursor == null || cursor.isEmpty()) {
+            history = usageHistoryRepository.findPageByUsageDateBetween(startDate, endDate, limit);
+        } else {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            history = usageHistoryRepository.findPageByUsageDateBetweenBefore(startDate, endDate,
+                    CursorCodec.instantOrNull(parts[0]), CursorCodec.uuid(parts[1]), limit);
+        }
+
+        return CursorCodec.toPage(history, pageSize, this::convertToUsageHistoryResponse,
+                usage -> CursorCodec.encode(usage.getUsageDate(), usage.getId()));
+    }
+
+    public StreamingResponseBody streamUsageHistory(Instant startDate, Instant endDate) {
+        return streamingQueryService.streamJsonArray(
+                () -> usageHistoryRepository.streamByUsageDateBetween(startDate, endDate),
+                this::convertToUsageHistoryResponse);
+    }
+
     private UsageHistoryResponse convertToUsageHistoryResponse(BatchUsageHistory usage) {
         return new UsageHistoryResponse(
                 usage.getId().toString(),
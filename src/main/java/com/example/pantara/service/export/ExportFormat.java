@@ -0,0 +1,37 @@
+package com.example.pantara.service.export;
+
+import org.springframework.http.MediaType;
+
+public enum ExportFormat {
+    CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8")),
+    XLSX("xlsx", MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Accepts {@code csv}, {@code xlsx} and the legacy {@code excel} value.
+     */
+    public static ExportFormat fromParameter(String format) {
+        if (format == null || "csv".equalsIgnoreCase(format)) {
+            return CSV;
+        }
+        if ("xlsx".equalsIgnoreCase(format) || "excel".equalsIgnoreCase(format)) {
+            return XLSX;
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + format);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.pantara.service.export;
+
+import com.example.pantara.entity.Batch;
+import com.example.pantara.entity.BatchUsageHistory;
+import com.example.pantara.entity.IoTSensorData;
+import com.example.pantara.repository.BatchRepository;
+import com.example.pantara.repository.BatchUsageHistoryRepository;
+import com.example.pantara.repository.IoTSensorDataRepository;
+import com.example.pantara.service.StreamingQueryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams batches, usage history and IoT telemetry as CSV or XLSX.
+ *
+ * Rows are read from a forward-only JPA stream and written straight to the response,
+ * so memory use does not depend on the number of exported rows.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private static final List<String> BATCH_COLUMNS = List.of(
+            "Batch Code", "Ingredient Name", "Category", "Weight", "Unit", "Source", "Entry Date", "Expiry Date",
+            "Storage Location", "Freshness Status", "Active", "Notes");
+
+    private static final List<String> USAGE_COLUMNS = List.of(
+            "Usage Date", "Batch Code", "Ingredient Name", "Used Weight", "Unit", "Usage Type", "Menu Name",
+            "Portion Count", "User", "Notes");
+
+    private static final List<String> TELEMETRY_COLUMNS = List.of(
+            "Received At", "Device", "Temperature (C)", "Humidity (%)", "Heat Index (C)", "Device Timestamp",
+            "Connection Status");
+
+    private final BatchRepository batchRepository;
+    private final BatchUsageHistoryRepository usageHistoryRepository;
+    private final IoTSensorDataRepository iotRepository;
+    private final StreamingQueryService streamingQueryService;
+
+    public ExportService(BatchRepository batchRepository,
+                         BatchUsageHistoryRepository usageHistoryRepository,
+                         IoTSensorDataRepository iotRepository,
+                         StreamingQueryService streamingQueryService) {
+        this.batchRepository = batchRepository;
+        this.usageHistoryRepository = usageHistoryRepository;
+        this.iotRepository = iotRepository;
+        this.streamingQueryService = streamingQueryService;
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportBatches(String format, String ingredientName, String storageLocation) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        log.info("Exporting batch data in format: {}", exportFormat);
+
+        Supplier<Stream<Batch>> query;
+        if (ingredientName != null && !ingredientName.isEmpty()) {
+            query = () -> batchRepository.streamActiveByIngredientName(ingredientName);
+        } else if (storageLocation != null && !storageLocation.isEmpty()) {
+            query = () -> batchRepository.streamActiveByStorageLocation(storageLocation);
+        } else {
+            query = batchRepository::streamActive;
+        }
+
+        return export(exportFormat, "batch_data", "Batches", BATCH_COLUMNS, query, batch -> Arrays.asList(
+                batch.getBatchCode(),
+                batch.getIngredientName(),
+                batch.getCategory() != null ? batch.getCategory().name() : null,
+                batch.getWeight(),
+                batch.getUnit(),
+                batch.getSource(),
+                toText(batch.getEntryDate()),
+                toText(batch.getExpiryDate()),
+                batch.getStorageLocation(),
+                batch.getFreshnessStatus() != null ? batch.getFreshnessStatus().name() : null,
+                batch.isActive(),
+                batch.getNotes()
+        ));
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportUsageHistory(String format, Instant startDate, Instant endDate) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        log.info("Exporting usage history from {} to {} in format: {}", startDate, endDate, exportFormat);
+
+        return export(exportFormat, "usage_history", "Usage History", USAGE_COLUMNS,
+                () -> usageHistoryRepository.streamByUsageDateBetween(startDate, endDate),
+                (BatchUsageHistory usage) -> Arrays.asList(
+                        toText(usage.getUsageDate()),
+                        usage.getBatch().getBatchCode(),
+                        usage.getBatch().getIngredientName(),
+                        usage.getUsedWeight(),
+                        usage.getBatch().getUnit(),
+                        usage.getUsageType().name(),
+                        usage.getMenuName(),
+                        usage.getPortionCount(),
+                        usage.getUser().getUsername(),
+                        usage.getNotes()
+                ));
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportTelemetry(String format, String deviceId, Instant from, Instant to) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        log.info("Exporting IoT telemetry for device {} from {} to {} in format: {}",
+                deviceId != null ? deviceId : "ALL", from, to, exportFormat);
+
+        Supplier<Stream<IoTSensorData>> query = deviceId != null && !deviceId.isEmpty()
+                ? () -> iotRepository.streamByDeviceAndReceivedAtBetween(deviceId, from, to)
+                : () -> iotRepository.streamByReceivedAtBetween(from, to);
+
+        return export(exportFormat, "iot_telemetry", "Telemetry", TELEMETRY_COLUMNS, query, reading -> Arrays.asList(
+                toText(reading.getReceivedAt()),
+                reading.getDeviceId(),
+                reading.getTemperatureC(),
+                reading.getHumidityPct(),
+                reading.getHeatIndexC(),
+                reading.getDeviceTimestamp(),
+                reading.getConnectionStatus()
+        ));
+    }
+
+    private <E> ResponseEntity<StreamingResponseBody> export(ExportFormat format, String fileName, String sheetName,
+                                                             List<String> columns, Supplier<Stream<E>> query,
+                                                             Function<E, List<?>> rowMapper) {
+        StreamingResponseBody body = outputStream -> {
+            TabularWriter writer = createWriter(format, outputStream, sheetName);
+            writer.writeHeader(columns);
+            streamingQueryService.forEach(query, row -> writer.writeRow(rowMapper.apply(row)), writer);
+            writer.finish();
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format.getMediaType());
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(fileName + "." + format.getExtension())
+                .build());
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
+    private TabularWriter createWriter(ExportFormat format, OutputStream outputStream, String sheetName) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvTabularWriter(outputStream);
+            case XLSX -> new XlsxTabularWriter(outputStream, sheetName);
+        };
+    }
+
+    private String toText(Instant instant) {
+        return instant != null ? instant.toString() : null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.pantara.service.export;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Row-at-a-time writer for tabular exports. Implementations write straight to the
+ * underlying stream and never hold more than the current row in memory.
+ */
+public interface TabularWriter extends Flushable {
+
+    void writeHeader(List<String> columns) throws IOException;
+
+    /**
+     * Writes one row. Numbers and booleans keep their type where the format supports it;
+     * {@code null} becomes an empty cell and everything else is written as text.
+     */
+    void writeRow(List<?> values) throws IOException;
+
+    /**
+     * Completes the document and flushes it. Does not close the target stream.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,190 @@
+package com.example.pantara.service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streaming writer for a single-sheet Office Open XML workbook (.xlsx).
+ *
+ * The fixed package parts are written up front and the worksheet is then written row by row into
+ * its zip entry using inline strings, so no shared-string table or row buffer has to be kept in
+ * memory. This is the same approach as POI's SXSSF without the dependency.
+ */
+public class XlsxTabularWriter implements TabularWriter {
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PKG_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+    private static final int HEADER_STYLE = 1;
+
+    private final ZipOutputStream zip;
+    private final Writer sheet;
+    private int rowNumber = 0;
+
+    public XlsxTabularWriter(OutputStream outputStream, String sheetName) throws IOException {
+        this.zip = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        writeStaticParts(sheetName);
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        this.sheet = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+        sheet.write(XML_HEADER);
+        sheet.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+    }
+
+    @Override
+    public void writeHeader(List<String> columns) throws IOException {
+        writeRow(columns, HEADER_STYLE);
+    }
+
+    @Override
+    public void writeRow(List<?> values) throws IOException {
+        writeRow(values, 0);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        sheet.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        sheet.write("</sheetData></worksheet>");
+        sheet.flush();
+        zip.closeEntry();
+        zip.finish();
+        zip.flush();
+    }
+
+    private void writeRow(List<?> values, int style) throws IOException {
+        rowNumber++;
+        sheet.write("<row r=\"");
+        sheet.write(Integer.toString(rowNumber));
+        sheet.write("\">");
+
+        for (int column = 0; column < values.size(); column++) {
+            Object value = values.get(column);
+            if (value == null) {
+                continue;
+            }
+
+            sheet.write("<c r=\"");
+            sheet.write(columnName(column));
+            sheet.write(Integer.toString(rowNumber));
+            sheet.write('"');
+            if (style != 0) {
+                sheet.write(" s=\"" + style + "\"");
+            }
+
+            if (value instanceof Number number && isFinite(number)) {
+                String text = number instanceof BigDecimal decimal ? decimal.toPlainString() : number.toString();
+                sheet.write("><v>");
+                sheet.write(text);
+                sheet.write("</v></c>");
+            } else if (value instanceof Boolean bool) {
+                sheet.write(" t=\"b\"><v>");
+                sheet.write(bool ? "1" : "0");
+                sheet.write("</v></c>");
+            } else {
+                sheet.write(" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                writeEscaped(value.toString());
+                sheet.write("</t></is></c>");
+            }
+        }
+
+        sheet.write("</row>");
+    }
+
+    private void writeEscaped(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> sheet.write("&lt;");
+                case '>' -> sheet.write("&gt;");
+                case '&' -> sheet.write("&amp;");
+                case '"' -> sheet.write("&quot;");
+                default -> {
+                    // Control characters other than tab and newlines are not allowed in XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        sheet.write(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isFinite(Number number) {
+        return !(number instanceof Double d && !Double.isFinite(d))
+                && !(number instanceof Float f && !Float.isFinite(f));
+    }
+
+    static String columnName(int index) {
+        StringBuilder name = new StringBuilder();
+        int n = index + 1;
+        while (n > 0) {
+            int remainder = (n - 1) % 26;
+            name.insert(0, (char) ('A' + remainder));
+            n = (n - 1) / 26;
+        }
+        return name.toString();
+    }
+
+    private void writeStaticParts(String sheetName) throws IOException {
+        writeEntry("[Content_Types].xml", XML_HEADER
+                + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+                + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+                + "</Types>");
+
+        writeEntry("_rels/.rels", XML_HEADER
+                + "<Relationships xmlns=\"" + PKG_REL_NS + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+
+        writeEntry("xl/workbook.xml", XML_HEADER
+                + "<workbook xmlns=\"" + MAIN_NS + "\" xmlns:r=\"" + REL_NS + "\">"
+                + "<sheets><sheet name=\"" + sanitizeSheetName(sheetName) + "\" sheetId=\"1\" r:id=\"rId1\"/></sheets>"
+                + "</workbook>");
+
+        writeEntry("xl/_rels/workbook.xml.rels", XML_HEADER
+                + "<Relationships xmlns=\"" + PKG_REL_NS + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+                + "<Relationship Id=\"rId2\" Type=\"" + REL_NS + "/styles\" Target=\"styles.xml\"/>"
+                + "</Relationships>");
+
+        writeEntry("xl/styles.xml", XML_HEADER
+                + "<styleSheet xmlns=\"" + MAIN_NS + "\">"
+                + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+                + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+                + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+                + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+                + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+                + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+                + "<cellXfs count=\"2\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+                + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/></cellXfs>"
+                + "</styleSheet>");
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private String sanitizeSheetName(String name) {
+        String cleaned = name.replaceAll("[\\\\/?*\\[\\]:&<>\"]", "");
+        return cleaned.length() > 31 ? cleaned.substring(0, 31) : cleaned;
+    }
+}
@@ -72,11 +72,13 @@ public class AuthServiceImpl implements AuthService {
     public void register(RegistrationRequest request) {
         log.info("Registering new user with email: {}", request.getEmail());
 
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userRepository.existsByEmail(request.getEmail())
+                || BusinessConstants.SystemAccount.isReservedEmail(request.getEmail())) {
             throw new UserAlreadyExistsException("Email is already in use: " + request.getEmail());
         }
 
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (userRepository.existsByUsername(request.getUsername())
+                || BusinessConstants.SystemAccount.isReservedUsername(request.getUsername())) {
             throw new UserAlreadyExistsException("Username is already taken: " + request.getUsername());
         }
 
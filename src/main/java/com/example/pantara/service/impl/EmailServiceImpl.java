@@ -1,5 +1,6 @@
 package com.example.pantara.service.impl;
 
+import com.example.pantara.config.AsyncExecutorsConfig;
 import com.example.pantara.service.EmailService;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -8,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
@@ -72,6 +74,7 @@ public class EmailServiceImpl implements EmailService {
     }
 
     @Override
+    @Async(AsyncExecutorsConfig.EMAIL_EXECUTOR)
     public void sendWelcomeEmail(String to, String username) {
         try {
             Map<String, Object> templateModel = new HashMap<>();
@@ -0,0 +1,181 @@
+package com.example.pantara.service.push;
+
+import com.example.pantara.entity.DeviceToken;
+import com.example.pantara.repository.DeviceTokenRepository;
+import com.example.pantara.repository.projection.DeviceTokenRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Push tokens per user, stored in {@code device_tokens} and shared by all replicas.
+ *
+ * Reads go through a per-user cache of immutable token sets, so concurrent readers never lock; a user's
+ * entry is evicted whenever this replica changes their tokens and otherwise expires after
+ * {@code push.tokens.cache-ttl-ms} to pick up changes made elsewhere. Tokens not re-registered within
+ * {@code push.tokens.ttl-days} are ignored and eventually deleted.
+ */
+@Component
+public class DeviceTokenRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(DeviceTokenRegistry.class);
+
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+    private static final int MAX_REGISTER_ATTEMPTS = 3;
+
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final TransactionTemplate registerTransaction;
+    private final long cacheTtlMs;
+    private final long tokenTtlDays;
+
+    private final ConcurrentMap<UUID, CachedTokens> cache = new ConcurrentHashMap<>();
+
+    public DeviceTokenRegistry(DeviceTokenRepository deviceTokenRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${push.tokens.cache-ttl-ms:300000}") long cacheTtlMs,
+                               @Value("${push.tokens.ttl-days:60}") long tokenTtlDays) {
+        this.deviceTokenRepository = deviceTokenRepository;
+        this.registerTransaction = new TransactionTemplate(transactionManager);
+        this.registerTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cacheTtlMs = cacheTtlMs;
+        this.tokenTtlDays = tokenTtlDays;
+    }
+
+    public Set<String> getTokens(UUID userId) {
+        return getTokens(List.of(userId)).getOrDefault(userId, Set.of());
+    }
+
+    /**
+     * Returns the live tokens of every given user that has at least one, loading all cache misses
+     * with one query per {@value #LOOKUP_CHUNK_SIZE} users.
+     */
+    public Map<UUID, Set<String>> getTokens(Collection<UUID> userIds) {
+        long now = System.currentTimeMillis();
+        Map<UUID, Set<String>> result = new HashMap<>();
+        List<UUID> misses = new ArrayList<>();
+
+        for (UUID userId : userIds) {
+            CachedTokens cached = cache.get(userId);
+            if (cached != null && now - cached.loadedAtMs < cacheTtlMs) {
+                if (!cached.tokens.isEmpty()) {
+                    result.put(userId, cached.tokens);
+                }
+            } else {
+                misses.add(userId);
+            }
+        }
+
+        Instant seenAfter = Instant.now().minus(tokenTtlDays, ChronoUnit.DAYS);
+        for (int from = 0; from < misses.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<UUID> chunk = misses.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, misses.size()));
+
+            Map<UUID, Set<String>> loaded = new HashMap<>();
+            for (DeviceTokenRow row : deviceTokenRepository.findLiveTokens(chunk, seenAfter)) {
+                loaded.computeIfAbsent(row.getUserId(), k -> new HashSet<>()).add(row.getToken());
+            }
+
+            for (UUID userId : chunk) {
+                Set<String> tokens = Set.copyOf(loaded.getOrDefault(userId, Set.of()));
+                cache.put(userId, new CachedTokens(tokens, now));
+                if (!tokens.isEmpty()) {
+                    result.put(userId, tokens);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds the token to the user, taking it over from whoever registered it before. Each attempt runs in its
+     * own transaction: when a concurrent registration inserts the same token first, the insert fails on
+     * {@code uk_device_token} and the next attempt updates the row that won instead.
+     */
+    public void register(UUID userId, String token) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                registerTransaction.executeWithoutResult(status -> upsert(userId, token));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_REGISTER_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Device token of user {} was registered concurrently, retrying", userId);
+            }
+        }
+    }
+
+    private void upsert(UUID userId, String token) {
+        Instant now = Instant.now();
+        Optional<DeviceToken> existing = deviceTokenRepository.findByToken(token);
+
+        if (existing.isPresent()) {
+            DeviceToken deviceToken = existing.get();
+            if (!deviceToken.getUserId().equals(userId)) {
+                evictAfterCommit(deviceToken.getUserId());
+                deviceToken.setUserId(userId);
+            }
+            deviceToken.setLastSeenAt(now);
+        } else {
+            deviceTokenRepository.saveAndFlush(new DeviceToken(userId, token, now));
+        }
+        evictAfterCommit(userId);
+    }
+
+    @Transactional
+    public void unregister(UUID userId, String token) {
+        deviceTokenRepository.deleteByUserIdAndToken(userId, token);
+        evictAfterCommit(userId);
+    }
+
+    /**
+     * Forgets a token the push service reported as no longer valid, whichever user it belongs to.
+     */
+    @Transactional
+    public void prune(String token) {
+        deviceTokenRepository.findByToken(token).ifPresent(deviceToken -> {
+            deviceTokenRepository.delete(deviceToken);
+            evictAfterCommit(deviceToken.getUserId());
+            log.info("Pruned invalid device token of user {}", deviceToken.getUserId());
+        });
+    }
+
+    @Scheduled(cron = "${push.tokens.cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void cleanupStaleTokens() {
+        Instant cutoff = Instant.now().minus(tokenTtlDays, ChronoUnit.DAYS);
+        int deleted = deviceTokenRepository.deleteSeenBefore(cutoff);
+        cache.clear();
+        log.info("Removed {} device tokens not seen for {} days", deleted, tokenTtlDays);
+    }
+
+    /**
+     * Evicting only once the change is committed keeps a concurrent read from caching the old tokens again.
+     */
+    private void evictAfterCommit(UUID userId) {
+        cache.remove(userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.remove(userId);
+            }
+        });
+    }
+
+    private record CachedTokens(Set<String> tokens, long loadedAtMs) {
+    }
+}
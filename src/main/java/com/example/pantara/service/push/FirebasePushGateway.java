@@ -0,0 +1,81 @@
+package com.example.pantara.service.push;
+
+import com.google.firebase.messaging.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link PushGateway} backed by Firebase Cloud Messaging {@code sendEach}, which accepts up to 500 messages per call.
+ */
+@Component
+public class FirebasePushGateway implements PushGateway {
+
+    private static final int FCM_MAX_BATCH_SIZE = 500;
+
+    private final FirebaseMessaging firebaseMessaging;
+
+    public FirebasePushGateway(@Autowired(required = false) FirebaseMessaging firebaseMessaging) {
+        this.firebaseMessaging = firebaseMessaging;
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return FCM_MAX_BATCH_SIZE;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return firebaseMessaging != null;
+    }
+
+    @Override
+    public List<PushOutcome> sendAll(List<PushMessage> messages) {
+        List<Message> fcmMessages = new ArrayList<>(messages.size());
+        for (PushMessage message : messages) {
+            fcmMessages.add(Message.builder()
+                    .setToken(message.token())
+                    .setNotification(Notification.builder()
+                            .setTitle(message.title())
+                            .setBody(message.body())
+                            .build())
+                    .putAllData(message.data())
+                    .build());
+        }
+
+        try {
+            BatchResponse response = firebaseMessaging.sendEach(fcmMessages);
+
+            List<PushOutcome> outcomes = new ArrayList<>(messages.size());
+            for (SendResponse sendResponse : response.getResponses()) {
+                outcomes.add(sendResponse.isSuccessful()
+                        ? PushOutcome.SENT
+                        : outcomeOf(sendResponse.getException()));
+            }
+            return outcomes;
+        } catch (FirebaseMessagingException e) {
+            return Collections.nCopies(messages.size(), outcomeOf(e));
+        }
+    }
+
+    private static PushOutcome outcomeOf(FirebaseMessagingException e) {
+        MessagingErrorCode code = e.getMessagingErrorCode();
+        if (code == null) {
+            return switch (e.getErrorCode()) {
+                case RESOURCE_EXHAUSTED -> PushOutcome.THROTTLED;
+                case UNAVAILABLE, INTERNAL, DEADLINE_EXCEEDED -> PushOutcome.TRANSIENT_FAILURE;
+                default -> PushOutcome.FAILED;
+            };
+        }
+        // INVALID_ARGUMENT also covers malformed payloads, so it says nothing about the token
+        return switch (code) {
+            case UNREGISTERED, SENDER_ID_MISMATCH -> PushOutcome.INVALID_TOKEN;
+            case QUOTA_EXCEEDED -> PushOutcome.THROTTLED;
+            case UNAVAILABLE, INTERNAL -> PushOutcome.TRANSIENT_FAILURE;
+            default -> PushOutcome.FAILED;
+        };
+    }
+}
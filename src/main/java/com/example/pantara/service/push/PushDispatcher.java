@@ -0,0 +1,156 @@
+package com.example.pantara.service.push;
+
+import com.example.pantara.config.AsyncExecutorsConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Delivers push messages in batches of up to {@link PushGateway#maxBatchSize()} on the bounded
+ * {@code pushExecutor} (see {@link AsyncExecutorsConfig}).
+ *
+ * Messages the gateway reports as transient failures are retried with exponential backoff up to
+ * {@code push.dispatch.max-attempts} times. When any message of a batch was throttled for exceeding the
+ * push quota, the retry starts from {@code push.dispatch.throttled-backoff-ms} instead, since retrying
+ * sooner only hits the quota again. Tokens reported as invalid are handed to the caller's callback
+ * so they can be pruned. With the executor's default abort policy, batches that do not fit its queue are
+ * dropped and counted rather than blocking the caller.
+ */
+@Component
+public class PushDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PushDispatcher.class);
+
+    private final PushGateway gateway;
+    private final Executor executor;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long throttledBackoffMs;
+
+    private final Counter sent;
+    private final Counter invalidTokens;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter dropped;
+    private final Timer batchLatency;
+
+    public PushDispatcher(PushGateway gateway,
+                          @Qualifier(AsyncExecutorsConfig.PUSH_EXECUTOR) Executor executor,
+                          MeterRegistry meterRegistry,
+                          @Value("${push.dispatch.max-attempts:3}") int maxAttempts,
+                          @Value("${push.dispatch.initial-backoff-ms:500}") long initialBackoffMs,
+                          @Value("${push.dispatch.throttled-backoff-ms:60000}") long throttledBackoffMs) {
+        this.gateway = gateway;
+        this.executor = executor;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.throttledBackoffMs = throttledBackoffMs;
+
+        this.sent = meterRegistry.counter("pantara.push.sent");
+        this.invalidTokens = meterRegistry.counter("pantara.push.invalid_tokens");
+        this.retried = meterRegistry.counter("pantara.push.retried");
+        this.failed = meterRegistry.counter("pantara.push.failed");
+        this.dropped = meterRegistry.counter("pantara.push.dropped");
+        this.batchLatency = Timer.builder("pantara.push.batch.latency")
+                .description("Time taken by one batched call to the push service")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues {@code messages} for delivery and returns immediately.
+     *
+     * @param onInvalidToken called once for every token the push service reports as no longer valid
+     * @return completes when every batch has been delivered, retried to exhaustion or dropped
+     */
+    public CompletableFuture<Void> dispatch(List<PushMessage> messages, Consumer<String> onInvalidToken) {
+        if (messages.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!gateway.isAvailable()) {
+            log.warn("Push gateway not configured, skipping {} push messages", messages.size());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        int batchSize = gateway.maxBatchSize();
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int from = 0; from < messages.size(); from += batchSize) {
+            List<PushMessage> batch = List.copyOf(messages.subList(from, Math.min(from + batchSize, messages.size())));
+            batches.add(submit(batch, 1, onInvalidToken));
+        }
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]));
+    }
+
+    private CompletableFuture<Void> submit(List<PushMessage> batch, int attempt, Consumer<String> onInvalidToken) {
+        try {
+            return CompletableFuture.supplyAsync(() -> send(batch), executor)
+                    .thenCompose(outcomes -> handle(batch, outcomes, attempt, onInvalidToken))
+                    .exceptionally(e -> {
+                        failed.increment(batch.size());
+                        log.error("Push batch of {} messages failed", batch.size(), e);
+                        return null;
+                    });
+        } catch (RejectedExecutionException e) {
+            drop(batch);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private List<PushOutcome> send(List<PushMessage> batch) {
+        return batchLatency.record(() -> gateway.sendAll(batch));
+    }
+
+    private CompletableFuture<Void> handle(List<PushMessage> batch, List<PushOutcome> outcomes, int attempt,
+                                           Consumer<String> onInvalidToken) {
+        List<PushMessage> retry = new ArrayList<>();
+        boolean throttled = false;
+        for (int i = 0; i < batch.size(); i++) {
+            PushMessage message = batch.get(i);
+            switch (outcomes.get(i)) {
+                case SENT -> sent.increment();
+                case INVALID_TOKEN -> {
+                    invalidTokens.increment();
+                    onInvalidToken.accept(message.token());
+                }
+                case TRANSIENT_FAILURE -> retry.add(message);
+                case THROTTLED -> {
+                    throttled = true;
+                    retry.add(message);
+                }
+                case FAILED -> failed.increment();
+            }
+        }
+
+        if (retry.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (attempt >= maxAttempts) {
+            failed.increment(retry.size());
+            log.warn("Giving up on {} push messages after {} attempts", retry.size(), attempt);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        retried.increment(retry.size());
+        long backoffMs = (throttled ? throttledBackoffMs : initialBackoffMs) << (attempt - 1);
+        Executor delayed = CompletableFuture.delayedExecutor(backoffMs, TimeUnit.MILLISECONDS);
+        return CompletableFuture.runAsync(() -> { }, delayed)
+                .thenCompose(ignored -> submit(retry, attempt + 1, onInvalidToken));
+    }
+
+    private void drop(List<PushMessage> batch) {
+        dropped.increment(batch.size());
+        log.warn("Push executor saturated, dropped {} push messages", batch.size());
+    }
+}
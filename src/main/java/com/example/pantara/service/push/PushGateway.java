@@ -0,0 +1,21 @@
+package com.example.pantara.service.push;
+
+import java.util.List;
+
+/**
+ * Sends a batch of push messages in one call to the push service.
+ */
+public interface PushGateway {
+
+    /**
+     * Maximum number of messages accepted by a single {@link #sendAll} call.
+     */
+    int maxBatchSize();
+
+    boolean isAvailable();
+
+    /**
+     * @return one outcome per message, in the same order as {@code messages}
+     */
+    List<PushOutcome> sendAll(List<PushMessage> messages);
+}
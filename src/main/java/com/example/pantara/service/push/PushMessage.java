@@ -0,0 +1,13 @@
+package com.example.pantara.service.push;
+
+import java.util.Map;
+
+/**
+ * A push notification addressed to a single device token.
+ */
+public record PushMessage(String token, String title, String body, Map<String, String> data) {
+
+    public PushMessage {
+        data = data != null ? Map.copyOf(data) : Map.of();
+    }
+}
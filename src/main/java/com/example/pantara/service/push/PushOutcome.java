@@ -0,0 +1,14 @@
+package com.example.pantara.service.push;
+
+public enum PushOutcome {
+    /** Delivered to the push service. */
+    SENT,
+    /** The token is no longer valid and should be forgotten. */
+    INVALID_TOKEN,
+    /** The push service was temporarily unable to accept the message; worth retrying. */
+    TRANSIENT_FAILURE,
+    /** The sender is over its push quota; worth retrying once the quota has had time to recover. */
+    THROTTLED,
+    /** Rejected for a reason retrying will not fix. */
+    FAILED
+}
@@ -0,0 +1,133 @@
+package com.example.pantara.repository;
+
+import com.example.pantara.entity.Batch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many threads take stock from one batch at once, each in its own transaction, the way concurrent
+ * usage requests do. Every successful decrement must be reflected in the final weight, and the batch
+ * must never be overdrawn.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-stress;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BatchStockDecrementStressTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BatchRepository batchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        batchRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentDecrementsAreNeverLost() throws Exception {
+        UUID batchId = createBatch("100.000");
+
+        int successes = decrementConcurrently(batchId, new BigDecimal("0.125"), 50);
+
+        Batch batch = batchRepository.findById(batchId).orElseThrow();
+        assertEquals(THREADS * 50, successes);
+        assertEquals(0, batch.getWeight().compareTo(BigDecimal.ZERO));
+        assertFalse(batch.isActive());
+    }
+
+    @Test
+    void concurrentDecrementsNeverOverdraw() throws Exception {
+        UUID batchId = createBatch("10.000");
+
+        int successes = decrementConcurrently(batchId, BigDecimal.ONE, 20);
+
+        Batch batch = batchRepository.findById(batchId).orElseThrow();
+        assertEquals(10, successes);
+        assertEquals(0, batch.getWeight().compareTo(BigDecimal.ZERO));
+        assertFalse(batch.isActive());
+    }
+
+    @Test
+    void remainingWeightMatchesSuccessfulDecrements() throws Exception {
+        BigDecimal initial = new BigDecimal("50.000");
+        BigDecimal amount = new BigDecimal("0.300");
+        UUID batchId = createBatch(initial.toPlainString());
+
+        int successes = decrementConcurrently(batchId, amount, 20);
+
+        Batch batch = batchRepository.findById(batchId).orElseThrow();
+        BigDecimal expected = initial.subtract(amount.multiply(BigDecimal.valueOf(successes)));
+        assertEquals(166, successes);
+        assertEquals(0, batch.getWeight().compareTo(expected));
+        assertTrue(batch.getWeight().signum() >= 0);
+        assertTrue(batch.isActive());
+    }
+
+    private int decrementConcurrently(UUID batchId, BigDecimal amount, int attemptsPerThread) throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    Boolean taken = transaction.execute(status -> {
+                        Batch batch = batchRepository.findById(batchId).orElseThrow();
+                        return batchRepository.decrementWeight(batch, amount);
+                    });
+                    if (Boolean.TRUE.equals(taken)) {
+                        successes.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        return successes.get();
+    }
+
+    private UUID createBatch(String weight) {
+        Batch batch = new Batch();
+        batch.setBatchCode("STR-20250101-RFG-" + UUID.randomUUID().toString().substring(0, 8));
+        batch.setIngredientName("Beras");
+        batch.setCategory(Batch.Category.BAHAN_POKOK);
+        batch.setWeight(new BigDecimal(weight));
+        batch.setUnit("kg");
+        batch.setSource("Stress test");
+        batch.setStorageLocation("gudang");
+        batch.setActive(true);
+        return batchRepository.saveAndFlush(batch).getId();
+    }
+}
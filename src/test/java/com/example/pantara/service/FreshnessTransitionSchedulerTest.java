@@ -0,0 +1,139 @@
+package com.example.pantara.service;
+
+import com.example.pantara.entity.Batch;
+import com.example.pantara.event.BatchChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A batch must come due when its freshness threshold passes, move when the batch changes and drop out of
+ * the schedule when it is deactivated. Freshness updates are recorded instead of applied.
+ */
+class FreshnessTransitionSchedulerTest {
+
+    private static final long SHORT_DELAY_MS = 300;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SpoilagePredictionService predictionService = new SpoilagePredictionService(null, meterRegistry,
+            null, 60_000, 100, 5, 100, 1, 1500, 20, 10, 50, 3000, 80, 30_000);
+
+    /** The batches as stored, which the fake update service hands back when a transition comes due. */
+    private final Map<UUID, Batch> stored = new ConcurrentHashMap<>();
+    private final BlockingQueue<UUID> applied = new LinkedBlockingQueue<>();
+    private final List<Long> appliedAtMs = Collections.synchronizedList(new ArrayList<>());
+
+    private FreshnessTransitionScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        FreshnessUpdateService freshnessUpdateService = new FreshnessUpdateService(null, predictionService, null,
+                null, null, null, meterRegistry, null, 500) {
+            @Override
+            public List<Batch> applyFreshnessTransitions(Collection<UUID> batchIds) {
+                List<Batch> evaluated = new ArrayList<>();
+                for (UUID batchId : batchIds) {
+                    appliedAtMs.add(System.currentTimeMillis());
+                    applied.add(batchId);
+                    evaluated.add(stored.get(batchId));
+                }
+                return evaluated;
+            }
+        };
+        scheduler = new FreshnessTransitionScheduler(null, predictionService, freshnessUpdateService,
+                meterRegistry, 60_000, 500);
+        scheduler.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        scheduler.stop();
+        predictionService.shutdown();
+    }
+
+    @Test
+    void batchComesDueWhenItCrossesTheThreshold() throws InterruptedException {
+        Batch batch = greenBatchTurningYellowIn(SHORT_DELAY_MS);
+        Instant dueAt = predictionService.nextFreshnessTransition(batch.getEntryDate(), batch.getExpiryDate(), Instant.now());
+
+        change(batch);
+        assertEquals(1, scheduler.getPendingCount());
+
+        assertEquals(batch.getId(), applied.poll(10, TimeUnit.SECONDS));
+        assertTrue(appliedAtMs.get(0) >= dueAt.toEpochMilli());
+    }
+
+    @Test
+    void deactivatedBatchIsDroppedFromTheSchedule() throws InterruptedException {
+        Batch batch = greenBatchTurningYellowIn(SHORT_DELAY_MS);
+        change(batch);
+        assertEquals(1, scheduler.getPendingCount());
+
+        batch.setActive(false);
+        change(batch);
+
+        assertEquals(0, scheduler.getPendingCount());
+        assertNull(applied.poll(SHORT_DELAY_MS * 3, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void changedBatchIsRescheduled() throws InterruptedException {
+        Batch batch = greenBatchTurningYellowIn(SHORT_DELAY_MS);
+        change(batch);
+
+        // moving the expiry out pushes the transition days away
+        batch.setExpiryDate(batch.getExpiryDate().plus(5, ChronoUnit.DAYS));
+        change(batch);
+        assertEquals(1, scheduler.getPendingCount());
+        assertNull(applied.poll(SHORT_DELAY_MS * 3, TimeUnit.MILLISECONDS));
+
+        // a stored status that no longer matches is due at once
+        batch.setFreshnessStatus(Batch.FreshnessStatus.YELLOW);
+        change(batch);
+        assertEquals(batch.getId(), applied.poll(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void appliedBatchIsScheduledForItsNextTransition() throws InterruptedException {
+        Batch batch = greenBatchTurningYellowIn(SHORT_DELAY_MS);
+        change(batch);
+
+        assertEquals(batch.getId(), applied.poll(10, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (scheduler.getPendingCount() == 0) {
+            assertTrue(System.nanoTime() < deadline, "yellow batch was not scheduled again");
+            Thread.sleep(5);
+        }
+        assertNull(applied.poll(SHORT_DELAY_MS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * A 10-day batch with 8 days left is green and turns yellow once fewer than 8 whole days remain.
+     */
+    private Batch greenBatchTurningYellowIn(long delayMs) {
+        Instant expiry = Instant.now().plus(8, ChronoUnit.DAYS).plusMillis(delayMs);
+        Batch batch = new Batch();
+        batch.setId(UUID.randomUUID());
+        batch.setEntryDate(expiry.minus(10, ChronoUnit.DAYS));
+        batch.setExpiryDate(expiry);
+        batch.setFreshnessStatus(Batch.FreshnessStatus.GREEN);
+        batch.setActive(true);
+        return batch;
+    }
+
+    private void change(Batch batch) {
+        stored.put(batch.getId(), batch);
+        scheduler.onBatchChanged(BatchChangedEvent.of(batch));
+    }
+}
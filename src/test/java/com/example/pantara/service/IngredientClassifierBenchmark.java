@@ -0,0 +1,108 @@
+package com.example.pantara.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the regex chain that used to classify ingredients with {@link IngredientClassifier}, uncached and
+ * cached, over a mix of seeded ingredient names. The forked benchmark JVM reuses the launching JVM's class
+ * path, so run it from a plain {@code java} process rather than from inside Maven:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) \
+ *     com.example.pantara.service.IngredientClassifierBenchmark
+ * </pre>
+ * Standard JMH options such as {@code -wi 1 -i 2} can be appended.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IngredientClassifierBenchmark {
+
+    private static final String[] NAMES = {
+            "Bayam Hijau", "Wortel Lokal", "Tomat Merah", "Kentang Dieng", "Bawang Putih",
+            "Pisang Ambon", "Apel Malang", "Jeruk Medan", "Semangka Tanpa Biji",
+            "Ayam Potong", "Daging Sapi Has Dalam", "Ikan Kembung", "Telur Ayam Ras", "Udang Vaname",
+            "Tahu Putih", "Tempe Mendoan", "Kacang Hijau",
+            "Beras Premium", "Tepung Terigu", "Mie Telur", "Roti Tawar",
+            "Gula Pasir", "Minyak Goreng", "Kecap Manis", "Susu UHT"
+    };
+
+    private IngredientClassifier classifier;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        classifier = new IngredientClassifier(new DefaultResourceLoader(), "", 10_000);
+    }
+
+    private String nextName() {
+        String name = NAMES[next];
+        next = (next + 1) % NAMES.length;
+        return name;
+    }
+
+    @Benchmark
+    public String regex() {
+        return regexCategory(nextName());
+    }
+
+    @Benchmark
+    public Optional<IngredientClassifier.IngredientGroup> automaton() {
+        return classifier.match(nextName());
+    }
+
+    @Benchmark
+    public Optional<IngredientClassifier.IngredientGroup> automatonCached() {
+        return classifier.classify(nextName());
+    }
+
+    @Benchmark
+    public void allNamesAutomaton(Blackhole blackhole) {
+        for (String name : NAMES) {
+            blackhole.consume(classifier.match(name));
+        }
+    }
+
+    /**
+     * The classification previously done by {@code SpoilagePredictionService.mapToKategoriBahan}.
+     */
+    private static String regexCategory(String ingredientName) {
+        String lower = ingredientName.toLowerCase();
+
+        if (lower.matches(".*(tomat|bayam|kangkung|sawi|wortel|kentang|bawang|timun|kubis|terong).*")) {
+            return "Sayuran";
+        } else if (lower.matches(".*(pisang|apel|jeruk|mangga|pepaya|semangka|melon|anggur).*")) {
+            return "Buah";
+        } else if (lower.matches(".*(ayam|daging|ikan|udang|telur).*")) {
+            return "Protein Hewani";
+        } else if (lower.matches(".*(tahu|tempe|kacang).*")) {
+            return "Protein Nabati";
+        } else if (lower.matches(".*(beras|tepung|mie|roti).*")) {
+            return "Karbohidrat";
+        } else {
+            return "Sayuran";
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(IngredientClassifierBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
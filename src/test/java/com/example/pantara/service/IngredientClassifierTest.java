@@ -0,0 +1,83 @@
+package com.example.pantara.service;
+
+import com.example.pantara.service.IngredientClassifier.IngredientGroup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngredientClassifierTest {
+
+    private final IngredientClassifier classifier = new IngredientClassifier(new DefaultResourceLoader(), "", 100);
+
+    @Test
+    void findsKeywordsAnywhereInTheName() {
+        assertEquals(Optional.of(IngredientGroup.SAYURAN), classifier.classify("Bayam Hijau"));
+        assertEquals(Optional.of(IngredientGroup.PROTEIN_HEWANI), classifier.classify("Daging Sapi Has Dalam"));
+        assertEquals(Optional.of(IngredientGroup.KARBOHIDRAT), classifier.classify("Tepung Terigu"));
+        assertEquals(Optional.of(IngredientGroup.BUMBU), classifier.classify("Kecap Manis"));
+    }
+
+    @Test
+    void overlappingKeywordsAreAllSeen() {
+        // "ubi" ends inside "kubis"; the vegetable keyword covering it wins
+        assertEquals(Optional.of(IngredientGroup.SAYURAN), classifier.classify("Kubis Ungu"));
+        assertEquals(Optional.of(IngredientGroup.KARBOHIDRAT), classifier.classify("Ubi Jalar"));
+        // the path through "kub" fails over to "ubi", which must still be found
+        assertEquals(Optional.of(IngredientGroup.KARBOHIDRAT), classifier.classify("Kubi"));
+        assertEquals(Optional.of(IngredientGroup.KARBOHIDRAT), classifier.classify("Keripik Kububi"));
+    }
+
+    @Test
+    void groupDeclaredFirstWinsWhateverThePosition() {
+        assertEquals(Optional.of(IngredientGroup.SAYURAN), classifier.classify("Tumis Tahu Bayam"));
+        assertEquals(Optional.of(IngredientGroup.SAYURAN), classifier.classify("Bayam Tahu"));
+        assertEquals(Optional.of(IngredientGroup.PROTEIN_HEWANI), classifier.classify("Kecap Ayam"));
+        assertEquals(Optional.of(IngredientGroup.PROTEIN_NABATI), classifier.classify("Roti Kacang"));
+    }
+
+    @Test
+    void ignoresCaseAndNonAsciiCharacters() {
+        assertEquals(Optional.of(IngredientGroup.SAYURAN), classifier.classify("BAYAM"));
+        assertEquals(Optional.of(IngredientGroup.BUAH), classifier.classify("pIsAnG aMbOn"));
+        assertEquals(Optional.of(IngredientGroup.SAYURAN), classifier.classify("Jalapeño Tomat"));
+        assertEquals(Optional.of(IngredientGroup.PROTEIN_HEWANI), classifier.classify("Ayam 🐔 Kampung"));
+        assertEquals(Optional.of(IngredientGroup.KARBOHIDRAT), classifier.classify("Roti Ñam"));
+    }
+
+    @Test
+    void returnsEmptyWhenNothingMatches() {
+        assertEquals(Optional.empty(), classifier.classify("Susu UHT"));
+        assertEquals(Optional.empty(), classifier.classify(""));
+        assertEquals(Optional.empty(), classifier.classify("Ñoño"));
+        assertEquals(Optional.empty(), classifier.classify(null));
+    }
+
+    @Test
+    void dictionaryAddsAndOverridesKeywords(@TempDir Path dir) throws IOException {
+        Path dictionary = dir.resolve("ingredients.properties");
+        Files.writeString(dictionary, String.join("\n",
+                "kacang\\ panjang=SAYURAN",
+                "susu=PROTEIN_HEWANI",
+                "Crème=bumbu",
+                "ubi=BUAH"), StandardCharsets.UTF_8);
+
+        IngredientClassifier custom = new IngredientClassifier(new DefaultResourceLoader(),
+                dictionary.toUri().toString(), 100);
+
+        // the longer keyword belongs to a higher-priority group than "kacang" and wins
+        assertEquals(Optional.of(IngredientGroup.SAYURAN), custom.classify("Kacang Panjang"));
+        assertEquals(Optional.of(IngredientGroup.PROTEIN_NABATI), custom.classify("Kacang Tanah"));
+        assertEquals(Optional.of(IngredientGroup.PROTEIN_HEWANI), custom.classify("Susu UHT"));
+        assertEquals(Optional.of(IngredientGroup.BUMBU), custom.classify("CRÈME Kental"));
+        assertEquals(Optional.of(IngredientGroup.BUAH), custom.classify("Ubi Ungu"));
+        assertEquals(Optional.of(IngredientGroup.SAYURAN), custom.classify("Kubis"));
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.pantara.service;
+
+import com.example.pantara.dto.request.ProductionPlanRequest;
+import com.example.pantara.dto.response.FifoPickingRecommendationResponse;
+import com.example.pantara.dto.response.PickingInstructionDto;
+import com.example.pantara.dto.response.ProductionPlanResponse;
+import com.example.pantara.entity.Batch;
+import com.example.pantara.entity.Menu;
+import com.example.pantara.entity.MenuIngredient;
+import com.example.pantara.entity.User;
+import com.example.pantara.event.BatchChangedEvent;
+import com.example.pantara.event.MenuEntityListener;
+import com.example.pantara.exception.ResourceNotFoundException;
+import com.example.pantara.repository.BatchRepository;
+import com.example.pantara.repository.MenuRepository;
+import com.example.pantara.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the allocation engine against a real schema. Stock taken by another transaction while a menu is
+ * being allocated must show up in the published batch state, not only in the database, and a production
+ * plan must share stock between menus that use the same ingredient.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import(MenuEntityListener.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MenuAllocationEngineTest {
+
+    @Autowired
+    private BatchRepository batchRepository;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private TransactionTemplate transaction;
+    private Runnable duringAllocation = () -> { };
+    private MenuAllocationEngine engine;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        FifoService fifoService = new FifoService(batchRepository, null) {
+            @Override
+            String calculateUrgencyLevel(Batch batch) {
+                duringAllocation.run();
+                return super.calculateUrgencyLevel(batch);
+            }
+        };
+        engine = new MenuAllocationEngine(batchRepository, menuRepository, fifoService, null, events::add);
+
+        User cook = new User();
+        cook.setUsername("cook");
+        cook.setEmail("cook@example.com");
+        cook.setPassword("secret");
+        user = userRepository.saveAndFlush(cook);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM batch_usage_history");
+        batchRepository.deleteAll();
+        menuRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void publishesStoredWeightWhenStockIsTakenConcurrently() {
+        UUID batchId = createBatch("Beras", "100.000", 10);
+        duringAllocation = () -> {
+            duringAllocation = () -> { };
+            CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+                Batch batch = batchRepository.findById(batchId).orElseThrow();
+                assertTrue(batchRepository.decrementWeight(batch, new BigDecimal("30.000")));
+            })).orTimeout(30, TimeUnit.SECONDS).join();
+        };
+
+        transaction.executeWithoutResult(status ->
+                engine.allocate(menu("Nasi Putih", ingredient("Beras", "0.500")), 10, user, "Lunch"));
+
+        Batch stored = batchRepository.findById(batchId).orElseThrow();
+        assertEquals(0, stored.getWeight().compareTo(new BigDecimal("65.000")));
+
+        List<Batch> published = publishedBatches();
+        assertEquals(1, published.size());
+        assertEquals(batchId, published.get(0).getId());
+        assertEquals(0, published.get(0).getWeight().compareTo(stored.getWeight()));
+        assertTrue(published.get(0).isActive());
+    }
+
+    @Test
+    void publishesDeactivatedBatchesAfterDrainingThem() {
+        UUID oldest = createBatch("Beras", "2.000", 10);
+        UUID newer = createBatch("Beras", "20.000", 5);
+
+        transaction.executeWithoutResult(status ->
+                engine.allocate(menu("Nasi Putih", ingredient("Beras", "0.500")), 10, user, "Lunch"));
+
+        List<Batch> published = publishedBatches();
+        assertEquals(2, published.size());
+        Batch drained = published.stream().filter(b -> b.getId().equals(oldest)).findFirst().orElseThrow();
+        Batch partial = published.stream().filter(b -> b.getId().equals(newer)).findFirst().orElseThrow();
+        assertEquals(0, drained.getWeight().signum());
+        assertFalse(drained.isActive());
+        assertEquals(0, partial.getWeight().compareTo(new BigDecimal("17.000")));
+        assertTrue(partial.isActive());
+    }
+
+    @Test
+    void planIsFeasibleWhenSharedIngredientCoversAllMenus() {
+        createBatch("Beras", "4.000", 10);
+        createBatch("Beras", "6.000", 5);
+        createBatch("Telur", "3.000", 5);
+        Menu rice = saveMenu(menu("Nasi Putih", ingredient("Beras", "0.300")));
+        Menu friedRice = saveMenu(menu("Nasi Goreng", ingredient("Beras", "0.250"), ingredient("Telur", "0.100")));
+
+        ProductionPlanResponse plan = plan(portion(rice, 10), portion(friedRice, 20));
+
+        assertTrue(plan.isFeasible());
+        assertTrue(plan.getShortages().isEmpty());
+        assertTrue(plan.getMenus().stream().allMatch(ProductionPlanResponse.MenuPlan::isFeasible));
+
+        FifoPickingRecommendationResponse beras = recommendation(plan, "Beras");
+        assertEquals(0, beras.getRequestedAmount().compareTo(new BigDecimal("8.000")));
+        assertEquals(0, beras.getTotalAvailable().compareTo(new BigDecimal("10.000")));
+        List<PickingInstructionDto> picks = beras.getPickingInstructions();
+        assertEquals(2, picks.size());
+        assertEquals(0, picks.get(0).getAmountToUse().compareTo(new BigDecimal("4.000")));
+        assertEquals(0, picks.get(1).getAmountToUse().compareTo(new BigDecimal("4.000")));
+
+        assertEquals(0, batchRepository.findAll().stream()
+                .map(Batch::getWeight)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .compareTo(new BigDecimal("13.000")));
+    }
+
+    @Test
+    void planReportsShortageOnlyForMenusUsingTheShortIngredient() {
+        createBatch("Beras", "5.000", 10);
+        createBatch("Telur", "3.000", 5);
+        Menu rice = saveMenu(menu("Nasi Putih", ingredient("Beras", "0.300")));
+        Menu friedRice = saveMenu(menu("Nasi Goreng", ingredient("Beras", "0.250"), ingredient("Telur", "0.100")));
+        Menu omelette = saveMenu(menu("Telur Dadar", ingredient("Telur", "0.050")));
+
+        ProductionPlanResponse plan = plan(portion(rice, 10), portion(friedRice, 20), portion(omelette, 10));
+
+        assertFalse(plan.isFeasible());
+        assertEquals(List.of("Beras: 3.000 kg missing"), plan.getShortages());
+        assertEquals(List.of(false, false, true),
+                plan.getMenus().stream().map(ProductionPlanResponse.MenuPlan::isFeasible).toList());
+        assertEquals(List.of("Beras"), plan.getMenus().get(1).getShortIngredients());
+
+        FifoPickingRecommendationResponse beras = recommendation(plan, "Beras");
+        assertFalse(beras.isCanFulfill());
+        assertEquals(0, beras.getShortage().compareTo(new BigDecimal("3.000")));
+        assertTrue(recommendation(plan, "Telur").isCanFulfill());
+    }
+
+    @Test
+    void planRejectsInactiveMenus() {
+        createBatch("Beras", "5.000", 10);
+        Menu retired = menu("Nasi Kuning", ingredient("Beras", "0.300"));
+        retired.setActive(false);
+        Menu saved = saveMenu(retired);
+
+        assertThrows(ResourceNotFoundException.class, () -> plan(portion(saved, 5)));
+    }
+
+    private ProductionPlanResponse plan(ProductionPlanRequest.MenuPortion... portions) {
+        return transaction.execute(status -> engine.plan(List.of(portions)));
+    }
+
+    private static ProductionPlanRequest.MenuPortion portion(Menu menu, int portionCount) {
+        return new ProductionPlanRequest.MenuPortion(menu.getId().toString(), portionCount);
+    }
+
+    private static FifoPickingRecommendationResponse recommendation(ProductionPlanResponse plan, String ingredientName) {
+        return plan.getIngredients().stream()
+                .filter(ingredient -> ingredient.getIngredientName().equals(ingredientName))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Menu saveMenu(Menu menu) {
+        return menuRepository.saveAndFlush(menu);
+    }
+
+    private List<Batch> publishedBatches() {
+        List<Batch> batches = new ArrayList<>();
+        for (Object event : events) {
+            if (event instanceof BatchChangedEvent changed) {
+                batches.addAll(changed.getBatches());
+            }
+        }
+        return batches;
+    }
+
+    private UUID createBatch(String ingredientName, String weight, int daysOld) {
+        Batch batch = new Batch();
+        batch.setBatchCode("TST-" + UUID.randomUUID().toString().substring(0, 8));
+        batch.setIngredientName(ingredientName);
+        batch.setCategory(Batch.Category.BAHAN_POKOK);
+        batch.setWeight(new BigDecimal(weight));
+        batch.setUnit("kg");
+        batch.setSource("Allocation test");
+        batch.setStorageLocation("gudang");
+        batch.setEntryDate(Instant.now().minus(daysOld, ChronoUnit.DAYS));
+        batch.setExpiryDate(Instant.now().plus(30, ChronoUnit.DAYS));
+        batch.setActive(true);
+        return batchRepository.saveAndFlush(batch).getId();
+    }
+
+    private static Menu menu(String name, MenuIngredient... ingredients) {
+        Menu menu = new Menu();
+        menu.setName(name);
+        menu.setActive(true);
+        menu.setIngredients(new ArrayList<>(List.of(ingredients)));
+        for (MenuIngredient ingredient : ingredients) {
+            ingredient.setMenu(menu);
+        }
+        return menu;
+    }
+
+    private static MenuIngredient ingredient(String name, String weightPerPortion) {
+        MenuIngredient ingredient = new MenuIngredient();
+        ingredient.setIngredientName(name);
+        ingredient.setWeightPerPortion(new BigDecimal(weightPerPortion));
+        ingredient.setUnit("kg");
+        return ingredient;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.pantara.service;
+
+import com.example.pantara.dto.response.MenuResponse;
+import com.example.pantara.entity.Menu;
+import com.example.pantara.entity.MenuIngredient;
+import com.example.pantara.event.MenuEntityListener;
+import com.example.pantara.repository.MenuRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Menu writes through JPA must invalidate the catalog via {@link MenuEntityListener}, a burst of reads after
+ * an invalidation must load it once, and callers must not be able to change the cached menus.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import({MenuCatalog.class, MenuEntityListener.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MenuCatalogTest {
+
+    private static final int READERS = 8;
+
+    @Autowired
+    private MenuCatalog menuCatalog;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        menuRepository.deleteAll();
+    }
+
+    @Test
+    void menuWritesInvalidateTheCatalog() {
+        Menu rice = menuRepository.saveAndFlush(menu("Nasi Putih", "Makanan Pokok", "Beras"));
+        assertEquals(List.of("Nasi Putih"), names(menuCatalog.getActiveMenus()));
+
+        menuRepository.saveAndFlush(menu("Soto Ayam", "Sup", "Ayam"));
+        assertEquals(List.of("Nasi Putih", "Soto Ayam"), names(menuCatalog.getActiveMenus()));
+        assertEquals(List.of("Makanan Pokok", "Sup"), menuCatalog.getActiveCategories());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Menu stored = menuRepository.findById(rice.getId()).orElseThrow();
+            stored.setActive(false);
+        });
+        assertEquals(List.of("Soto Ayam"), names(menuCatalog.getActiveMenus()));
+        assertTrue(menuCatalog.getActiveMenusByIngredient("Beras").isEmpty());
+        assertFalse(menuCatalog.getMenu(rice.getId()).orElseThrow().isActive());
+    }
+
+    @Test
+    void concurrentReadsAfterInvalidationLoadOnce() throws Exception {
+        menuRepository.saveAndFlush(menu("Nasi Putih", "Makanan Pokok", "Beras"));
+
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MenuRepository slowRepository = (MenuRepository) Proxy.newProxyInstance(
+                MenuRepository.class.getClassLoader(), new Class<?>[]{MenuRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAllWithIngredients")) {
+                        loads.incrementAndGet();
+                        loading.countDown();
+                        assertTrue(release.await(30, TimeUnit.SECONDS));
+                    }
+                    try {
+                        return method.invoke(menuRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        MenuCatalog catalog = new MenuCatalog(slowRepository);
+
+        List<Thread> readers = new ArrayList<>();
+        List<List<MenuResponse>> results = new ArrayList<>();
+        for (int i = 0; i < READERS; i++) {
+            List<MenuResponse> result = new ArrayList<>();
+            results.add(result);
+            readers.add(new Thread(() -> result.addAll(catalog.getActiveMenus())));
+        }
+        readers.forEach(Thread::start);
+
+        assertTrue(loading.await(30, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (readers.stream().filter(reader -> reader.getState() == Thread.State.BLOCKED).count() < READERS - 1) {
+            assertTrue(System.nanoTime() < deadline, "readers did not queue on the catalog lock");
+            Thread.sleep(5);
+        }
+        release.countDown();
+        for (Thread reader : readers) {
+            reader.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        assertEquals(1, loads.get());
+        for (List<MenuResponse> result : results) {
+            assertEquals(List.of("Nasi Putih"), names(result));
+        }
+    }
+
+    @Test
+    void readsReturnCopiesOfTheCachedMenus() {
+        Menu rice = menuRepository.saveAndFlush(menu("Nasi Putih", "Makanan Pokok", "Beras"));
+
+        MenuResponse first = menuCatalog.getMenu(rice.getId()).orElseThrow();
+        first.setName("Changed");
+        first.getIngredients().get(0).setWeightPerPortion(BigDecimal.TEN);
+        menuCatalog.getActiveMenus().get(0).setActive(false);
+
+        MenuResponse again = menuCatalog.getMenu(rice.getId()).orElseThrow();
+        assertEquals("Nasi Putih", again.getName());
+        assertEquals(0, again.getIngredients().get(0).getWeightPerPortion().compareTo(new BigDecimal("0.300")));
+        assertEquals(List.of("Nasi Putih"), names(menuCatalog.getActiveMenusByCategory("Makanan Pokok")));
+    }
+
+    private static List<String> names(List<MenuResponse> menus) {
+        return menus.stream().map(MenuResponse::getName).toList();
+    }
+
+    private static Menu menu(String name, String category, String ingredientName) {
+        Menu menu = new Menu();
+        menu.setName(name);
+        menu.setCategory(category);
+        menu.setActive(true);
+
+        MenuIngredient ingredient = new MenuIngredient();
+        ingredient.setMenu(menu);
+        ingredient.setIngredientName(ingredientName);
+        ingredient.setWeightPerPortion(new BigDecimal("0.300"));
+        ingredient.setUnit("kg");
+        menu.setIngredients(new ArrayList<>(List.of(ingredient)));
+        return menu;
+    }
+}
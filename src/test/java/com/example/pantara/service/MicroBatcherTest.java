@@ -0,0 +1,155 @@
+package com.example.pantara.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicroBatcherTest {
+
+    private final List<List<Integer>> calls = new CopyOnWriteArrayList<>();
+    private MicroBatcher<Integer, String> batcher;
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+    }
+
+    @Test
+    void flushesAsSoonAsMaxBatchSizeIsReached() throws Exception {
+        batcher = newBatcher(this::echo, 60_000, 3);
+
+        List<CompletableFuture<String>> results = submitAll(0, 7);
+
+        // A one-minute window would time out the test, so the first two calls can only be size flushes
+        assertEquals("r0", results.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals("r5", results.get(5).get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of(0, 1, 2), List.of(3, 4, 5)), calls.subList(0, 2));
+        assertFalse(results.get(6).isDone());
+    }
+
+    @Test
+    void flushesAPartialBatchWhenTheWindowCloses() throws Exception {
+        batcher = newBatcher(this::echo, 50, 100);
+
+        List<CompletableFuture<String>> results = submitAll(0, 4);
+
+        assertEquals(List.of("r0", "r1", "r2", "r3"), join(results));
+        assertEquals(List.of(List.of(0, 1, 2, 3)), calls);
+    }
+
+    @Test
+    void itemsArrivingAfterTheWindowGoToTheNextBatch() throws Exception {
+        batcher = newBatcher(this::echo, 50, 100);
+
+        List<CompletableFuture<String>> first = submitAll(0, 2);
+        join(first);
+        List<CompletableFuture<String>> second = submitAll(2, 2);
+
+        assertEquals(List.of("r2", "r3"), join(second));
+        assertEquals(List.of(List.of(0, 1), List.of(2, 3)), calls);
+    }
+
+    @Test
+    void handlerFailureFailsEveryItemInTheBatch() {
+        IllegalStateException failure = new IllegalStateException("upstream down");
+        batcher = newBatcher(items -> {
+            calls.add(items);
+            throw failure;
+        }, 50, 100);
+
+        List<CompletableFuture<String>> results = submitAll(0, 5);
+
+        for (CompletableFuture<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void wrongNumberOfResultsFailsEveryItemInTheBatch() {
+        batcher = newBatcher(items -> {
+            calls.add(items);
+            return List.of("only one");
+        }, 50, 100);
+
+        List<CompletableFuture<String>> results = submitAll(0, 3);
+
+        for (CompletableFuture<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void itemsQueuedWhileAllCallsAreBusyJoinTheNextBatch() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        batcher = newBatcher(items -> {
+            calls.add(items);
+            if (calls.size() == 1) {
+                await(release);
+            }
+            return results(items);
+        }, 20, 100);
+
+        CompletableFuture<String> first = batcher.submit(0);
+        while (calls.isEmpty()) {
+            Thread.sleep(5);
+        }
+        List<CompletableFuture<String>> queued = submitAll(1, 5);
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("r0", first.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("r1", "r2", "r3", "r4", "r5"), join(queued));
+        assertEquals(List.of(List.of(0), List.of(1, 2, 3, 4, 5)), calls);
+    }
+
+    private MicroBatcher<Integer, String> newBatcher(Function<List<Integer>, List<String>> handler,
+                                                     long windowMs, int maxBatchSize) {
+        return new MicroBatcher<>("test", handler, windowMs, maxBatchSize, 1);
+    }
+
+    private List<String> echo(List<Integer> items) {
+        calls.add(items);
+        return results(items);
+    }
+
+    private static List<String> results(List<Integer> items) {
+        return items.stream().map(item -> "r" + item).toList();
+    }
+
+    private List<CompletableFuture<String>> submitAll(int from, int count) {
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            results.add(batcher.submit(i));
+        }
+        return results;
+    }
+
+    private static List<String> join(List<CompletableFuture<String>> results) throws Exception {
+        List<String> values = new ArrayList<>();
+        for (CompletableFuture<String> result : results) {
+            values.add(result.get(5, TimeUnit.SECONDS));
+        }
+        return values;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
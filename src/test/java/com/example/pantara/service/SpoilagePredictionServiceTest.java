@@ -0,0 +1,133 @@
+package com.example.pantara.service;
+
+import com.example.pantara.entity.Batch.FreshnessStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link SpoilagePredictionService#nextFreshnessTransition} must name the first instant at which
+ * {@link SpoilagePredictionService#calculateFreshnessStatus} changes, including when {@code now} sits exactly
+ * on the 70% or 30% threshold. A failed Azure ML call must read as "no prediction" rather than as an error.
+ */
+class SpoilagePredictionServiceTest {
+
+    private static final Instant EXPIRY = Instant.parse("2026-03-01T08:00:00Z");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger mlCalls = new AtomicInteger();
+    private final RestTemplate unreachable = new RestTemplate() {
+        @Override
+        public <T> ResponseEntity<T> postForEntity(String url, Object request, Class<T> responseType, Object... uriVariables) {
+            mlCalls.incrementAndGet();
+            throw new ResourceAccessException("Connection refused");
+        }
+    };
+    private final SpoilagePredictionService service = new SpoilagePredictionService(unreachable, meterRegistry,
+            new IngredientClassifier(new DefaultResourceLoader(), "", 100), 60_000, 100, 5, 100, 1, 1500, 20, 10, 50, 3000, 80, 30_000);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void failedCallCompletesWithoutPredictionAndIsNotCached() throws Exception {
+        ReflectionTestUtils.setField(service, "azureMLEnabled", true);
+        ReflectionTestUtils.setField(service, "azureMLApiKey", "key");
+        ReflectionTestUtils.setField(service, "azureMLEndpoint", "http://ml.invalid/score");
+        Instant entry = EXPIRY.minus(10, ChronoUnit.DAYS);
+
+        assertNull(service.predictSpoilageAsync("Tomat", "kulkas", entry, 4.0).get(10, TimeUnit.SECONDS));
+        assertNull(service.predictSpoilageAsync("Tomat", "kulkas", entry, 4.0).get(10, TimeUnit.SECONDS));
+
+        assertEquals(2, mlCalls.get());
+        assertEquals(2, meterRegistry.counter("pantara.prediction.cache", "result", "miss").count());
+    }
+
+    @Test
+    void greenTurnsYellowOnceSeventyPercentNoLongerRemains() {
+        Instant entry = EXPIRY.minus(10, ChronoUnit.DAYS);
+
+        // 8 of 10 days left is still green; 7 days left is exactly 70% and no longer clears the threshold
+        Instant transition = EXPIRY.minus(8, ChronoUnit.DAYS).plusMillis(1);
+        assertEquals(transition, service.nextFreshnessTransition(entry, EXPIRY, entry));
+        assertEquals(FreshnessStatus.GREEN, status(entry, transition.minusMillis(1)));
+        assertEquals(FreshnessStatus.YELLOW, status(entry, transition));
+    }
+
+    @Test
+    void exactlyAtSeventyPercentWaitsForThirtyPercent() {
+        Instant entry = EXPIRY.minus(20, ChronoUnit.DAYS);
+        Instant atSeventyPercent = EXPIRY.minus(14, ChronoUnit.DAYS);
+
+        assertEquals(FreshnessStatus.YELLOW, status(entry, atSeventyPercent));
+        // 7 of 20 days left is still yellow, 6 days is exactly 30%
+        Instant transition = EXPIRY.minus(7, ChronoUnit.DAYS).plusMillis(1);
+        assertEquals(transition, service.nextFreshnessTransition(entry, EXPIRY, atSeventyPercent));
+        assertEquals(FreshnessStatus.YELLOW, status(entry, transition.minusMillis(1)));
+        assertEquals(FreshnessStatus.RED, status(entry, transition));
+    }
+
+    @Test
+    void exactlyAtThirtyPercentHasNoFurtherTransition() {
+        Instant entry = EXPIRY.minus(10, ChronoUnit.DAYS);
+        Instant atThirtyPercent = EXPIRY.minus(3, ChronoUnit.DAYS);
+
+        assertEquals(FreshnessStatus.RED, status(entry, atThirtyPercent));
+        assertNull(service.nextFreshnessTransition(entry, EXPIRY, atThirtyPercent));
+    }
+
+    @Test
+    void lastGreenInstantTransitionsOneMillisecondLater() {
+        Instant entry = EXPIRY.minus(10, ChronoUnit.DAYS);
+        Instant lastGreen = EXPIRY.minus(8, ChronoUnit.DAYS);
+
+        assertEquals(FreshnessStatus.GREEN, status(entry, lastGreen));
+        assertEquals(lastGreen.plusMillis(1), service.nextFreshnessTransition(entry, EXPIRY, lastGreen));
+    }
+
+    @Test
+    void expiredOrShelfLifeLessBatchesHaveNoTransition() {
+        Instant entry = EXPIRY.minus(10, ChronoUnit.DAYS);
+
+        assertNull(service.nextFreshnessTransition(entry, EXPIRY, EXPIRY.plusMillis(1)));
+        assertNull(service.nextFreshnessTransition(entry, EXPIRY, EXPIRY.plus(30, ChronoUnit.DAYS)));
+        assertNull(service.nextFreshnessTransition(EXPIRY.minus(12, ChronoUnit.HOURS), EXPIRY, EXPIRY.minus(6, ChronoUnit.HOURS)));
+    }
+
+    @Test
+    void transitionIsTheFirstInstantWithADifferentStatus() {
+        for (int shelfLifeDays = 1; shelfLifeDays <= 60; shelfLifeDays++) {
+            Instant entry = EXPIRY.minus(shelfLifeDays, ChronoUnit.DAYS);
+            for (Instant now = entry; now.isBefore(EXPIRY); now = now.plus(7, ChronoUnit.HOURS)) {
+                FreshnessStatus current = status(entry, now);
+                Instant transition = service.nextFreshnessTransition(entry, EXPIRY, now);
+                if (current == FreshnessStatus.RED) {
+                    assertNull(transition);
+                    continue;
+                }
+                String context = shelfLifeDays + " days, now " + now;
+                assertTrue(transition.isAfter(now), context);
+                assertEquals(current, status(entry, transition.minusMillis(1)), context);
+                assertNotEquals(current, status(entry, transition), context);
+            }
+        }
+    }
+
+    private FreshnessStatus status(Instant entry, Instant now) {
+        return service.calculateFreshnessStatus(entry, EXPIRY, now);
+    }
+}
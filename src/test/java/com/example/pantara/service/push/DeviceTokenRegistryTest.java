@@ -0,0 +1,96 @@
+package com.example.pantara.service.push;
+
+import com.example.pantara.entity.DeviceToken;
+import com.example.pantara.repository.DeviceTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two devices registering the same token at once must both succeed, leaving one row owned by whichever
+ * registration committed last instead of failing the loser on the unique token constraint.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeviceTokenRegistryTest {
+
+    private static final String TOKEN = "fcm-token-1";
+
+    @Autowired
+    private DeviceTokenRepository deviceTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        deviceTokenRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentRegistrationsOfOneTokenBothSucceed() {
+        // both registrations look the token up before either inserts it
+        CountDownLatch bothLookedUp = new CountDownLatch(2);
+        DeviceTokenRepository racingRepository = (DeviceTokenRepository) Proxy.newProxyInstance(
+                DeviceTokenRepository.class.getClassLoader(), new Class<?>[]{DeviceTokenRepository.class},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(deviceTokenRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (method.getName().equals("findByToken") && bothLookedUp.getCount() > 0) {
+                        bothLookedUp.countDown();
+                        assertTrue(bothLookedUp.await(30, TimeUnit.SECONDS));
+                    }
+                    return result;
+                });
+        DeviceTokenRegistry registry = new DeviceTokenRegistry(racingRepository, transactionManager, 0, 60);
+
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        CompletableFuture<Void> one = CompletableFuture.runAsync(() -> registry.register(first, TOKEN));
+        CompletableFuture<Void> two = CompletableFuture.runAsync(() -> registry.register(second, TOKEN));
+        CompletableFuture.allOf(one, two).orTimeout(60, TimeUnit.SECONDS).join();
+
+        List<DeviceToken> rows = deviceTokenRepository.findAll();
+        assertEquals(1, rows.size());
+        UUID owner = rows.get(0).getUserId();
+        assertTrue(owner.equals(first) || owner.equals(second));
+        assertEquals(Set.of(TOKEN), registry.getTokens(owner));
+        assertEquals(Set.of(), registry.getTokens(owner.equals(first) ? second : first));
+    }
+
+    @Test
+    void registeringAgainMovesTheTokenToTheNewUser() {
+        DeviceTokenRegistry registry = new DeviceTokenRegistry(deviceTokenRepository, transactionManager, 300_000, 60);
+        UUID previous = UUID.randomUUID();
+        UUID current = UUID.randomUUID();
+
+        registry.register(previous, TOKEN);
+        assertEquals(Set.of(TOKEN), registry.getTokens(previous));
+
+        registry.register(current, TOKEN);
+        assertEquals(Set.of(), registry.getTokens(previous));
+        assertEquals(Set.of(TOKEN), registry.getTokens(current));
+        assertEquals(1, deviceTokenRepository.count());
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.pantara.service.push;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PushDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private PushDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(100);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void splitsMessagesIntoBatchesOfGatewayMaxSize() throws Exception {
+        FakePushGateway gateway = new FakePushGateway(500, message -> PushOutcome.SENT);
+        dispatcher = newDispatcher(gateway, 3);
+
+        dispatcher.dispatch(messages(1200), token -> { }).get(5, TimeUnit.SECONDS);
+
+        List<Integer> sizes = gateway.batchSizes();
+        Collections.sort(sizes);
+        assertEquals(List.of(200, 500, 500), sizes);
+        assertEquals(1200, meterRegistry.counter("pantara.push.sent").count());
+    }
+
+    @Test
+    void reportsInvalidTokensForPruning() throws Exception {
+        FakePushGateway gateway = new FakePushGateway(500,
+                message -> message.token().endsWith("-3") ? PushOutcome.INVALID_TOKEN : PushOutcome.SENT);
+        dispatcher = newDispatcher(gateway, 3);
+
+        Queue<String> pruned = new ConcurrentLinkedQueue<>();
+        dispatcher.dispatch(messages(5), pruned::add).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("token-3"), new ArrayList<>(pruned));
+        assertEquals(4, meterRegistry.counter("pantara.push.sent").count());
+    }
+
+    @Test
+    void retriesOnlyTransientFailuresUntilTheySucceed() throws Exception {
+        Map<String, Integer> attempts = Collections.synchronizedMap(new HashMap<>());
+        FakePushGateway gateway = new FakePushGateway(500, message -> {
+            int attempt = attempts.merge(message.token(), 1, Integer::sum);
+            return message.token().equals("token-0") && attempt < 3 ? PushOutcome.TRANSIENT_FAILURE : PushOutcome.SENT;
+        });
+        dispatcher = newDispatcher(gateway, 3);
+
+        dispatcher.dispatch(messages(3), token -> { }).get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, attempts.get("token-0"));
+        assertEquals(1, attempts.get("token-1"));
+        assertEquals(List.of(3, 1, 1), gateway.batchSizes());
+        assertEquals(3, meterRegistry.counter("pantara.push.sent").count());
+        assertEquals(2, meterRegistry.counter("pantara.push.retried").count());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() throws Exception {
+        FakePushGateway gateway = new FakePushGateway(500, message -> PushOutcome.TRANSIENT_FAILURE);
+        dispatcher = newDispatcher(gateway, 2);
+
+        dispatcher.dispatch(messages(2), token -> { }).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, gateway.batchSizes().size());
+        assertEquals(2, meterRegistry.counter("pantara.push.failed").count());
+    }
+
+    @Test
+    void skipsDeliveryWhenGatewayIsUnavailable() throws Exception {
+        FakePushGateway gateway = new FakePushGateway(500, message -> PushOutcome.SENT);
+        gateway.available = false;
+        dispatcher = newDispatcher(gateway, 3);
+
+        dispatcher.dispatch(messages(3), token -> { }).get(5, TimeUnit.SECONDS);
+
+        assertTrue(gateway.batchSizes().isEmpty());
+    }
+
+    @Test
+    void backsOffLongerWhenThrottled() throws Exception {
+        Map<String, Integer> attempts = Collections.synchronizedMap(new HashMap<>());
+        FakePushGateway gateway = new FakePushGateway(500, message ->
+                attempts.merge(message.token(), 1, Integer::sum) == 1 ? PushOutcome.THROTTLED : PushOutcome.SENT);
+        dispatcher = new PushDispatcher(gateway, executor, meterRegistry, 3, 10, 300);
+
+        long start = System.nanoTime();
+        dispatcher.dispatch(messages(2), token -> { }).get(5, TimeUnit.SECONDS);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 300);
+        assertEquals(List.of(2, 2), gateway.batchSizes());
+        assertEquals(2, meterRegistry.counter("pantara.push.sent").count());
+        assertEquals(0, meterRegistry.counter("pantara.push.invalid_tokens").count());
+    }
+
+    private PushDispatcher newDispatcher(PushGateway gateway, int maxAttempts) {
+        return new PushDispatcher(gateway, executor, meterRegistry, maxAttempts, 10, 10);
+    }
+
+    private static List<PushMessage> messages(int count) {
+        List<PushMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(new PushMessage("token-" + i, "title", "body", Map.of("notificationId", String.valueOf(i))));
+        }
+        return messages;
+    }
+
+    private static class FakePushGateway implements PushGateway {
+        private final int maxBatchSize;
+        private final Function<PushMessage, PushOutcome> responder;
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private volatile boolean available = true;
+
+        private FakePushGateway(int maxBatchSize, Function<PushMessage, PushOutcome> responder) {
+            this.maxBatchSize = maxBatchSize;
+            this.responder = responder;
+        }
+
+        @Override
+        public int maxBatchSize() {
+            return maxBatchSize;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return available;
+        }
+
+        @Override
+        public List<PushOutcome> sendAll(List<PushMessage> messages) {
+            batchSizes.add(messages.size());
+            List<PushOutcome> outcomes = new ArrayList<>(messages.size());
+            for (PushMessage message : messages) {
+                outcomes.add(responder.apply(message));
+            }
+            return outcomes;
+        }
+
+        private List<Integer> batchSizes() {
+            return new ArrayList<>(batchSizes);
+        }
+    }
+}